@@ -0,0 +1,88 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * The AnimationComponent class holds how an entity is drawn: an animation for each direction it can walk in,
+ * and one for standing still. Entities with an animation are drawn by the {@link RenderSystem}.
+ * It holds nothing that differs between entities of one kind, so they can share one instance.
+ */
+public class AnimationComponent implements Component {
+
+    public static final ComponentMapper<AnimationComponent> MAPPER = ComponentMapper.getFor(AnimationComponent.class);
+
+    /** The animations by direction, in the order of {@link FlowField#UP}, {@link FlowField#DOWN}, {@link FlowField#LEFT} and {@link FlowField#RIGHT}. */
+    public final Animation<TextureRegion>[] walking;
+    /** The animation of an entity that does not move, or null to keep the animation of its direction. */
+    public Animation<TextureRegion> standing;
+    /** The size the frames are drawn with, in world units. */
+    public final float width;
+    public final float height;
+    /** Entities of higher layers are drawn over entities of lower layers. */
+    public final int layer;
+
+    /**
+     * Constructs an AnimationComponent for an entity that looks the same in every direction.
+     *
+     * @param animation The animation.
+     * @param width     The width the frames are drawn with.
+     * @param height    The height the frames are drawn with.
+     * @param layer     The layer the entity is drawn in.
+     */
+    public AnimationComponent(Animation<TextureRegion> animation, float width, float height, int layer) {
+        this(byDirection(animation, animation, animation, animation), animation, width, height, layer);
+    }
+
+    /**
+     * Constructs an AnimationComponent.
+     *
+     * @param walking  The animations by direction.
+     * @param standing The animation of an entity that does not move, or null to keep the animation of its direction.
+     * @param width    The width the frames are drawn with.
+     * @param height   The height the frames are drawn with.
+     * @param layer    The layer the entity is drawn in.
+     */
+    public AnimationComponent(Animation<TextureRegion>[] walking, Animation<TextureRegion> standing,
+                              float width, float height, int layer) {
+        this.walking = walking;
+        this.standing = standing;
+        this.width = width;
+        this.height = height;
+        this.layer = layer;
+    }
+
+    /**
+     * Puts the animations of the four directions into an array in the order {@link #walking} holds them.
+     *
+     * @param up    The animation of walking up.
+     * @param down  The animation of walking down.
+     * @param left  The animation of walking left.
+     * @param right The animation of walking right.
+     * @return The animations by direction.
+     */
+    public static Animation<TextureRegion>[] byDirection(Animation<TextureRegion> up, Animation<TextureRegion> down,
+                                                         Animation<TextureRegion> left, Animation<TextureRegion> right) {
+        // Arrays of a generic type cannot be created directly
+        @SuppressWarnings("unchecked")
+        Animation<TextureRegion>[] walking = (Animation<TextureRegion>[]) new Animation<?>[4];
+        walking[FlowField.UP] = up;
+        walking[FlowField.DOWN] = down;
+        walking[FlowField.LEFT] = left;
+        walking[FlowField.RIGHT] = right;
+        return walking;
+    }
+
+    /**
+     * Gets the animation to draw.
+     *
+     * @param direction The direction the entity walks or faces in.
+     * @param moving    True if the entity moved in the last step.
+     * @return The animation.
+     */
+    public Animation<TextureRegion> getAnimation(int direction, boolean moving) {
+        return moving || standing == null ? walking[direction] : standing;
+    }
+}
@@ -0,0 +1,61 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Entity;
+
+/**
+ * The EntityAnimations class gives the entities a level creates the animations they are drawn with.
+ * The game logic knows nothing about sprites, so the animations are added to the entities as the level creates them.
+ * All entities of a kind share one component.
+ */
+public class EntityAnimations implements MazeLevel.EntityListener {
+
+    // Layers the entities are drawn in, from bottom to top
+    private static final int CHARACTER_LAYER = 0;
+    private static final int ENEMY_LAYER = 1;
+    private static final int TRAP_LAYER = 2;
+    private static final int KEY_LAYER = 3;
+
+    private final AnimationComponent characterAnimation;
+    private final AnimationComponent enemyAnimation;
+    private final AnimationComponent trapAnimation;
+    private final AnimationComponent keyAnimation;
+
+    /**
+     * Constructs an EntityAnimations object.
+     *
+     * @param sprites The sprites of the game.
+     */
+    public EntityAnimations(Sprites sprites) {
+        // The character is drawn 16x32, but only its feet collide
+        characterAnimation = new AnimationComponent(AnimationComponent.byDirection(
+                sprites.getAnimation(Sprites.CHARACTER_UP), sprites.getAnimation(Sprites.CHARACTER_DOWN),
+                sprites.getAnimation(Sprites.CHARACTER_LEFT), sprites.getAnimation(Sprites.CHARACTER_RIGHT)),
+                sprites.getAnimation(Sprites.CHARACTER_STAND_DOWN), 16, 32, CHARACTER_LAYER);
+        enemyAnimation = new AnimationComponent(AnimationComponent.byDirection(
+                sprites.getAnimation(Sprites.ENEMY_UP), sprites.getAnimation(Sprites.ENEMY_DOWN),
+                sprites.getAnimation(Sprites.ENEMY_LEFT), sprites.getAnimation(Sprites.ENEMY_RIGHT)),
+                null, 16, 16, ENEMY_LAYER);
+        trapAnimation = new AnimationComponent(sprites.getAnimation(Sprites.TRAP_ANIMATION), 16, 16, TRAP_LAYER);
+        keyAnimation = new AnimationComponent(sprites.getAnimation(Sprites.COIN_ANIMATION), 16, 16, KEY_LAYER);
+    }
+
+    @Override
+    public void entityCreated(Entity entity, int tileId) {
+        switch (tileId) {
+            case MazeGrid.ENTRY_POINT:
+                entity.add(characterAnimation);
+                break;
+            case MazeGrid.ENEMY:
+                entity.add(enemyAnimation);
+                break;
+            case MazeGrid.TRAP:
+                entity.add(trapAnimation);
+                break;
+            case MazeGrid.KEY:
+                entity.add(keyAnimation);
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package de.tum.cit.ase.maze;
 
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
@@ -14,6 +15,7 @@
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ExtendViewport;
 import com.badlogic.gdx.utils.viewport.FitViewport;
@@ -26,14 +28,27 @@
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Map;
-import java.util.Properties;
 
 /**
  * The GameScreen class is responsible for rendering the gameplay screen.
- * It handles the game logic and rendering of the game elements.
+ * The game logic runs in a {@link Simulation}; the screen passes the keys the player holds down to it,
+ * draws it and reacts to what it reports with sounds, the HUD and switching screens.
+ * Every game is recorded, and when the level ends the recording is written to {@link #LAST_REPLAY}.
+ * A replay can be played instead of the keys; holding SPACE then plays it {@link #FAST_FORWARD} times as fast.
+ * While the player plays, holding R turns the game back, by up to {@link #REWIND_SECONDS} seconds.
  */
-public class GameScreen implements Screen {
+public class GameScreen implements Screen, Simulation.GameListener {
+
+    /** The longest frame time simulated in one render call, in seconds. */
+    private static final float MAX_FRAME_TIME = 0.25f;
+    /** The file the last game played is recorded in, relative to the working directory. */
+    public static final String LAST_REPLAY = "replays/last.replay";
+    /** How many times as fast as normal a replay is played while SPACE is held. */
+    private static final float FAST_FORWARD = 8;
+    /** How many seconds of the game can be turned back. */
+    private static final float REWIND_SECONDS = 10;
+    /** How many bytes the snapshots for turning the game back may take at most; big levels keep fewer seconds. */
+    private static final long REWIND_MEMORY = 16 * 1024 * 1024;
 
     private final MazeRunnerGame game;
     private OrthographicCamera camera;
@@ -46,7 +61,25 @@ public class GameScreen implements Screen {
     private FitViewport playerViewport;
     private Viewport gamePort;
     private Character character;
-    private Properties mapProperties;
+    private final MazeLevel level;
+    private final TileMap world;
+    private final Simulation simulation;
+    private final Replay playback;
+    private Replay recording;
+    private RewindBuffer rewindBuffer;
+    private float rewindTime;
+    private final StaticLayerCache staticLayer;
+    private final FrameStats frameStats;
+    private float statsTimer;
+    private int visibleFromX;
+    private int visibleFromY;
+    private int visibleToX;
+    private int visibleToY;
+    private final Rectangle visibleArea = new Rectangle();
+    private final Rectangle drawArea = new Rectangle();
+    private final SpatialHash<Entity> entityIndex;
+    private final RenderSystem renderSystem;
+    private final Vector2 drawPosition = new Vector2();
     private static FileHandle selectedMapFile;
     private GameState savedGameState;
     private int score;
@@ -54,74 +87,98 @@ public class GameScreen implements Screen {
     float h = Gdx.graphics.getHeight();
     private static Vector2 characterPosition;
     public Trap trap;
-    private Array<Wall> walls;
     private Array<ExitPoint> exitPoints;
-    private Array<Enemy> enemyArray;
     private Array<Trap> traps;
     private Array<Coin> keys;
     private static int remainingLives;
     private static int collectedKeys;
-    float elapsedTime;
 
     /**
      * Constructor for GameScreen. Sets up the camera and font.
      *
-     * @param game The main game class, used to access global resources and methods.
+     * @param game  The main game class, used to access global resources and methods.
+     * @param level The loaded level to play.
+     * @param isNew True if a new game is started, false if a saved game is resumed.
      */
-    public GameScreen(MazeRunnerGame game, FileHandle selectedMapFile, boolean isNew){
+    public GameScreen(MazeRunnerGame game, MazeLevel level, boolean isNew) {
+        this(game, level, isNew, null);
+    }
+
+    /**
+     * Constructor for GameScreen that plays a replay instead of reading the keys.
+     *
+     * @param game     The main game class, used to access global resources and methods.
+     * @param level    The loaded level to play, loaded with the seed of the replay.
+     * @param isNew    True if a new game is started, false if a saved game is resumed.
+     * @param playback The replay to play, or null to let the player play.
+     */
+    public GameScreen(MazeRunnerGame game, MazeLevel level, boolean isNew, Replay playback) {
         this.game = game;
+        this.playback = playback;
         game.getBackgroundMusic().stop();
         game.getGameplayMusic().play();
         game.getGameplayMusic().setLooping(true);
-        this.selectedMapFile = selectedMapFile;
-        enemyArray = new Array<>();
-        if(isNew)
+        this.level = level;
+        selectedMapFile = level.getMapFile();
+        this.world = level.getWorld();
+        if (playback != null) {
+            // A replay starts where and how the recorded game started
+            characterPosition = new Vector2(playback.getStartX(), playback.getStartY());
+            remainingLives = playback.getStartHealth();
+            collectedKeys = 0;
+        }
+        else if(isNew)
         {
-            try {
-                findStartPoint();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            findStartPoint();
             resetGameState();
         }
         else
         {
             loadGameState();
         }
-        this.character = new Character(characterPosition);
+        // The map objects were created while the level was loading
+        simulation = new Simulation(level, characterPosition, Runtime.getRuntime().availableProcessors());
+        simulation.setListener(this);
+        this.character = simulation.getCharacter();
         this.character.setHealth(remainingLives);
-        // Map properties
-        mapProperties = new Properties();
+        if (playback != null) {
+            simulation.setPlayback(playback);
+        } else {
+            recording = new Replay(level.getMapFile().path(), level.getSeed(), characterPosition.x, characterPosition.y,
+                    remainingLives);
+            simulation.setRecording(recording);
+            rewindBuffer = new RewindBuffer(simulation, REWIND_SECONDS, REWIND_MEMORY);
+            simulation.setRewindBuffer(rewindBuffer);
+        }
+        frameStats = simulation.getFrameStats();
         camera = new OrthographicCamera(character.getPosition().x, character.getPosition().y);
         // Get the font from the game's skin
         font = game.getSkin().getFont("font");
         //For HUD
         gamePort = new FitViewport(MazeRunnerGame.V_WIDTH, MazeRunnerGame.V_HEIGHT,camera);
         spriteBatch = game.getSpriteBatch();
-        walls = new Array<>();
-        exitPoints = new Array<>();
-        traps = new Array<>();
-        keys = new Array<>();
+        staticLayer = new StaticLayerCache(game, world, 16);
+        exitPoints = level.getExitPoints();
+        traps = level.getTraps();
+        keys = level.getKeys();
+        entityIndex = level.getEntityIndex();
+        // Drawing is not part of the game logic, so the render system only runs when the screen runs it
+        renderSystem = new RenderSystem(spriteBatch, entityIndex, drawArea, visibleArea, frameStats);
+        simulation.getEngine().addSystem(renderSystem);
+        frameStats.systems.add(renderSystem);
     }
 
     /**
-     * Initializes the game screen, particularly setting up the enemy array.
-     *
-     * @throws IOException If an I/O error occurs while reading the map file.
+     * Initializes the game screen, particularly setting up the HUD.
      */
     @Override
     public void show() {
-        try {
-            setEnemyArray();
-        }
-        catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        hud = new HUD(game.getSpriteBatch(), game, keys.size);
+        hud = new HUD(game.getSpriteBatch(), game, level.getTotalKeys());
     }
 
     /**
-     * Renders the game screen.
+     * Renders the game screen. The game logic runs in fixed steps of {@link Simulation#STEP} seconds, as many as
+     * the elapsed time allows, and the moving objects are drawn between their last two positions.
      *
      * @param delta The time in seconds since the last render.
      */
@@ -129,139 +186,151 @@ public void show() {
     @Override
     public void render(float delta) {
         ScreenUtils.clear(0, 0, 0, 1); // Clear the screen
-        elapsedTime += Gdx.graphics.getDeltaTime();
         remainingLives = this.character.getHealth();
         // Check for escape key press to go back to the menu
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             saveGameState();
             game.goToPause();
+            return;
         }
-        game.getSpriteBatch().setProjectionMatrix(camera.combined);
-        game.getSpriteBatch().begin(); // Begin the sprite batch
-        camera.position.set(character.getPosition().x, character.getPosition().y, 0);
-        updateCamera(mapProperties);
-        try {
-            // Render the background
-            renderBackground(mapProperties);
-            renderMap();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            hud.toggleDebug();
         }
-        character.update(delta);
-        for (Wall wall : walls) {
-
-            if (wall.getBounds().overlaps(character.getBoundingBox())) {
-                character.setPosition(character.getPreviousPosition());
-            }
-            for(Enemy enemy1 : enemyArray) {
-                if (wall.getBounds().overlaps(enemy1.getBoundingBox())) {
-                    enemy1.setPosition(enemy1.getPreviousPosition());
-                }
-            }
+        // Streamed tiles are read on demand and cannot be shared between threads
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4) && level.getChunkedMaze() == null) {
+            EnemyUpdater enemyUpdater = simulation.getEnemyUpdater();
+            enemyUpdater.setParallel(!enemyUpdater.isParallel());
         }
-        for (ExitPoint exitPoint : exitPoints) {
-
-            exitPoint.setOpen(character.getCollectedKeys() == keys.size);
-
-            if (exitPoint.getBounds().overlaps(character.getBoundingBox())) {
-                if(!exitPoint.isOpen())
-                    character.setPosition(character.getPreviousPosition());
-                else
-                    game.goToVictory();
-            }
-            for(Enemy enemy1 : enemyArray) {
-                if (exitPoint.getBounds().overlaps(enemy1.getBoundingBox())) {
-                    enemy1.setPosition(enemy1.getPreviousPosition());
-                }
-            }
+        simulation.beginFrame();
+        float speed = 1;
+        if (playback == null) {
+            simulation.setButtons(readButtons());
+        } else if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
+            speed = FAST_FORWARD;
         }
-        hud.updateHealth(character.getHealth());
-        // Draw the character
-        Animation<TextureRegion> anim = character.getcurrentCharacterAnimation();
-        if (anim != null) {
-            game.getSpriteBatch().draw(
-                    anim.getKeyFrame(elapsedTime, true),
-                    character.getPosition().x,
-                    character.getPosition().y,
-                    16,32
-            );
-            for(Enemy enemy1 : enemyArray)
-            {
-                Animation<TextureRegion> enemyAnim = enemy1.getCurrentEnemyAnimation();
-                game.getSpriteBatch().draw(
-                        enemyAnim.getKeyFrame(elapsedTime, true),
-                        enemy1.getPosition().x,
-                        enemy1.getPosition().y,
-                        16,16
-                );
-                enemy1.update(delta);
-            }
-            for(Trap trap : traps)
-            {
-                Animation<TextureRegion> trapAnim = trap.getCurrentTrapFrame();
-                game.getSpriteBatch().draw(
-                        trapAnim.getKeyFrame(elapsedTime, true),
-                        trap.getPosition().x,
-                        trap.getPosition().y,
-                        16,16
-                );
-            }
-            for(Coin key: keys)
-            {
-                Animation<TextureRegion> coinAnim = key.getCoinAnimation();
-                if(!key.isActivated()) {
-                    game.getSpriteBatch().draw(
-                            coinAnim.getKeyFrame(elapsedTime, true),
-                            key.getPosition().x,
-                            key.getPosition().y,
-                            16, 16
-                    );
-                }
-            }
+        // Long frames are cut short, so the game slows down instead of running many steps at once
+        if (rewindBuffer != null && Gdx.input.isKeyPressed(Input.Keys.R)) {
+            rewind(Math.min(delta, MAX_FRAME_TIME));
+        } else {
+            simulation.advance(Math.min(delta, MAX_FRAME_TIME) * speed);
+        }
+        if (!simulation.isRunning()) {
+            saveReplay();
+            return; // The level was won or lost
         }
+        hud.updateHealth(character.getHealth());
+        // How far the time is between the last step and the next one
+        float alpha = simulation.getAlpha();
+        interpolate(character.getPreviousPosition(), character.getPosition(), alpha);
+        // The camera follows the character, so the simulation can focus on the character without being told
+        camera.position.set(drawPosition.x, drawPosition.y, 0);
+        updateCamera();
+        updateVisibleTiles();
+        level.updateStreaming(visibleFromX * MazeGrid.TILE_SIZE, visibleFromY * MazeGrid.TILE_SIZE,
+                (visibleToX + 1) * MazeGrid.TILE_SIZE, (visibleToY + 1) * MazeGrid.TILE_SIZE);
+        // Bring the cached textures of the background and the walls up to date before the batch starts
+        staticLayer.prepare(game.getSpriteBatch(), gamePort, visibleFromX, visibleFromY, visibleToX, visibleToY);
+        frameStats.staticBlocksBuilt = staticLayer.getBlocksBuilt();
+        game.getSpriteBatch().setProjectionMatrix(camera.combined);
+        game.getSpriteBatch().begin(); // Begin the sprite batch
+        // Render the background and the walls
+        frameStats.staticBlocksDrawn = staticLayer.draw(game.getSpriteBatch(), visibleFromX, visibleFromY, visibleToX, visibleToY);
+        frameStats.staticBlocksCulled = staticLayer.getBlockCount() - frameStats.staticBlocksDrawn;
+        // Draw the character, the enemies, the traps and the keys
+        renderSystem.setAlpha(alpha);
+        renderSystem.update(delta);
         game.getSpriteBatch().end(); // Important to call this after drawing everything
+        frameStats.drawCalls = game.getSpriteBatch().renderCalls;
+        simulation.endFrame();
+        updateDebugOutput(delta);
         game.getSpriteBatch().setProjectionMatrix(hud.stage.getCamera().combined);
         hud.stage.draw();// Important to call this before drawing anything
-        for(Trap trap : traps) {
-            if (trap != null && trap.collidesWith(character)) {
-                // Eğer tuzak etkin değilse
-                if (!trap.isActivated()) {
-                    // Burada karakter tuzakla temas ettiğinde yapılacak işlemleri ekleyebilirsiniz
-                    trap.setActivated(true); // Tuzak artık etkin durumda
-                    character.decreaseHealth(); // Örneğin, karakterin canını azaltabilirsiniz
-                }
-            } else {
-                // Eğer karakter tuzakla temas etmiyorsa, tuzak etkin durumunu sıfırla
-                trap.setActivated(false);
-            }
+    }
+
+    /**
+     * Reads the movement keys the player holds down.
+     *
+     * @return The buttons held down, as set in an {@link InputComponent}.
+     */
+    private static int readButtons() {
+        int buttons = 0;
+        if (Gdx.input.isKeyPressed(Input.Keys.W)) {
+            buttons |= InputComponent.UP;
         }
-        for(Coin key : keys) {
-            if (key != null && key.collidesWith(character)) {
-                if (!key.isActivated()) {
-                    game.getCoinSound().play();
-                    key.setActivated(true);
-                    character.increaseCollectedKeys();
-                    System.out.println(character.getCollectedKeys());
-                    hud.updateKeys(character.getCollectedKeys());
-                }
-            }
+        if (Gdx.input.isKeyPressed(Input.Keys.S)) {
+            buttons |= InputComponent.DOWN;
         }
-        for(Enemy enemy : enemyArray) {
-            if (enemy != null && enemy.collidesWith(character)) {
-                if (!enemy.isActivated()) {
-                    enemy.setActivated(true);
-                    character.decreaseHealth();
-                }
-            } else {
-                enemy.setActivated(false);
-            }
+        if (Gdx.input.isKeyPressed(Input.Keys.A)) {
+            buttons |= InputComponent.LEFT;
         }
-        if(character.getHealth() <= 0)
-        {
-            game.goToGameOver();
+        if (Gdx.input.isKeyPressed(Input.Keys.D)) {
+            buttons |= InputComponent.RIGHT;
+        }
+        return buttons;
+    }
+
+    /**
+     * Turns the game back by as many steps as the elapsed time would have run. The time left over is kept for
+     * the next call.
+     *
+     * @param time The elapsed time in seconds.
+     */
+    private void rewind(float time) {
+        rewindTime += time;
+        int steps = (int) (rewindTime / Simulation.STEP);
+        rewindTime -= steps * Simulation.STEP;
+        if (steps > 0 && rewindBuffer.rewind(steps) > 0) {
+            // The game does not play the same way after it was turned back, so it is not recorded any more
+            recording = null;
+            hud.updateKeys(character.getCollectedKeys());
         }
     }
 
+    /**
+     * Writes the recording of the game that just ended to {@link #LAST_REPLAY}.
+     */
+    private void saveReplay() {
+        if (recording == null) {
+            return;
+        }
+        recording.finish(simulation);
+        FileHandle file = Gdx.files.local(LAST_REPLAY);
+        try {
+            recording.write(file);
+            Gdx.app.log("GameScreen", "Replay of " + recording.getSteps() + " steps written to " + file.path());
+        } catch (IOException e) {
+            Gdx.app.error("GameScreen", "Could not write replay " + file.path(), e);
+        }
+        recording = null;
+    }
+
+    @Override
+    public void keyCollected(int collectedKeys) {
+        game.getCoinSound().play();
+        hud.updateKeys(collectedKeys);
+    }
+
+    @Override
+    public void levelWon() {
+        game.goToVictory();
+    }
+
+    @Override
+    public void died() {
+        game.goToGameOver();
+    }
+
+    /**
+     * Sets {@link #drawPosition} to a point between the position of an object before and after the last step.
+     *
+     * @param previous The position before the last step.
+     * @param current  The position after the last step.
+     * @param alpha    How far to go from the previous to the current position, between 0 and 1.
+     */
+    private void interpolate(Vector2 previous, Vector2 current, float alpha) {
+        drawPosition.set(previous).lerp(current, alpha);
+    }
+
     private static class GameState {
         FileHandle selectedMap;
         Vector2 characterPosition;
@@ -281,7 +350,7 @@ private static class GameState {
      * Saves the current game state.
      */
     public void saveGameState() {
-        savedGameState = new GameState(character.getPosition(), score, remainingLives, collectedKeys, selectedMapFile);
+        savedGameState = new GameState(new Vector2(character.getPosition()), score, remainingLives, collectedKeys, selectedMapFile);
     }
     /**
      * Loads the saved game state.
@@ -327,27 +396,48 @@ public void hide() {
 
     @Override
     public void dispose() {
+        staticLayer.dispose();
+        simulation.dispose();
+        if (level.getChunkedMaze() != null) {
+            Gdx.app.log("GameScreen", level.getChunkedMaze().toString());
+        }
+        // The screen can be disposed in the middle of its own render call, so the level is released afterwards
+        Gdx.app.postRunnable(level::dispose);
     }
 
     /**
-     * Updates the camera position based on the player's position and map boundaries.
+     * Shows the frame statistics in the HUD, twice per second while debug output is on.
      *
-     * @param mapProperties The properties of the map containing coordinates and tile IDs.
+     * @param delta The time in seconds since the last render.
      */
-    private void updateCamera(Properties mapProperties) {
-
-        int maxX = 0;
-        int maxY = 0;
+    private void updateDebugOutput(float delta) {
+        statsTimer += delta;
+        if (hud.isDebugVisible() && statsTimer >= 0.5f) {
+            statsTimer = 0;
+            hud.updateDebug(frameStats.describe(Gdx.graphics.getFramesPerSecond()));
+        }
+    }
 
-        for (Map.Entry<Object, Object> entry : mapProperties.entrySet()) {
-            String[] coordinates = entry.getKey().toString().split(",");
-            int x = Integer.parseInt(coordinates[0].trim());
-            int y = Integer.parseInt(coordinates[1].trim());
+    /**
+     * Updates the area and the range of tiles the camera can see.
+     */
+    private void updateVisibleTiles() {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        visibleArea.set(camera.position.x - halfWidth, camera.position.y - halfHeight, halfWidth * 2, halfHeight * 2);
+        // Objects are drawn up to a tile to the right of and above their bounds
+        drawArea.set(visibleArea.x - MazeGrid.TILE_SIZE, visibleArea.y - MazeGrid.TILE_SIZE,
+                visibleArea.width + MazeGrid.TILE_SIZE, visibleArea.height + MazeGrid.TILE_SIZE);
+        visibleFromX = Math.max(0, (int) Math.floor((camera.position.x - halfWidth) / MazeGrid.TILE_SIZE));
+        visibleFromY = Math.max(0, (int) Math.floor((camera.position.y - halfHeight) / MazeGrid.TILE_SIZE));
+        visibleToX = Math.min(world.getWidth() - 1, (int) Math.floor((camera.position.x + halfWidth) / MazeGrid.TILE_SIZE));
+        visibleToY = Math.min(world.getHeight() - 1, (int) Math.floor((camera.position.y + halfHeight) / MazeGrid.TILE_SIZE));
+    }
 
-            // Update max coordinates
-            maxX = Math.max(maxX, x);
-            maxY = Math.max(maxY, y);
-        }
+    /**
+     * Updates the camera position based on the player's position and map boundaries.
+     */
+    private void updateCamera() {
         Vector2 playerPosition = character.getPosition();
         float cameraX = camera.position.x;
         float cameraY = camera.position.y;
@@ -355,9 +445,9 @@ private void updateCamera(Properties mapProperties) {
 
         // Haritanın sınırlarını al
         float mapLeftBoundary = 0;  // Haritanın sol sınırı
-        float mapRightBoundary = (maxX * 16) + 16;;  // Haritanın sağ sınırı
+        float mapRightBoundary = world.getWidth() * MazeGrid.TILE_SIZE;  // Haritanın sağ sınırı
         float mapBottomBoundary = 0;  // Haritanın alt sınırı
-        float mapTopBoundary = (maxY * 16) + 16;  // Haritanın üst sınırı
+        float mapTopBoundary = world.getHeight() * MazeGrid.TILE_SIZE;  // Haritanın üst sınırı
 
         float marginX = camera.viewportWidth * 0.4f;
         float marginY = camera.viewportHeight * 0.4f;
@@ -378,127 +468,13 @@ private void updateCamera(Properties mapProperties) {
         camera.update();
     }
 
-    /**
-     * Renders the background of the game screen based on the provided map properties.
-     *
-     * @param mapProperties The properties of the map containing coordinates and tile IDs.
-     */
-    private void renderBackground(Properties mapProperties) {
-        // Determine the dimensions of the maze
-        int maxX = 0;
-        int maxY = 0;
-
-        for (Map.Entry<Object, Object> entry : mapProperties.entrySet()) {
-            String[] coordinates = entry.getKey().toString().split(",");
-            int x = Integer.parseInt(coordinates[0].trim());
-            int y = Integer.parseInt(coordinates[1].trim());
-
-            // Update max coordinates
-            maxX = Math.max(maxX, x);
-            maxY = Math.max(maxY, y);
-        }
-
-        // Adjust based on your image dimensions
-        float frameWidth = 16;
-        float frameHeight = 16;
-
-        // Assuming getBackground() returns your background image
-        TextureRegion backgroundTexture = game.getBackground();
-
-        // Calculate the number of tiles needed to cover the entire maze
-        int numTilesX = (int) Math.ceil(maxX * frameWidth);
-        int numTilesY = (int) Math.ceil(maxY * frameHeight);
-
-        // Draw the background
-        for (float x = 0; x < numTilesX; x += frameWidth) {
-            for (float y = 0; y < numTilesY; y += frameHeight) {
-                    game.getSpriteBatch().draw(backgroundTexture, x, y);
-            }
-        }
-    }
-
-    /**
-     * Renders the map elements based on the tile IDs from the loaded map file.
-     *
-     * @throws IOException If an I/O error occurs while reading the map file.
-     */
-    private void renderMap() throws IOException {
-        // Load the map
-        mapProperties = new Properties();
-        mapProperties.load(selectedMapFile.reader());
-
-        TextureRegion wallTexture = game.getWall(); // Assuming getWall returns your wall image
-        TextureRegion entryPointTexture = game.getEntryPoint(); // Assuming getWall returns your wall image
-        TextureRegion exitPointTexture = game.getExit();
-        TextureRegion trapTexture = game.getTrap();
-
-        for (Map.Entry<Object, Object> entry : mapProperties.entrySet()) {
-            String[] coordinates = entry.getKey().toString().split(",");
-            String tileId = entry.getValue().toString();
-            int x = Integer.parseInt(coordinates[0].trim()) * 16; // Multiply by 16 for correct position
-            int y = Integer.parseInt(coordinates[1].trim()) * 16; // Multiply by 16 for correct position
-            if (tileId.equals("0")) {
-                game.getSpriteBatch().draw(wallTexture, x, y);
-            } else if (tileId.equals("1")) {
-                game.getSpriteBatch().draw(entryPointTexture, x, y);
-            } else if(tileId.equals("2")) {
-                game.getSpriteBatch().draw(exitPointTexture, x, y);
-            }
-        }
-        // Additional methods and logic can be added as needed for the game screen
-    }
-
     /**
      * Finds the starting point of the character in the map and sets the initial position.
-     *
-     * @throws IOException If an I/O error occurs while reading the map file.
      */
-    private void findStartPoint() throws IOException {
-        // Load the map
-        mapProperties = new Properties();
-        mapProperties.load(selectedMapFile.reader());
-
-        for (Map.Entry<Object, Object> entry : mapProperties.entrySet()) {
-            String[] coordinates = entry.getKey().toString().split(",");
-            String tileId = entry.getValue().toString();
-            int x = Integer.parseInt(coordinates[0].trim()) * 16; // Multiply by 16 for correct position
-            int y = Integer.parseInt(coordinates[1].trim()) * 16; // Multiply by 16 for correct position
-            if (tileId.equals("1")) {
-                this.characterPosition = new Vector2(x, y);
-            }
+    private void findStartPoint() {
+        if (world.hasEntry()) {
+            this.characterPosition = new Vector2(world.getEntryX() * MazeGrid.TILE_SIZE,
+                    world.getEntryY() * MazeGrid.TILE_SIZE);
         }
-
-        // Additional methods and logic can be added as needed for the game screen
-    }
-
-    /**
-     * Initializes the enemy array based on the tile IDs from the loaded map file.
-     *
-     * @throws IOException If an I/O error occurs while reading the map file.
-     */
-    private void setEnemyArray() throws IOException {
-        // Load the map
-        mapProperties = new Properties();
-        mapProperties.load(selectedMapFile.reader());
-
-        for (Map.Entry<Object, Object> entry : mapProperties.entrySet()) {
-            String[] coordinates = entry.getKey().toString().split(",");
-            String tileId = entry.getValue().toString();
-            int x = Integer.parseInt(coordinates[0].trim()) * 16; // Multiply by 16 for correct position
-            int y = Integer.parseInt(coordinates[1].trim()) * 16; // Multiply by 16 for correct position
-             if (tileId.equals("4")) {
-                enemyArray.add(new Enemy(new Vector2(x,y)));
-            } else if (tileId.equals("0")) {
-                 walls.add(new Wall(x, y,16 ,16));
-             } else if (tileId.equals("3")){
-                 traps.add(new Trap(new Vector2(x, y), 8, 8));
-             } else if(tileId.equals("5")) {
-                 keys.add(new Coin(new Vector2(x,y), 8,8));
-             } else if(tileId.equals("2")) {
-                 exitPoints.add(new ExitPoint(x, y, 16, 16));
-             }
-        }
-
-        // Additional methods and logic can be added as needed for the game screen
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,7 @@
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.utils.StringBuilder;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 
 /**
@@ -27,9 +28,19 @@ public class HUD {
     /** Label displaying the keys collected. */
     private Label keysLabel;
 
+    /** Label displaying the frame statistics, hidden until debug output is turned on. */
+    private Label debugLabel;
+
     /** The size of keys to be collected. */
     private int keySize;
 
+    /** The remaining lives and keys collected shown at the moment, so the labels only change when they do. */
+    private int shownHealth = 3;
+    private int shownKeys;
+
+    /** Reused to build the texts of the labels. */
+    private final StringBuilder text = new StringBuilder();
+
     /**
      * Constructs a new HUD with the specified SpriteBatch, game instance, and key size.
      *
@@ -53,6 +64,11 @@ public HUD(SpriteBatch sb, MazeRunnerGame game, int keySize) {
         table.add(livesLabel).expandX().padTop(10);
         table.add(keysLabel).expandX().padTop(10);
 
+        debugLabel = new Label("", new Label.LabelStyle(new BitmapFont(), Color.YELLOW));
+        debugLabel.setVisible(false);
+        table.row();
+        table.add(debugLabel).colspan(2).left().padLeft(10).padTop(5);
+
         stage.addActor(table);
     }
 
@@ -62,7 +78,13 @@ public HUD(SpriteBatch sb, MazeRunnerGame game, int keySize) {
      * @param health The remaining lives of the player.
      */
     public void updateHealth(int health) {
-        livesLabel.setText("Remaining lives: " + health);
+        if (health == shownHealth) {
+            return;
+        }
+        shownHealth = health;
+        text.setLength(0);
+        text.append("Remaining lives: ").append(health);
+        livesLabel.setText(text);
     }
 
     /**
@@ -71,7 +93,38 @@ public void updateHealth(int health) {
      * @param keys The number of keys collected.
      */
     public void updateKeys(int keys) {
-        keysLabel.setText("Keys collected " + keys + "/" + keySize);
+        if (keys == shownKeys) {
+            return;
+        }
+        shownKeys = keys;
+        text.setLength(0);
+        text.append("Keys collected ").append(keys).append('/').append(keySize);
+        keysLabel.setText(text);
+    }
+
+    /**
+     * Shows or hides the frame statistics.
+     */
+    public void toggleDebug() {
+        debugLabel.setVisible(!debugLabel.isVisible());
+    }
+
+    /**
+     * Checks if the frame statistics are shown.
+     *
+     * @return True if debug output is on, false otherwise.
+     */
+    public boolean isDebugVisible() {
+        return debugLabel.isVisible();
+    }
+
+    /**
+     * Updates the displayed frame statistics.
+     *
+     * @param text The description of the frame statistics.
+     */
+    public void updateDebug(CharSequence text) {
+        debugLabel.setText(text);
     }
 
     /**
@@ -0,0 +1,127 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * The LoadingScreen class is displayed while a level is loaded in the background.
+ * It shows the loading progress and switches to the game screen once the level is ready.
+ */
+public class LoadingScreen implements Screen {
+    private final Stage stage;
+    private final MazeRunnerGame game;
+    private final AssetManager assetManager;
+    private final MazeLevelLoader.MazeLevelParameters parameters;
+    private final String assetName;
+    private final boolean isNew;
+    private final Replay replay;
+    private final ProgressBar progressBar;
+
+    /**
+     * Constructs a LoadingScreen and starts loading the given map.
+     *
+     * @param game    The main game class, used to access global resources and methods.
+     * @param mapFile The map file to load.
+     * @param isNew   True if a new game is started, false if a saved game is resumed.
+     */
+    public LoadingScreen(MazeRunnerGame game, FileHandle mapFile, boolean isNew) {
+        this(game, mapFile, isNew, null);
+    }
+
+    /**
+     * Constructs a LoadingScreen and starts loading the given map to play a replay in it.
+     *
+     * @param game    The main game class, used to access global resources and methods.
+     * @param mapFile The map file to load.
+     * @param isNew   True if a new game is started, false if a saved game is resumed.
+     * @param replay  The replay to play, or null to let the player play.
+     */
+    public LoadingScreen(MazeRunnerGame game, FileHandle mapFile, boolean isNew, Replay replay) {
+        this.game = game;
+        this.isNew = isNew;
+        this.replay = replay;
+        this.assetManager = game.getAssetManager();
+        var camera = new OrthographicCamera();
+        camera.zoom = 1.5f; // Set camera zoom for a closer view
+
+        Viewport viewport = new ScreenViewport(camera); // Create a viewport with the camera
+        stage = new Stage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
+
+        Table table = new Table(); // Create a table for layout
+        table.setFillParent(true); // Make the table fill the stage
+        stage.addActor(table); // Add the table to the stage
+
+        table.add(new Label("Loading " + mapFile.nameWithoutExtension() + "...", game.getSkin(), "title")).padBottom(80).row();
+        progressBar = new ProgressBar(0, 1, 0.01f, false, game.getSkin());
+        table.add(progressBar).width(600).row();
+
+        // The level is an asset of its own, so every load uses a fresh name and fresh parameters
+        parameters = new MazeLevelLoader.MazeLevelParameters(mapFile);
+        if (replay != null) {
+            parameters.seed = replay.getSeed();
+        }
+        assetName = mapFile.path() + "#" + System.nanoTime();
+        assetManager.load(assetName, MazeLevel.class, parameters);
+    }
+
+    @Override
+    public void render(float delta) {
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT); // Clear the screen
+        boolean done;
+        try {
+            done = assetManager.update(16); // Spend at most 16 ms per frame on the render thread
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("LoadingScreen", "Error loading level: " + e.getMessage(), e);
+            game.goToMenu();
+            return;
+        }
+        progressBar.setValue(parameters.progress);
+        stage.act(Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f)); // Update the stage
+        stage.draw(); // Draw the stage
+        if (done) {
+            MazeLevel level = assetManager.get(assetName, MazeLevel.class);
+            // The asset manager should not keep the level, the game screen owns it from now on
+            assetManager.unload(assetName);
+            game.startLevel(level, isNew, replay);
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        stage.getViewport().update(width, height, true); // Update the stage viewport on resize
+    }
+
+    @Override
+    public void dispose() {
+        // Dispose of the stage when the screen is disposed
+        stage.dispose();
+    }
+
+    // The following methods are part of the Screen interface but are not used in this screen.
+    @Override
+    public void show() {
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void hide() {
+    }
+}
@@ -0,0 +1,110 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.IOException;
+
+/**
+ * The MazeLevelLoader class loads a {@link MazeLevel} through an {@link AssetManager}.
+ * The map is read and its objects are found on the asset manager's background thread;
+ * only creating the objects, which adds them to the engine and gives them their animations, happens on the render thread.
+ */
+public class MazeLevelLoader extends AsynchronousAssetLoader<MazeLevel, MazeLevelLoader.MazeLevelParameters> {
+
+    /** The number of rows searched for map objects between two progress updates. */
+    private static final int ROWS_PER_STEP = 16;
+
+    private final EntityAnimations animations;
+
+    /**
+     * Constructs a MazeLevelLoader.
+     *
+     * @param resolver The resolver for file names that are not given a map file in their parameters.
+     * @param sprites  The sprites the map objects of loaded levels are drawn with.
+     */
+    public MazeLevelLoader(FileHandleResolver resolver, Sprites sprites) {
+        super(resolver);
+        this.animations = new EntityAnimations(sprites);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes") // The raw type is part of the signature of AssetLoader
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, MazeLevelParameters parameter) {
+        return null;
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, MazeLevelParameters parameter) {
+        FileHandle mapFile = parameter != null && parameter.mapFile != null ? parameter.mapFile : file;
+        MazeLevel level;
+        try {
+            level = MazeLevel.open(mapFile, parameter != null ? parameter.chunkMemoryBudget : MazeLevel.CHUNK_MEMORY_BUDGET);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Could not load map " + mapFile.path(), e);
+        }
+        level.addEntityListener(animations);
+        if (parameter != null) {
+            level.setSeed(parameter.seed);
+        }
+        if (level.getChunkedMaze() == null) {
+            TileMap world = level.getWorld();
+            for (int y = 0; y < world.getHeight(); y += ROWS_PER_STEP) {
+                level.findObjects(0, y, world.getWidth() - 1, y + ROWS_PER_STEP - 1);
+                if (parameter != null) {
+                    parameter.progress = (float) (y + ROWS_PER_STEP) / world.getHeight();
+                }
+            }
+            // Streamed mazes are too large for this; their sectors are set up when searches reach them
+            level.getPathHierarchy().buildAll();
+        }
+        if (parameter != null) {
+            parameter.level = level;
+            parameter.progress = 1f;
+        }
+    }
+
+    @Override
+    public MazeLevel loadSync(AssetManager manager, String fileName, FileHandle file, MazeLevelParameters parameter) {
+        MazeLevel level = parameter.level;
+        parameter.level = null;
+        level.createObjects();
+        return level;
+    }
+
+    /**
+     * The MazeLevelParameters class passes the map file to the loader and reports the loading progress back.
+     * A new instance has to be used for every level that is loaded.
+     */
+    public static class MazeLevelParameters extends AssetLoaderParameters<MazeLevel> {
+
+        /** The map file to load. */
+        public FileHandle mapFile;
+
+        /** The seed of the level, see {@link MazeLevel#setSeed(long)}. */
+        public long seed;
+
+        /** The memory the resident chunks may take up if the map is streamed, in bytes. */
+        public long chunkMemoryBudget = MazeLevel.CHUNK_MEMORY_BUDGET;
+
+        /** How much of the map has been read, from 0 to 1. Written by the loading thread. */
+        public volatile float progress;
+
+        private MazeLevel level;
+
+        /**
+         * Constructs parameters for the given map file.
+         *
+         * @param mapFile The map file to load.
+         */
+        public MazeLevelParameters(FileHandle mapFile) {
+            this.mapFile = mapFile;
+        }
+    }
+}
@@ -3,10 +3,11 @@
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.files.FileHandle;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
@@ -20,9 +21,11 @@
 import com.badlogic.gdx.utils.Array;
 import games.spooky.gdx.nativefilechooser.NativeFileChooser;
 
+import java.io.IOException;
+
 /**
  * The MazeRunnerGame class represents the core of the Maze Runner game.
- * It manages the screens and global resources like SpriteBatch and Skin.
+ * It manages the screens and global resources like SpriteBatch, Skin and the sprites.
  */
 public class MazeRunnerGame extends Game {
 
@@ -47,6 +50,12 @@ public class MazeRunnerGame extends Game {
     // Sprite Batch for rendering
     private SpriteBatch spriteBatch;
 
+    // All sprites of the game, packed into one texture
+    private Sprites sprites;
+
+    // Loads levels in the background
+    private AssetManager assetManager;
+
     // UI Skin
     private Skin skin;
 
@@ -67,6 +76,7 @@ public class MazeRunnerGame extends Game {
     public static final int V_HEIGHT = 260;
     private NativeFileChooser fileChooser;
     private BitmapFont font;
+    private final String startReplayPath;
 
     /**
      * Constructor for MazeRunnerGame.
@@ -74,8 +84,19 @@ public class MazeRunnerGame extends Game {
      * @param fileChooser The file chooser for the game, typically used in desktop environment.
      */
     public MazeRunnerGame(NativeFileChooser fileChooser) {
+        this(fileChooser, null);
+    }
+
+    /**
+     * Constructor for MazeRunnerGame that plays a replay right after starting.
+     *
+     * @param fileChooser     The file chooser for the game, typically used in desktop environment.
+     * @param startReplayPath The path of the replay file to play instead of showing the menu, or null.
+     */
+    public MazeRunnerGame(NativeFileChooser fileChooser, String startReplayPath) {
         super();
         this.fileChooser = fileChooser;
+        this.startReplayPath = startReplayPath;
     }
 
     public NativeFileChooser getFileChooser() {
@@ -85,33 +106,37 @@ public NativeFileChooser getFileChooser() {
     /**
      * Called when the game is created. Initializes the SpriteBatch and Skin.
      * This method sets up the necessary components for the game by performing the following steps:
-     * 1. Load the background - Calls loadBackground() to set up the background of the game scene.
-     * 2. Load map textures - Invokes loadWallTexture(), loadEntryPointTexture(), and other methods
-     *    to load textures for various elements in the game map.
-     * 3. Initialize character position - Sets the initial position of the character in the game world.
+     * 1. Load the sprites - Loads the texture atlas all sprites of the game are packed into.
+     * 2. Load map textures - Looks up the background, wall, entry point and other regions
+     *    of the game map in the sprites.
      */
     @Override
     public void create() {
         font = new BitmapFont();
         spriteBatch = new SpriteBatch(); // Create SpriteBatch
         skin = new Skin(Gdx.files.internal("craft/craftacular-ui.json")); // Load UI skin
-
-        // Load the background
-        this.loadBackground();
+        sprites = new Sprites(); // Load the sprite atlas
+        assetManager = new AssetManager();
+        assetManager.setLoader(MazeLevel.class, new MazeLevelLoader(assetManager.getFileHandleResolver(), sprites));
 
         // Load the map textures
-        this.loadWallTexture();
-        this.loadEntryPointTexture();
-        this.loadExitPointTexture();
-        this.loadKeyTexture();
-        this.loadTrapTexture();
+        background = sprites.getRegion(Sprites.FLOOR);
+        wall = sprites.getRegion(Sprites.WALL);
+        entryPoint = sprites.getRegion(Sprites.ENTRY_POINT);
+        exit = sprites.getRegion(Sprites.EXIT);
+        key = sprites.getRegion(Sprites.KEY);
+        trap = sprites.getRegion(Sprites.TRAP);
 
         // Background sound
         gameplayMusic = Gdx.audio.newMusic(Gdx.files.internal("Caketown 1.mp3"));
         backgroundMusic = Gdx.audio.newMusic(Gdx.files.internal("awesomeness.wav"));
         coinSound = Gdx.audio.newSound(Gdx.files.internal("coin10.wav"));
 
-        goToMenu(); // Navigate to the menu screen
+        if (startReplayPath != null) {
+            playReplay(Gdx.files.absolute(startReplayPath));
+        } else {
+            goToMenu(); // Navigate to the menu screen
+        }
     }
 
     /**
@@ -172,128 +197,68 @@ public void goToPause() {
     }
 
     /**
-     * Switches to the game screen.
+     * Switches to the loading screen, which loads the selected map in the background and then starts the game.
+     *
+     * @param selectedMapFile The map file to play.
+     * @param isNew           True if a new game is started, false if a saved game is resumed.
      */
     public void goToGame(FileHandle selectedMapFile, boolean isNew) {
-        this.setScreen(new GameScreen(this, selectedMapFile, isNew)); // Set the current screen to GameScreen
+        if (selectedMapFile == null) {
+            Gdx.app.error("MazeRunnerGame", "No map selected");
+            return;
+        }
+        this.setScreen(new LoadingScreen(this, selectedMapFile, isNew)); // Set the current screen to LoadingScreen
         if (menuScreen != null) {
             menuScreen.dispose(); // Dispose the menu screen if it exists
         }
-        gameScreen = new GameScreen(this, selectedMapFile, isNew);
-        this.setScreen(gameScreen); // Set the current screen to GameScreen
-    }
-
-    /**
-     * Switches to the map selection screen.
-     */
-    public void loadMap() {
-        this.setScreen(new MapSelectionScreen(this)); // Switch to MapSelectionScreen
-        // Dispose other screens if necessary
-    }
-
-    /**
-     * Loads the background image.
-     */
-    private void loadBackground(){
-        // Load the background texture
-        Texture backgroundTexture = new Texture(Gdx.files.internal("basictiles.png"));
-
-        // Define the size of each tile
-        int tileWidth = 16;
-        int tileHeight = 16;
-
-        // Extract the specific tile (column 2, row 1)
-        int x = tileWidth * 1; // Column 2
-        int y = tileHeight * 8; // Row 2
-
-        background = new TextureRegion(backgroundTexture, x, y, tileWidth, tileHeight);
-    }
-
-    /**
-     * Loads the wall texture.
-     */
-    public void loadWallTexture() {
-        // Load the wall texture
-        Texture wallTexture = new Texture(Gdx.files.internal("basictiles.png"));
-
-        // Define the size of each tile
-        int tileWidth = 16;
-        int tileHeight = 16;
-
-        // Extract the specific tile (column 2, row 1)
-        int x = tileWidth * 0; // Column 2
-        int y = tileHeight * 0; // Row 2
-
-        wall = new TextureRegion(wallTexture, x, y, tileWidth, tileHeight);
     }
 
     /**
-     * Loads the entry point texture.
-     */
-    public void loadEntryPointTexture() {
-        // Load the entry point texture
-        Texture entryPointTexture = new Texture(Gdx.files.internal("things.png"));
-
-        // Define the size of each tile
-        int tileWidth = 16;
-        int tileHeight = 16;
-
-        // Extract the specific tile (column 2, row 1)
-        int x = tileWidth * 3; // Column 2
-        int y = tileHeight * 3; // Row 2
-
-        entryPoint = new TextureRegion(entryPointTexture, x, y, tileWidth, tileHeight);
-    }
-
-    /**
-     * Loads the exit point texture.
+     * Switches to the loading screen to play a recorded game. The map is looked for at the path it was recorded with,
+     * and else next to the replay file.
+     *
+     * @param replayFile The replay file.
      */
-    public void loadExitPointTexture() {
-        Texture exitTexture = new Texture(Gdx.files.internal("basictiles.png"));
-
-        // Define the size of each tile
-        int tileWidth = 16;
-        int tileHeight = 16;
-
-        // Extract the specific tile (column 2, row 1)
-        int x = tileWidth * 0; // Column 2
-        int y = tileHeight * 6; // Row 2
-
-        exit = new TextureRegion(exitTexture, x, y, tileWidth, tileHeight);
+    public void playReplay(FileHandle replayFile) {
+        Replay replay;
+        try {
+            replay = Replay.read(replayFile);
+        } catch (IOException e) {
+            Gdx.app.error("MazeRunnerGame", "Could not read replay " + replayFile.path(), e);
+            goToMenu();
+            return;
+        }
+        FileHandle mapFile = replay.findMap(replayFile.parent());
+        if (mapFile == null) {
+            Gdx.app.error("MazeRunnerGame", "The map " + replay.getMapPath() + " of the replay was not found");
+            goToMenu();
+            return;
+        }
+        this.setScreen(new LoadingScreen(this, mapFile, true, replay));
     }
 
     /**
-     * Loads the key texture.
+     * Switches to the game screen once a level has been loaded.
+     *
+     * @param level  The loaded level.
+     * @param isNew  True if a new game is started, false if a saved game is resumed.
+     * @param replay The replay to play in the level, or null to let the player play.
      */
-    public void loadKeyTexture() {
-        Texture keyTexture = new Texture(Gdx.files.internal("objects.png"));
-
-        // Define the size of each tile
-        int tileWidth = 16;
-        int tileHeight = 16;
-
-        // Extract the specific tile (column 2, row 1)
-        int x = tileWidth * 1; // Column 2
-        int y = tileHeight * 4; // Row 2
-
-        key = new TextureRegion(keyTexture, x, y, tileWidth, tileHeight);
+    public void startLevel(MazeLevel level, boolean isNew, Replay replay) {
+        Screen loadingScreen = getScreen();
+        gameScreen = new GameScreen(this, level, isNew, replay);
+        this.setScreen(gameScreen); // Set the current screen to GameScreen
+        if (loadingScreen != null) {
+            loadingScreen.dispose(); // Dispose the loading screen
+        }
     }
 
     /**
-     * Loads the trap texture.
+     * Switches to the map selection screen.
      */
-    public void loadTrapTexture() {
-        Texture trapTexture = new Texture(Gdx.files.internal("objects.png"));
-
-        // Define the size of each tile
-        int tileWidth = 16;
-        int tileHeight = 16;
-
-        // Extract the specific tile (column 2, row 1)
-        int x = tileWidth * 5; // Column 2
-        int y = tileHeight * 3; // Row 2
-
-        trap = new TextureRegion(trapTexture, x, y, tileWidth, tileHeight);
+    public void loadMap() {
+        this.setScreen(new MapSelectionScreen(this)); // Switch to MapSelectionScreen
+        // Dispose other screens if necessary
     }
 
     /**
@@ -320,6 +285,8 @@ public void dispose() {
         getScreen().hide(); // Hide the current screen
         getScreen().dispose(); // Dispose the current screen
         spriteBatch.dispose(); // Dispose the spriteBatch
+        assetManager.dispose(); // Dispose the asset manager
+        sprites.dispose(); // Dispose the sprite atlas
         skin.dispose(); // Dispose the skin
     }
 
@@ -332,6 +299,14 @@ public SpriteBatch getSpriteBatch() {
         return spriteBatch;
     }
 
+    public AssetManager getAssetManager() {
+        return assetManager;
+    }
+
+    public Sprites getSprites() {
+        return sprites;
+    }
+
     public TextureRegion getBackground() {
         return background;
     }
@@ -111,7 +111,7 @@ private void openFileChooser() {
         NativeFileChooserConfiguration fileChooserConfig = new NativeFileChooserConfiguration();
         fileChooserConfig.title = "Pick a maze file";
         fileChooserConfig.intent = NativeFileChooserIntent.OPEN;
-        fileChooserConfig.nameFilter = (file, name) -> name.endsWith("properties");
+        fileChooserConfig.nameFilter = (file, name) -> name.endsWith("properties") || name.endsWith(MazeFile.EXTENSION);
         fileChooserConfig.directory = Gdx.files.local("itp2324itp2324projectwork-fri2mu1saritasplantor/maps/");
 
         fileChooser.chooseFile(fileChooserConfig, new NativeFileChooserCallback() {
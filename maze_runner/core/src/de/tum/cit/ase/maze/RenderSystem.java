@@ -0,0 +1,91 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Comparator;
+
+/**
+ * The RenderSystem class draws the entities that have an animation. Only the entities the broadphase finds near
+ * the camera's view are looked at, and moving entities are drawn between their positions before and after
+ * the last step. Entities are drawn layer by layer.
+ * It does not run with the steps of the game logic; the game screen runs it once per frame while the batch is drawing.
+ */
+public class RenderSystem extends TimedSystem {
+
+    /** Would run after the game logic, but it is run on its own once per frame. */
+    public static final int PRIORITY = 5;
+
+    private final SpriteBatch batch;
+    private final SpatialHash<Entity> index;
+    private final Rectangle drawArea;
+    private final Rectangle visibleArea;
+    private final FrameStats frameStats;
+    private final Array<Entity> visible = new Array<>();
+    private final Rectangle frameBounds = new Rectangle();
+    private final Comparator<Entity> byLayer = (a, b) ->
+            Integer.compare(AnimationComponent.MAPPER.get(a).layer, AnimationComponent.MAPPER.get(b).layer);
+    private float alpha;
+    private float stateTime;
+
+    /**
+     * Constructs a RenderSystem. It does not run when the engine is updated.
+     *
+     * @param batch       The batch to draw with.
+     * @param index       The broadphase the entities are kept in.
+     * @param drawArea    The area in which entities may touch the camera's view. It is read every frame.
+     * @param visibleArea The area the camera can see. It is read every frame.
+     * @param frameStats  The statistics the entities drawn are counted in.
+     */
+    public RenderSystem(SpriteBatch batch, SpatialHash<Entity> index, Rectangle drawArea, Rectangle visibleArea,
+                        FrameStats frameStats) {
+        super("render", PRIORITY);
+        this.batch = batch;
+        this.index = index;
+        this.drawArea = drawArea;
+        this.visibleArea = visibleArea;
+        this.frameStats = frameStats;
+        setProcessing(false);
+    }
+
+    /**
+     * Sets how far the time is between the last step and the next one.
+     *
+     * @param alpha Between 0 for the position before the last step and 1 for the position after it.
+     */
+    public void setAlpha(float alpha) {
+        this.alpha = alpha;
+    }
+
+    @Override
+    protected void run(float deltaTime) {
+        stateTime += deltaTime;
+        index.query(drawArea, visible);
+        visible.sort(byLayer);
+        for (int i = 0; i < visible.size; i++) {
+            Entity entity = visible.get(i);
+            AnimationComponent animation = AnimationComponent.MAPPER.get(entity);
+            if (animation == null) {
+                continue;
+            }
+            PositionComponent position = PositionComponent.MAPPER.get(entity);
+            EntityStore<?> store = position.store;
+            int slot = position.getSlot();
+            float x = MathUtils.lerp(store.prevX[slot], store.x[slot], alpha);
+            float y = MathUtils.lerp(store.prevY[slot], store.y[slot], alpha);
+            if (!visibleArea.overlaps(frameBounds.set(x, y, animation.width, animation.height))) {
+                frameStats.objectsCulled++;
+                continue;
+            }
+            frameStats.objectsDrawn++;
+            Animation<TextureRegion> frames = animation.getAnimation(store.direction[slot],
+                    store.hasFlag(slot, EntityStore.MOVING));
+            batch.draw(frames.getKeyFrame(stateTime, true), x, y, animation.width, animation.height);
+        }
+    }
+}
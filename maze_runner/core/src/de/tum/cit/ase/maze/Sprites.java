@@ -0,0 +1,152 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * The Sprites class holds every region and animation of the game, cut out of a single texture atlas.
+ * The sprite sheets are packed into the atlas by the tools module (see SpritePacker), so all sprites
+ * share one texture. Regions and animations are created once and shared by all objects that use them.
+ */
+public class Sprites implements Disposable {
+
+    /** The packed atlas, relative to the assets folder. */
+    public static final String ATLAS_FILE = "sprites.atlas";
+
+    // Regions
+    public static final String FLOOR = "floor";
+    public static final String WALL = "wall";
+    public static final String ENTRY_POINT = "entry-point";
+    public static final String EXIT = "exit";
+    public static final String KEY = "key";
+    public static final String TRAP = "trap";
+
+    // Animations
+    public static final String CHARACTER_DOWN = "character-down";
+    public static final String CHARACTER_UP = "character-up";
+    public static final String CHARACTER_LEFT = "character-left";
+    public static final String CHARACTER_RIGHT = "character-right";
+    public static final String CHARACTER_STAND_DOWN = "character-stand-down";
+    public static final String ENEMY_DOWN = "enemy-down";
+    public static final String ENEMY_UP = "enemy-up";
+    public static final String ENEMY_LEFT = "enemy-left";
+    public static final String ENEMY_RIGHT = "enemy-right";
+    public static final String TRAP_ANIMATION = "trap";
+    public static final String COIN_ANIMATION = "coin";
+
+    private static final float FRAME_DURATION = 0.1f;
+
+    private final TextureAtlas atlas;
+    private final ObjectMap<String, TextureRegion> regions = new ObjectMap<>();
+    private final ObjectMap<String, Animation<TextureRegion>> animations = new ObjectMap<>();
+
+    /**
+     * Constructs a Sprites object from the packed atlas in the assets folder.
+     */
+    public Sprites() {
+        this(new TextureAtlas(Gdx.files.internal(ATLAS_FILE)));
+    }
+
+    /**
+     * Constructs a Sprites object from the given atlas. The atlas is disposed together with this object.
+     *
+     * @param atlas The atlas holding the sprite sheets.
+     */
+    public Sprites(TextureAtlas atlas) {
+        this.atlas = atlas;
+
+        addRegion(FLOOR, "basictiles", 1, 8, 16, 16);
+        addRegion(WALL, "basictiles", 0, 0, 16, 16);
+        addRegion(ENTRY_POINT, "things", 3, 3, 16, 16);
+        addRegion(EXIT, "basictiles", 0, 6, 16, 16);
+        addRegion(KEY, "objects", 1, 4, 16, 16);
+        addRegion(TRAP, "objects", 5, 3, 16, 16);
+
+        addAnimation(CHARACTER_DOWN, "character", 0, 0, 4, 16, 32);
+        addAnimation(CHARACTER_STAND_DOWN, "character", 0, 0, 1, 16, 32);
+        addAnimation(CHARACTER_RIGHT, "character", 1, 0, 4, 16, 32);
+        addAnimation(CHARACTER_UP, "character", 2, 0, 4, 16, 32);
+        addAnimation(CHARACTER_LEFT, "character", 3, 0, 4, 16, 32);
+        addAnimation(ENEMY_DOWN, "mobs", 4, 0, 3, 16, 16);
+        addAnimation(ENEMY_LEFT, "mobs", 5, 0, 3, 16, 16);
+        addAnimation(ENEMY_RIGHT, "mobs", 6, 0, 3, 16, 16);
+        addAnimation(ENEMY_UP, "mobs", 7, 0, 3, 16, 16);
+        addAnimation(TRAP_ANIMATION, "objects", 3, 4, 11, 16, 16);
+        addAnimation(COIN_ANIMATION, "objects", 4, 0, 4, 16, 16);
+    }
+
+    /**
+     * Gets a region by its name.
+     *
+     * @param name The name of the region, one of the region constants of this class.
+     * @return The region.
+     */
+    public TextureRegion getRegion(String name) {
+        TextureRegion region = regions.get(name);
+        if (region == null) {
+            throw new GdxRuntimeException("Unknown sprite: " + name);
+        }
+        return region;
+    }
+
+    /**
+     * Gets an animation by its name. The returned animation is shared, so it must not be changed.
+     *
+     * @param name The name of the animation, one of the animation constants of this class.
+     * @return The animation.
+     */
+    public Animation<TextureRegion> getAnimation(String name) {
+        Animation<TextureRegion> animation = animations.get(name);
+        if (animation == null) {
+            throw new GdxRuntimeException("Unknown animation: " + name);
+        }
+        return animation;
+    }
+
+    /**
+     * Cuts a single tile out of a sprite sheet.
+     */
+    private void addRegion(String name, String sheet, int column, int row, int width, int height) {
+        regions.put(name, new TextureRegion(findSheet(sheet), column * width, row * height, width, height));
+    }
+
+    /**
+     * Cuts the frames of an animation out of one row of a sprite sheet.
+     *
+     * @param fromColumn The column of the first frame.
+     * @param toColumn   The column after the last frame.
+     */
+    private void addAnimation(String name, String sheet, int row, int fromColumn, int toColumn, int frameWidth, int frameHeight) {
+        TextureRegion sheetRegion = findSheet(sheet);
+        Array<TextureRegion> frames = new Array<>(TextureRegion.class);
+        for (int column = fromColumn; column < toColumn; column++) {
+            frames.add(new TextureRegion(sheetRegion, column * frameWidth, row * frameHeight, frameWidth, frameHeight));
+        }
+        animations.put(name, new Animation<>(FRAME_DURATION, frames));
+    }
+
+    /**
+     * Finds a packed sprite sheet in the atlas.
+     */
+    private TextureRegion findSheet(String sheet) {
+        TextureRegion region = atlas.findRegion(sheet);
+        if (region == null) {
+            throw new GdxRuntimeException("Sprite sheet " + sheet + " is missing from " + ATLAS_FILE);
+        }
+        return region;
+    }
+
+    /**
+     * Frees the atlas texture.
+     */
+    @Override
+    public void dispose() {
+        atlas.dispose();
+    }
+}
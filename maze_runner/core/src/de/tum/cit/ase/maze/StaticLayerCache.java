@@ -0,0 +1,233 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * The StaticLayerCache class draws the parts of the maze that never move (floor, walls, entry and exits).
+ * Each square block of tiles is drawn once into a texture of its own, so drawing the visible part
+ * of the maze takes one sprite per block instead of two per tile.
+ * Blocks are drawn again only when one of their tiles changes. A fixed number of textures is kept,
+ * and the least recently drawn block gives up its texture when a new one is needed.
+ */
+public class StaticLayerCache implements TileMap.TileListener, Disposable {
+
+    /** The width and height of a block in tiles. */
+    public static final int BLOCK_SIZE = ChunkedMaze.CHUNK_SIZE;
+    private static final int BLOCK_PIXELS = BLOCK_SIZE * MazeGrid.TILE_SIZE;
+
+    private final MazeRunnerGame game;
+    private final TileMap world;
+    private final int blocksX;
+    private final int blocksY;
+    private final Block[] blocks;
+    private final IntMap<Block> blocksByIndex = new IntMap<>();
+    private final Matrix4 blockProjection = new Matrix4().setToOrtho2D(0, 0, BLOCK_PIXELS, BLOCK_PIXELS);
+    private final Matrix4 savedProjection = new Matrix4();
+    private long useClock;
+    private int blocksBuilt;
+
+    /**
+     * Constructs a StaticLayerCache for the given maze.
+     *
+     * @param game      The main game class, used to access the tile textures.
+     * @param world     The tiles of the maze.
+     * @param maxBlocks The number of block textures to keep. Each takes up 1 MB of video memory.
+     */
+    public StaticLayerCache(MazeRunnerGame game, TileMap world, int maxBlocks) {
+        this.game = game;
+        this.world = world;
+        this.blocksX = (world.getWidth() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        this.blocksY = (world.getHeight() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        this.blocks = new Block[maxBlocks];
+        world.addTileListener(this);
+    }
+
+    /**
+     * Draws the blocks in the given range of tiles that are missing or out of date into their textures.
+     * Must be called outside of {@link SpriteBatch#begin()} and {@link SpriteBatch#end()}.
+     *
+     * @param batch    The batch used to draw the tiles.
+     * @param viewport The viewport to restore once the textures are drawn.
+     * @param fromX    The first visible column, in tiles.
+     * @param fromY    The first visible row, in tiles.
+     * @param toX      The last visible column, in tiles.
+     * @param toY      The last visible row, in tiles.
+     */
+    public void prepare(SpriteBatch batch, Viewport viewport, int fromX, int fromY, int toX, int toY) {
+        blocksBuilt = 0;
+        for (int by = fromY / BLOCK_SIZE; by <= toY / BLOCK_SIZE; by++) {
+            for (int bx = fromX / BLOCK_SIZE; bx <= toX / BLOCK_SIZE; bx++) {
+                Block block = blocksByIndex.get(by * blocksX + bx);
+                if (block == null || block.dirty) {
+                    if (blocksBuilt == 0) {
+                        savedProjection.set(batch.getProjectionMatrix());
+                    }
+                    build(batch, block != null ? block : takeBlock(by * blocksX + bx), bx, by);
+                    blocksBuilt++;
+                }
+            }
+        }
+        if (blocksBuilt > 0) {
+            batch.setProjectionMatrix(savedProjection);
+            viewport.apply();
+        }
+    }
+
+    /**
+     * Draws the blocks in the given range of tiles. Must be called between {@link SpriteBatch#begin()}
+     * and {@link SpriteBatch#end()}, after {@link #prepare} was called for the same range.
+     *
+     * @param batch The batch to draw with.
+     * @param fromX The first visible column, in tiles.
+     * @param fromY The first visible row, in tiles.
+     * @param toX   The last visible column, in tiles.
+     * @param toY   The last visible row, in tiles.
+     * @return The number of blocks drawn.
+     */
+    public int draw(SpriteBatch batch, int fromX, int fromY, int toX, int toY) {
+        int drawn = 0;
+        for (int by = fromY / BLOCK_SIZE; by <= toY / BLOCK_SIZE; by++) {
+            for (int bx = fromX / BLOCK_SIZE; bx <= toX / BLOCK_SIZE; bx++) {
+                Block block = blocksByIndex.get(by * blocksX + bx);
+                if (block != null) {
+                    block.lastUsed = ++useClock;
+                    batch.draw(block.region, bx * BLOCK_PIXELS, by * BLOCK_PIXELS);
+                    drawn++;
+                }
+            }
+        }
+        return drawn;
+    }
+
+    /**
+     * Gets the number of blocks the maze is split into.
+     *
+     * @return The number of blocks.
+     */
+    public int getBlockCount() {
+        return blocksX * blocksY;
+    }
+
+    /**
+     * Gets the number of blocks drawn into their textures by the last call to {@link #prepare}.
+     *
+     * @return The number of blocks built.
+     */
+    public int getBlocksBuilt() {
+        return blocksBuilt;
+    }
+
+    /**
+     * Finds a texture for the given block: an unused one, or the one of the least recently drawn block.
+     *
+     * @param index The index of the block.
+     * @return The block holding the texture.
+     */
+    private Block takeBlock(int index) {
+        Block block = null;
+        for (int i = 0; i < blocks.length; i++) {
+            if (blocks[i] == null) {
+                blocks[i] = new Block();
+                block = blocks[i];
+                break;
+            }
+            if (block == null || blocks[i].lastUsed < block.lastUsed) {
+                block = blocks[i];
+            }
+        }
+        if (block.index >= 0) {
+            blocksByIndex.remove(block.index);
+        }
+        block.index = index;
+        blocksByIndex.put(index, block);
+        return block;
+    }
+
+    /**
+     * Draws the tiles of a block into its texture.
+     */
+    private void build(SpriteBatch batch, Block block, int bx, int by) {
+        TextureRegion backgroundTexture = game.getBackground();
+        TextureRegion wallTexture = game.getWall();
+        TextureRegion entryPointTexture = game.getEntryPoint();
+        TextureRegion exitPointTexture = game.getExit();
+        int fromX = bx * BLOCK_SIZE;
+        int fromY = by * BLOCK_SIZE;
+        int toX = Math.min(fromX + BLOCK_SIZE, world.getWidth());
+        int toY = Math.min(fromY + BLOCK_SIZE, world.getHeight());
+
+        block.frameBuffer.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        batch.setProjectionMatrix(blockProjection);
+        // Keep the texture opaque where tiles are drawn on top of each other
+        batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        batch.begin();
+        for (int tileY = fromY; tileY < toY; tileY++) {
+            for (int tileX = fromX; tileX < toX; tileX++) {
+                int x = (tileX - fromX) * MazeGrid.TILE_SIZE;
+                int y = (tileY - fromY) * MazeGrid.TILE_SIZE;
+                batch.draw(backgroundTexture, x, y);
+                int tileId = world.getTile(tileX, tileY);
+                if (tileId == MazeGrid.WALL) {
+                    batch.draw(wallTexture, x, y);
+                } else if (tileId == MazeGrid.ENTRY_POINT) {
+                    batch.draw(entryPointTexture, x, y);
+                } else if (tileId == MazeGrid.EXIT) {
+                    batch.draw(exitPointTexture, x, y);
+                }
+            }
+        }
+        batch.end();
+        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        block.frameBuffer.end();
+        block.dirty = false;
+    }
+
+    @Override
+    public void tileChanged(int x, int y, int oldTileId, int newTileId) {
+        Block block = blocksByIndex.get((y / BLOCK_SIZE) * blocksX + x / BLOCK_SIZE);
+        if (block != null) {
+            block.dirty = true;
+        }
+    }
+
+    /**
+     * Frees the block textures.
+     */
+    @Override
+    public void dispose() {
+        for (Block block : blocks) {
+            if (block != null) {
+                block.frameBuffer.dispose();
+            }
+        }
+        blocksByIndex.clear();
+    }
+
+    /**
+     * The Block class holds the texture one block of tiles is drawn into.
+     */
+    private static class Block {
+        private final FrameBuffer frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, BLOCK_PIXELS, BLOCK_PIXELS, false);
+        private final TextureRegion region;
+        private int index = -1;
+        private long lastUsed;
+        private boolean dirty;
+
+        private Block() {
+            region = new TextureRegion(frameBuffer.getColorBufferTexture());
+            // Frame buffer textures are upside down
+            region.flip(false, true);
+        }
+    }
+}
@@ -5,6 +5,8 @@
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import games.spooky.gdx.nativefilechooser.desktop.DesktopFileChooser;
 
+import java.util.Arrays;
+
 /**
  * The DesktopLauncher class is the entry point for the desktop version of the Maze Runner game.
  * It sets up the game window and launches the game using the LibGDX framework.
@@ -13,7 +15,9 @@ public class DesktopLauncher {
 	/**
 	 * The main method sets up the configuration for the game window and starts the application.
 	 *
-	 * @param arg Command line arguments (not used in this application)
+	 * @param arg Command line arguments. "--uncapped" turns off vsync and the frame rate limit, for benchmarks;
+	 *            the game logic runs at the same fixed rate either way. "--replay &lt;file&gt;" plays a recorded game
+	 *            instead of showing the menu.
 	 */
 	public static void main(String[] arg) {
 		// Configuration for the game window
@@ -27,10 +31,18 @@ public static void main(String[] arg) {
 				Math.round(0.8f * displayMode.width),
 				Math.round(0.8f * displayMode.height)
 		);
-		config.useVsync(true); // Enable vertical sync
-		config.setForegroundFPS(60); // Set the foreground frames per second
+		if (Arrays.asList(arg).contains("--uncapped")) {
+			config.useVsync(false);
+			config.setForegroundFPS(0); // No limit
+		} else {
+			config.useVsync(true); // Enable vertical sync
+			config.setForegroundFPS(60); // Set the foreground frames per second
+		}
+
+		int replayIndex = Arrays.asList(arg).indexOf("--replay");
+		String replayPath = replayIndex >= 0 && replayIndex + 1 < arg.length ? arg[replayIndex + 1] : null;
 
 		// Launch the game
-		new Lwjgl3Application(new MazeRunnerGame(new DesktopFileChooser()), config);
+		new Lwjgl3Application(new MazeRunnerGame(new DesktopFileChooser(), replayPath), config);
 	}
 }
@@ -0,0 +1,25 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+
+/**
+ * The AiComponent class marks an entity that walks on its own. Its {@link EnemyBehaviour} is kept by its enemy.
+ * Entities with an AI are updated by the {@link AiSystem}.
+ */
+public class AiComponent implements Component {
+
+    public static final ComponentMapper<AiComponent> MAPPER = ComponentMapper.getFor(AiComponent.class);
+
+    /** The enemy that is updated. */
+    public final Enemy enemy;
+
+    /**
+     * Constructs an AiComponent.
+     *
+     * @param enemy The enemy that is updated.
+     */
+    public AiComponent(Enemy enemy) {
+        this.enemy = enemy;
+    }
+}
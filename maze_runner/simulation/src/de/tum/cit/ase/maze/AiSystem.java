@@ -0,0 +1,102 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * The AiSystem class moves the enemies. The flow field is pointed at the character, the level of detail decides
+ * which enemies are updated in this step, and the enemy updater runs their behaviours and moves them,
+ * in parallel if it is switched on. All enemies must be kept in the same store.
+ */
+public class AiSystem extends TimedSystem {
+
+    /** Runs after the character moved, so the enemies walk towards where it is now. */
+    public static final int PRIORITY = 2;
+    private static final Family FAMILY = Family.all(PositionComponent.class, BoundsComponent.class, AiComponent.class).get();
+
+    private final EntityStore<Enemy> store;
+    private final FlowField flowField;
+    private final EnemyLod enemyLod;
+    private final EnemyUpdater enemyUpdater;
+    private final CollisionGrid collisionGrid;
+    private final FrameStats frameStats;
+    private final FloatArray times = new FloatArray();
+    private final Rectangle bounds = new Rectangle();
+    private ImmutableArray<Entity> entities;
+    private PositionComponent focus;
+    private Vector3 cameraPosition;
+
+    /**
+     * Constructs an AiSystem.
+     *
+     * @param store         The store that keeps the data of the enemies.
+     * @param flowField     The flow field chasing enemies follow.
+     * @param enemyLod      Decides how often each enemy is updated.
+     * @param enemyUpdater  Runs the updates of the enemies.
+     * @param collisionGrid The walls and exits of the maze.
+     * @param frameStats    The statistics the updates are counted in.
+     */
+    public AiSystem(EntityStore<Enemy> store, FlowField flowField, EnemyLod enemyLod, EnemyUpdater enemyUpdater,
+                    CollisionGrid collisionGrid, FrameStats frameStats) {
+        super("ai", PRIORITY);
+        this.store = store;
+        this.flowField = flowField;
+        this.enemyLod = enemyLod;
+        this.enemyUpdater = enemyUpdater;
+        this.collisionGrid = collisionGrid;
+        this.frameStats = frameStats;
+    }
+
+    /**
+     * Sets the entity the enemies chase. Enemies close to it or to the camera are updated most often.
+     *
+     * @param focus          The entity the enemies chase.
+     * @param cameraPosition The position of the camera. It is read on every update.
+     */
+    public void setFocus(Entity focus, Vector3 cameraPosition) {
+        this.focus = PositionComponent.MAPPER.get(focus);
+        this.cameraPosition = cameraPosition;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(FAMILY);
+    }
+
+    @Override
+    protected void run(float deltaTime) {
+        // One search from the focus' tile serves all enemies; it only runs again when the focus changes tiles
+        focus.getBounds(bounds);
+        flowField.setTarget(toTile(bounds.x + bounds.width / 2), toTile(bounds.y + bounds.height / 2));
+        // Enemies far from the focus and the camera are updated less often, with the time they missed
+        enemyLod.beginStep();
+        times.setSize(store.size());
+        // The slot of an enemy is its index for the level of detail and the updater
+        for (int slot = 0; slot < store.size(); slot++) {
+            times.set(slot, enemyLod.advance(slot, store.x[slot], store.y[slot], bounds.x, bounds.y,
+                    cameraPosition.x, cameraPosition.y, deltaTime));
+        }
+        Array<Enemy> enemies = store.getViews();
+        enemyUpdater.update(enemies, times, collisionGrid);
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            int slot = PositionComponent.MAPPER.get(entity).getSlot();
+            if (times.get(slot) > 0) {
+                // Move the enemy in the broadphase once per update, after its final position is known
+                BoundsComponent.MAPPER.get(entity).index.put(entity, store.getBounds(slot, bounds));
+            }
+        }
+        frameStats.enemyUpdates += enemyLod.getUpdates();
+        frameStats.parallelEnemyUpdates += enemyUpdater.getParallelUpdates();
+    }
+
+    private static int toTile(float worldCoordinate) {
+        return (int) Math.floor(worldCoordinate / MazeGrid.TILE_SIZE);
+    }
+}
@@ -0,0 +1,31 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+
+/**
+ * The BoundsComponent class describes how an entity collides: which cells of the maze it cannot move through
+ * and the broadphase that finds it. The size of its bounds is kept in its {@link EntityStore}.
+ * It holds nothing that differs between entities of one kind, so they can share one instance.
+ */
+public class BoundsComponent implements Component {
+
+    public static final ComponentMapper<BoundsComponent> MAPPER = ComponentMapper.getFor(BoundsComponent.class);
+
+    /** The collision flags of the cells the entity cannot move through, for example {@link CollisionGrid#SOLID}. */
+    public final int blockingFlags;
+    /** The broadphase the entity is kept in. It has to be put into it again whenever it moves. */
+    public final SpatialHash<Entity> index;
+
+    /**
+     * Constructs a BoundsComponent.
+     *
+     * @param blockingFlags The collision flags of the cells the entity cannot move through.
+     * @param index         The broadphase the entity is kept in.
+     */
+    public BoundsComponent(int blockingFlags, SpatialHash<Entity> index) {
+        this.blockingFlags = blockingFlags;
+        this.index = index;
+    }
+}
@@ -0,0 +1,217 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * The Character class represents the player's character in the game.
+ * It is a view of an entity in an {@link EntityStore}, which keeps its position and direction, and it holds
+ * the components its entity shares, so changes made through the character are seen by the systems.
+ */
+public class Character {
+    private static final float SPEED = 100.0f; // Speed of the character in units per second
+    private static final int STARTING_HEALTH = 3;
+    // Only the feet of the character collide, so its bounds are smaller than it is drawn
+    private static final float WIDTH = 8;
+    private static final float HEIGHT = 8;
+
+    private final EntityStore<Character> store;
+    private final int handle;
+    private final HealthComponent health = new HealthComponent(STARTING_HEALTH);
+    private final VelocityComponent velocity = new VelocityComponent(SPEED);
+    private int collectedKeys;
+    // Only created for callers that ask for them
+    private Vector2 position;
+    private Vector2 previousPosition;
+    private Rectangle boundingBox;
+
+    /**
+     * Constructs a Character object with the given starting position and adds it to a store.
+     *
+     * @param store         The store that keeps the data of the character.
+     * @param startPosition The starting position of the character.
+     */
+    public Character(EntityStore<Character> store, Vector2 startPosition) {
+        this.store = store;
+        this.handle = store.add(this, startPosition.x, startPosition.y, WIDTH, HEIGHT);
+        store.direction[store.getSlot(handle)] = FlowField.DOWN;
+    }
+
+    /**
+     * Gets the handle of the character in its store.
+     *
+     * @return The handle of the character.
+     */
+    public int getHandle() {
+        return handle;
+    }
+
+    /**
+     * Gets the health of the character as the component its entity shares.
+     *
+     * @return The health component.
+     */
+    public HealthComponent getHealthComponent() {
+        return health;
+    }
+
+    /**
+     * Gets the velocity of the character as the component its entity shares.
+     *
+     * @return The velocity component.
+     */
+    public VelocityComponent getVelocityComponent() {
+        return velocity;
+    }
+
+    /**
+     * Gets the previous position of the character. The same vector is returned every time, set to the previous position.
+     *
+     * @return The previous position of the character.
+     */
+    public Vector2 getPreviousPosition() {
+        if (previousPosition == null) {
+            previousPosition = new Vector2();
+        }
+        int slot = store.getSlot(handle);
+        return previousPosition.set(store.prevX[slot], store.prevY[slot]);
+    }
+
+    /**
+     * Gets the width of the character.
+     *
+     * @return The width of the character.
+     */
+    public float getWidth() {
+        return store.width[store.getSlot(handle)];
+    }
+
+    /**
+     * Gets the height of the character.
+     *
+     * @return The height of the character.
+     */
+    public float getHeight() {
+        return store.height[store.getSlot(handle)];
+    }
+
+    /**
+     * Gets the bounding box of the character. The same rectangle is returned every time, set to the current bounds.
+     *
+     * @return The bounding box of the character.
+     */
+    public Rectangle getBoundingBox() {
+        if (boundingBox == null) {
+            boundingBox = new Rectangle();
+        }
+        return store.getBounds(store.getSlot(handle), boundingBox);
+    }
+
+    /**
+     * Decreases the health of the character.
+     */
+    public void decreaseHealth() {
+        health.health--;
+    }
+
+    /**
+     * Increases the health of the character.
+     */
+    public void increaseHealth() {
+        health.health++;
+    }
+
+    /**
+     * Gets the health of the character.
+     *
+     * @return The health of the character.
+     */
+    public int getHealth() {
+        return health.health;
+    }
+
+    /**
+     * Sets the health of the character.
+     *
+     * @param health The new health value.
+     */
+    public void setHealth(int health) {
+        this.health.health = health;
+    }
+
+    /**
+     * Increases the count of collected keys.
+     */
+    public void increaseCollectedKeys() {
+        this.collectedKeys++;
+    }
+
+    /**
+     * Sets the count of collected keys.
+     *
+     * @param collectedKeys The new count of collected keys.
+     */
+    public void setCollectedKeys(int collectedKeys) {
+        this.collectedKeys = collectedKeys;
+    }
+
+    /**
+     * Gets the count of collected keys.
+     *
+     * @return The count of collected keys.
+     */
+    public int getCollectedKeys() {
+        return this.collectedKeys;
+    }
+
+    /**
+     * Gets the current position of the character. The same vector is returned every time, set to the current position.
+     *
+     * @return The current position of the character.
+     */
+    public Vector2 getPosition() {
+        if (position == null) {
+            position = new Vector2();
+        }
+        int slot = store.getSlot(handle);
+        return position.set(store.x[slot], store.y[slot]);
+    }
+
+    /**
+     * Sets the starting point of the character.
+     *
+     * @param startPoint The new starting point.
+     */
+    public void setCharacterStartPoint(Vector2 startPoint) {
+        setPosition(startPoint);
+    }
+
+    /**
+     * Gets the starting point of the character.
+     *
+     * @return The starting point of the character.
+     */
+    public Vector2 getCharacterStartPoint() {
+        return getPosition();
+    }
+
+    /**
+     * Sets the position of the character.
+     *
+     * @param newPosition The new position of the character.
+     */
+    public void setPosition(Vector2 newPosition) {
+        int slot = store.getSlot(handle);
+        store.x[slot] = newPosition.x;
+        store.y[slot] = newPosition.y;
+    }
+
+    /**
+     * Sets the speed of the character.
+     *
+     * @param speed The new speed of the character.
+     */
+    public void setSpeed(float speed) {
+        velocity.speed = speed;
+    }
+}
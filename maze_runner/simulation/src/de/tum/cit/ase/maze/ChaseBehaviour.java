@@ -0,0 +1,31 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The ChaseBehaviour class makes enemies close to the player follow the shared flow field towards them.
+ * Enemies further away walk around randomly.
+ */
+public class ChaseBehaviour implements EnemyBehaviour {
+
+    private final FlowField flowField;
+    private final int chaseDistance;
+
+    /**
+     * Constructs a ChaseBehaviour. One instance can be shared by any number of enemies.
+     *
+     * @param flowField     The distances to the player.
+     * @param chaseDistance How far away the player can be, in tiles of walking distance, to be chased.
+     */
+    public ChaseBehaviour(FlowField flowField, int chaseDistance) {
+        this.flowField = flowField;
+        this.chaseDistance = chaseDistance;
+    }
+
+    @Override
+    public int nextStep(Enemy enemy, int tileX, int tileY) {
+        int distance = flowField.getDistance(tileX, tileY);
+        if (distance == FlowField.UNREACHABLE || distance > chaseDistance) {
+            return -1;
+        }
+        return flowField.getNextStep(tileX, tileY);
+    }
+}
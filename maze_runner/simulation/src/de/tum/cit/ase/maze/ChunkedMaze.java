@@ -0,0 +1,550 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The ChunkedMaze class streams the tiles of a compiled map (see {@link MazeFile}) in square chunks,
+ * so mazes much larger than the available memory can be played.
+ * Chunks around the camera are read on a background thread, and once the memory budget is used up
+ * the least recently used chunk is evicted. A chunk that is needed before it has arrived is read right away.
+ * The game logic reads the tiles through {@link #getResidentTiles()} instead, which never reads or evicts a chunk.
+ * Apart from the background loading, all methods must be called from the render thread.
+ */
+public class ChunkedMaze implements TileMap {
+
+    /** The width and height of a chunk in tiles. */
+    public static final int CHUNK_SIZE = 32;
+
+    /** The number of bytes a resident chunk takes up. */
+    public static final int CHUNK_BYTES = CHUNK_SIZE * CHUNK_SIZE;
+
+    private final FileChannel channel;
+    private final MazeFile.Header header;
+    private final int chunksX;
+    private final int chunksY;
+    private final int maxResidentChunks;
+
+    /** The resident chunks by chunk index, null if the chunk is not in memory. */
+    private final Chunk[] chunks;
+    /** The value of {@link #useClock} when each chunk was last used. */
+    private final long[] lastUsed;
+    /** Whether a background load has been requested for each chunk. */
+    private final boolean[] requested;
+    private final int[] resident;
+    private int residentCount;
+    private long useClock;
+
+    private final ExecutorService loader;
+    private final ConcurrentLinkedQueue<Chunk> loaded = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Integer> failed = new ConcurrentLinkedQueue<>();
+    private ChunkListener listener;
+    private final ResidentTiles residentTiles = new ResidentTiles();
+
+    // The last chunk used by getTile, so neighbouring lookups skip the chunk table
+    private Chunk lastChunk;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+    private final AtomicLong maxLoadNanos = new AtomicLong();
+
+    /**
+     * Opens a compiled map for streaming.
+     *
+     * @param file         The compiled map file.
+     * @param memoryBudget The maximum number of bytes the resident chunks may take up.
+     * @throws IOException If the file cannot be opened or is not a valid compiled map.
+     */
+    public ChunkedMaze(File file, long memoryBudget) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            ByteBuffer headerBuffer = ByteBuffer.allocate(MazeFile.HEADER_SIZE);
+            readFully(headerBuffer, 0);
+            header = MazeFile.readHeader(headerBuffer.clear(), channel.size(), file.getName());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        chunksX = (header.width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunksY = (header.height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        // A few chunks are always allowed, so the chunks around the camera never evict each other
+        maxResidentChunks = (int) Math.min(chunksX * chunksY, Math.max(16, memoryBudget / CHUNK_BYTES));
+        chunks = new Chunk[chunksX * chunksY];
+        lastUsed = new long[chunks.length];
+        requested = new boolean[chunks.length];
+        resident = new int[maxResidentChunks + 1];
+        loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "maze-chunk-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the listener that is told about every chunk that becomes resident or is evicted.
+     *
+     * @param listener The listener, or null.
+     */
+    public void setChunkListener(ChunkListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the tiles of the resident chunks, as the game logic sees them. Tiles of chunks that are not resident read
+     * as walls, so collision checks and path searches neither wait for a chunk to be read nor make another one
+     * leave in the middle of a step, and nothing walks into a part of the maze that is not there.
+     * Its tile listeners are told about every tile that is not a wall when its chunk arrives or leaves.
+     *
+     * @return The resident tiles.
+     */
+    public TileMap getResidentTiles() {
+        return residentTiles;
+    }
+
+    /**
+     * Checks if a chunk is in memory.
+     *
+     * @param index The index of the chunk, see {@link Chunk#getIndex()}.
+     * @return True if the chunk is resident, false otherwise.
+     */
+    public boolean isResident(int index) {
+        return chunks[index] != null;
+    }
+
+    /**
+     * Gets the index of the chunk a tile lies in.
+     *
+     * @param tileX The x-coordinate in tiles, inside the maze.
+     * @param tileY The y-coordinate in tiles, inside the maze.
+     * @return The index of the chunk, see {@link Chunk#getIndex()}.
+     */
+    public int getChunkIndex(int tileX, int tileY) {
+        return tileY / CHUNK_SIZE * chunksX + tileX / CHUNK_SIZE;
+    }
+
+    /**
+     * Requests every chunk overlapping the given area, plus one chunk of margin, to be loaded in the background,
+     * and makes the chunks that have finished loading since the last call resident.
+     *
+     * @param left   The left edge of the area in world units.
+     * @param bottom The bottom edge of the area in world units.
+     * @param right  The right edge of the area in world units.
+     * @param top    The top edge of the area in world units.
+     */
+    public void update(float left, float bottom, float right, float top) {
+        Integer failedIndex;
+        while ((failedIndex = failed.poll()) != null) {
+            // The chunk is read again, and the error reported, when it is actually needed
+            requested[failedIndex] = false;
+        }
+        Chunk chunk;
+        while ((chunk = loaded.poll()) != null) {
+            requested[chunk.index] = false;
+            if (chunks[chunk.index] == null) {
+                install(chunk);
+            }
+        }
+
+        if (lastChunk != null) {
+            // Lookups of the last chunk do not renew its use stamp, so it is renewed here once per update
+            lastUsed[lastChunk.index] = ++useClock;
+        }
+        int chunkPixels = CHUNK_SIZE * MazeGrid.TILE_SIZE;
+        int fromX = Math.max(0, (int) Math.floor(left / chunkPixels) - 1);
+        int fromY = Math.max(0, (int) Math.floor(bottom / chunkPixels) - 1);
+        int toX = Math.min(chunksX - 1, (int) Math.floor(right / chunkPixels) + 1);
+        int toY = Math.min(chunksY - 1, (int) Math.floor(top / chunkPixels) + 1);
+        for (int cy = fromY; cy <= toY; cy++) {
+            for (int cx = fromX; cx <= toX; cx++) {
+                int index = cy * chunksX + cx;
+                if (chunks[index] != null) {
+                    lastUsed[index] = ++useClock;
+                } else if (!requested[index]) {
+                    requested[index] = true;
+                    int chunkX = cx;
+                    int chunkY = cy;
+                    loader.execute(() -> {
+                        try {
+                            loaded.add(readChunk(chunkX, chunkY));
+                        } catch (IOException e) {
+                            failed.add(chunkY * chunksX + chunkX);
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getTile(int x, int y) {
+        if (x < 0 || y < 0 || x >= header.width || y >= header.height) {
+            return MazeGrid.EMPTY;
+        }
+        int cx = x / CHUNK_SIZE;
+        int cy = y / CHUNK_SIZE;
+        Chunk chunk = lastChunk;
+        if (chunk == null || chunk.chunkX != cx || chunk.chunkY != cy) {
+            chunk = getChunk(cx, cy);
+            lastChunk = chunk;
+        } else {
+            // The use stamp of the last chunk is renewed in update(), which keeps this path to a compare
+            hits++;
+        }
+        return chunk.tiles[(y - cy * CHUNK_SIZE) * CHUNK_SIZE + (x - cx * CHUNK_SIZE)];
+    }
+
+    /**
+     * Gets a chunk, reading it right away if it is not resident.
+     *
+     * @param cx The x-coordinate of the chunk.
+     * @param cy The y-coordinate of the chunk.
+     * @return The chunk.
+     */
+    public Chunk getChunk(int cx, int cy) {
+        int index = cy * chunksX + cx;
+        Chunk chunk = chunks[index];
+        if (chunk != null) {
+            hits++;
+        } else {
+            misses++;
+            try {
+                chunk = readChunk(cx, cy);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            install(chunk);
+        }
+        lastUsed[index] = ++useClock;
+        return chunk;
+    }
+
+    /**
+     * Makes a chunk resident, evicting the least recently used chunk if the budget is used up.
+     *
+     * @param chunk The chunk to make resident.
+     */
+    private void install(Chunk chunk) {
+        if (residentCount == maxResidentChunks) {
+            int oldest = 0;
+            for (int i = 1; i < residentCount; i++) {
+                if (lastUsed[resident[i]] < lastUsed[resident[oldest]]) {
+                    oldest = i;
+                }
+            }
+            Chunk evicted = chunks[resident[oldest]];
+            chunks[resident[oldest]] = null;
+            resident[oldest] = resident[--residentCount];
+            evictions++;
+            lastChunk = null;
+            residentTiles.chunkChanged(evicted, false);
+            if (listener != null) {
+                listener.chunkEvicted(evicted);
+            }
+        }
+        chunks[chunk.index] = chunk;
+        resident[residentCount++] = chunk.index;
+        lastUsed[chunk.index] = ++useClock;
+        residentTiles.chunkChanged(chunk, true);
+        if (listener != null) {
+            listener.chunkLoaded(chunk);
+        }
+    }
+
+    /**
+     * Reads a chunk from the map file. This is called from both the background thread and the render thread.
+     *
+     * @param cx The x-coordinate of the chunk.
+     * @param cy The y-coordinate of the chunk.
+     * @return The chunk.
+     * @throws IOException If the file cannot be read.
+     */
+    private Chunk readChunk(int cx, int cy) throws IOException {
+        long start = System.nanoTime();
+        Chunk chunk = new Chunk(cy * chunksX + cx, cx, cy);
+        Arrays.fill(chunk.tiles, MazeGrid.EMPTY);
+        int columns = Math.min(CHUNK_SIZE, header.width - cx * CHUNK_SIZE);
+        int rows = Math.min(CHUNK_SIZE, header.height - cy * CHUNK_SIZE);
+        for (int row = 0; row < rows; row++) {
+            long position = MazeFile.HEADER_SIZE + (long) (cy * CHUNK_SIZE + row) * header.width + cx * CHUNK_SIZE;
+            readFully(ByteBuffer.wrap(chunk.tiles, row * CHUNK_SIZE, columns), position);
+        }
+        long nanos = System.nanoTime() - start;
+        loads.incrementAndGet();
+        loadNanos.addAndGet(nanos);
+        maxLoadNanos.accumulateAndGet(nanos, Math::max);
+        return chunk;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of map file");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Gets the header of the compiled map, including the number of each map object.
+     *
+     * @return The header.
+     */
+    public MazeFile.Header getHeader() {
+        return header;
+    }
+
+    @Override
+    public int getWidth() {
+        return header.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return header.height;
+    }
+
+    @Override
+    public boolean hasEntry() {
+        return header.entryX >= 0;
+    }
+
+    @Override
+    public int getEntryX() {
+        return header.entryX;
+    }
+
+    @Override
+    public int getEntryY() {
+        return header.entryY;
+    }
+
+    /**
+     * Gets the number of chunk lookups that found the chunk resident, including tile lookups in the chunk
+     * of the tile looked up before.
+     *
+     * @return The number of chunk hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of chunk lookups that had to read the chunk right away.
+     *
+     * @return The number of chunk misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of chunks evicted to stay within the memory budget.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of chunks currently in memory.
+     *
+     * @return The number of resident chunks.
+     */
+    public int getResidentChunks() {
+        return residentCount;
+    }
+
+    /**
+     * Gets the average time it took to read a chunk.
+     *
+     * @return The average load latency in milliseconds.
+     */
+    public double getAverageLoadMillis() {
+        long count = loads.get();
+        return count == 0 ? 0 : loadNanos.get() / (count * 1_000_000.0);
+    }
+
+    /**
+     * Gets the longest time it took to read a chunk.
+     *
+     * @return The maximum load latency in milliseconds.
+     */
+    public double getMaxLoadMillis() {
+        return maxLoadNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("chunks: %d resident, %d hits, %d misses, %d evictions, load %.3f ms avg / %.3f ms max",
+                residentCount, hits, misses, evictions, getAverageLoadMillis(), getMaxLoadMillis());
+    }
+
+    /**
+     * Stops the background thread and closes the map file.
+     */
+    public void dispose() {
+        loader.shutdownNow();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to read from the file
+        }
+    }
+
+    /**
+     * The ResidentTiles class reads the tiles of the resident chunks and reads all other tiles as walls.
+     */
+    private class ResidentTiles implements TileMap {
+        private final Array<TileListener> listeners = new Array<>();
+
+        @Override
+        public int getTile(int x, int y) {
+            if (x < 0 || y < 0 || x >= header.width || y >= header.height) {
+                return MazeGrid.EMPTY;
+            }
+            int cx = x / CHUNK_SIZE;
+            int cy = y / CHUNK_SIZE;
+            Chunk chunk = chunks[cy * chunksX + cx];
+            if (chunk == null) {
+                return MazeGrid.WALL;
+            }
+            return chunk.tiles[(y - cy * CHUNK_SIZE) * CHUNK_SIZE + (x - cx * CHUNK_SIZE)];
+        }
+
+        @Override
+        public int getWidth() {
+            return header.width;
+        }
+
+        @Override
+        public int getHeight() {
+            return header.height;
+        }
+
+        @Override
+        public boolean hasEntry() {
+            return ChunkedMaze.this.hasEntry();
+        }
+
+        @Override
+        public int getEntryX() {
+            return header.entryX;
+        }
+
+        @Override
+        public int getEntryY() {
+            return header.entryY;
+        }
+
+        @Override
+        public void addTileListener(TileListener listener) {
+            listeners.add(listener);
+        }
+
+        /**
+         * Tells the listeners about the tiles of a chunk that arrived or left, which were or become walls.
+         */
+        private void chunkChanged(Chunk chunk, boolean arrived) {
+            if (listeners.size == 0) {
+                return;
+            }
+            int columns = Math.min(CHUNK_SIZE, header.width - chunk.getTileX());
+            int rows = Math.min(CHUNK_SIZE, header.height - chunk.getTileY());
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    int tileId = chunk.tiles[row * CHUNK_SIZE + column];
+                    if (tileId == MazeGrid.WALL) {
+                        continue;
+                    }
+                    int x = chunk.getTileX() + column;
+                    int y = chunk.getTileY() + row;
+                    for (int i = 0; i < listeners.size; i++) {
+                        if (arrived) {
+                            listeners.get(i).tileChanged(x, y, MazeGrid.WALL, tileId);
+                        } else {
+                            listeners.get(i).tileChanged(x, y, tileId, MazeGrid.WALL);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The Chunk class holds the tiles of one square part of the maze.
+     */
+    public static class Chunk {
+        private final int index;
+        private final int chunkX;
+        private final int chunkY;
+        private final byte[] tiles = new byte[CHUNK_BYTES];
+
+        private Chunk(int index, int chunkX, int chunkY) {
+            this.index = index;
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+        }
+
+        /**
+         * Gets the index of the chunk, unique within the maze.
+         *
+         * @return The chunk index.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Gets the x-coordinate of the first tile in the chunk.
+         *
+         * @return The x-coordinate in tiles.
+         */
+        public int getTileX() {
+            return chunkX * CHUNK_SIZE;
+        }
+
+        /**
+         * Gets the y-coordinate of the first tile in the chunk.
+         *
+         * @return The y-coordinate in tiles.
+         */
+        public int getTileY() {
+            return chunkY * CHUNK_SIZE;
+        }
+    }
+
+    /**
+     * The ChunkListener interface is told about chunks as they become resident and as they are evicted.
+     */
+    public interface ChunkListener {
+
+        /**
+         * Called on the render thread when a chunk becomes resident.
+         *
+         * @param chunk The chunk.
+         */
+        void chunkLoaded(Chunk chunk);
+
+        /**
+         * Called on the render thread when a chunk is evicted to stay within the memory budget.
+         *
+         * @param chunk The chunk.
+         */
+        void chunkEvicted(Chunk chunk);
+    }
+}
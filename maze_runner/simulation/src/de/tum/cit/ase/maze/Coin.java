@@ -0,0 +1,109 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * The Coin class represents a coin in the game.
+ * It is a view of an entity in an {@link EntityStore}, which keeps its position and activation state.
+ */
+public class Coin {
+    private final EntityStore<Coin> store;
+    private final int handle;
+    // Only created for callers that ask for them
+    private Vector2 position;
+    private Rectangle bounds;
+
+    /**
+     * Constructs a Coin object with the given position, width, and height and adds it to a store.
+     *
+     * @param store    The store that keeps the data of the keys.
+     * @param position The position of the coin.
+     * @param width    The width of the coin.
+     * @param height   The height of the coin.
+     */
+    public Coin(EntityStore<Coin> store, Vector2 position, float width, float height) {
+        this.store = store;
+        this.handle = store.add(this, position.x, position.y, width, height);
+    }
+
+    /**
+     * Checks if the coin collides with the character.
+     *
+     * @param character The character to check for collision.
+     * @return True if the coin collides with the character, false otherwise.
+     */
+    public boolean collidesWith(Character character) {
+        return getBounds().overlaps(character.getBoundingBox());
+    }
+
+    /**
+     * Checks if the coin is activated.
+     *
+     * @return True if the coin is activated, false otherwise.
+     */
+    public boolean isActivated() {
+        return store.hasFlag(store.getSlot(handle), EntityStore.ACTIVATED);
+    }
+
+    /**
+     * Sets the activation status of the coin.
+     *
+     * @param activated The new activation status of the coin.
+     */
+    public void setActivated(boolean activated) {
+        store.setFlag(store.getSlot(handle), EntityStore.ACTIVATED, activated);
+    }
+
+    /**
+     * Gets the bounding box of the coin. The same rectangle is returned every time, set to the current bounds.
+     *
+     * @return The bounding box of the coin.
+     */
+    public Rectangle getBounds() {
+        if (bounds == null) {
+            bounds = new Rectangle();
+        }
+        return store.getBounds(store.getSlot(handle), bounds);
+    }
+
+    /**
+     * Gets the handle of the coin in its store.
+     *
+     * @return The handle of the coin.
+     */
+    public int getHandle() {
+        return handle;
+    }
+
+    /**
+     * Gets the x-coordinate of the coin.
+     *
+     * @return The x-coordinate in world units.
+     */
+    public float getX() {
+        return store.x[store.getSlot(handle)];
+    }
+
+    /**
+     * Gets the y-coordinate of the coin.
+     *
+     * @return The y-coordinate in world units.
+     */
+    public float getY() {
+        return store.y[store.getSlot(handle)];
+    }
+
+    /**
+     * Gets the position of the coin. The same vector is returned every time, set to the current position.
+     *
+     * @return The position of the coin.
+     */
+    public Vector2 getPosition() {
+        if (position == null) {
+            position = new Vector2();
+        }
+        int slot = store.getSlot(handle);
+        return position.set(store.x[slot], store.y[slot]);
+    }
+}
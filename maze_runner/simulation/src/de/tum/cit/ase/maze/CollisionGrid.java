@@ -0,0 +1,332 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * The CollisionGrid class answers collision queries against the static parts of the maze.
+ * Walls and exits sit on the tile grid, so a query only looks at the few cells a bounding box covers
+ * instead of testing every wall. What blocks movement is read from the tiles themselves, so wall
+ * changes take effect at once; exit points are kept per cell and dropped when their tile changes.
+ * Moves are swept along one axis at a time, so objects slide along walls and cannot skip through
+ * them no matter how far they move in one step.
+ */
+public class CollisionGrid implements TileMap.TileListener {
+
+    /** Cells that nothing can move through. */
+    public static final int SOLID = 1;
+    /** Cells that hold an exit point. */
+    public static final int EXIT = 2;
+
+    /** The collision flags of each tile id, indexed by tile id + 1 so that {@link MazeGrid#EMPTY} is included. */
+    private static final byte[] TILE_FLAGS = new byte[129];
+
+    static {
+        TILE_FLAGS[MazeGrid.WALL + 1] = SOLID;
+        TILE_FLAGS[MazeGrid.EXIT + 1] = EXIT;
+    }
+
+    private final TileMap world;
+    private final LongMap<ExitPoint> exits;
+    private int cellsTested;
+
+    /**
+     * Constructs a CollisionGrid for the given maze and keeps it up to date when tiles change.
+     *
+     * @param world The tiles of the maze.
+     */
+    public CollisionGrid(TileMap world) {
+        this.world = world;
+        this.exits = new LongMap<>();
+        world.addTileListener(this);
+    }
+
+    private CollisionGrid(CollisionGrid shared) {
+        this.world = shared.world;
+        this.exits = shared.exits;
+    }
+
+    /**
+     * Creates a collision grid that answers queries from the same tiles and exits, but counts its tests on its own.
+     * Queries only read the tiles, so each thread can use its own view at the same time as long as the tiles
+     * are held in memory as a whole and neither tiles nor exits change meanwhile.
+     *
+     * @return The new view.
+     */
+    public CollisionGrid createView() {
+        return new CollisionGrid(this);
+    }
+
+    /**
+     * Gets the collision flags of a single cell.
+     *
+     * @param x The x-coordinate in tiles.
+     * @param y The y-coordinate in tiles.
+     * @return The flags of the cell, {@link #SOLID} and/or {@link #EXIT}, or 0 for free cells and cells outside the maze.
+     */
+    public int getFlags(int x, int y) {
+        return TILE_FLAGS[world.getTile(x, y) + 1];
+    }
+
+    /**
+     * Checks if a tile has any of the given collision flags.
+     *
+     * @param tileId The id of the tile.
+     * @param mask   The flags to look for.
+     * @return True if the tile has one of the flags, false otherwise.
+     */
+    public static boolean isBlocking(int tileId, int mask) {
+        return (TILE_FLAGS[tileId + 1] & mask) != 0;
+    }
+
+    /**
+     * Gets the width of the maze.
+     *
+     * @return The width of the maze in tiles.
+     */
+    public int getWidth() {
+        return world.getWidth();
+    }
+
+    /**
+     * Gets the height of the maze.
+     *
+     * @return The height of the maze in tiles.
+     */
+    public int getHeight() {
+        return world.getHeight();
+    }
+
+    /**
+     * Checks if the given bounds overlap a cell with any of the given flags.
+     *
+     * @param bounds The bounds to check, in world units.
+     * @param mask   The flags to look for, for example {@code SOLID | EXIT}.
+     * @return True if a covered cell has one of the flags, false otherwise.
+     */
+    public boolean overlaps(Rectangle bounds, int mask) {
+        int fromX = toCell(bounds.x);
+        int fromY = toCell(bounds.y);
+        // Rectangles that only touch do not overlap, so the far edges are exclusive
+        int toX = toCellExclusive(bounds.x + bounds.width);
+        int toY = toCellExclusive(bounds.y + bounds.height);
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                if ((testCell(x, y) & mask) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sweeps the given bounds along the x-axis and finds how far they can move before touching a blocking cell.
+     * Only the columns between the start and the end of the move are checked.
+     *
+     * @param bounds The bounds to move, in world units. They are not changed.
+     * @param dx     The distance to move, negative to move left.
+     * @param mask   The flags of the cells that block the move.
+     * @return The distance the bounds can move, between 0 and dx.
+     */
+    public float sweepX(Rectangle bounds, float dx, int mask) {
+        return sweepX(bounds.x, bounds.y, bounds.width, bounds.height, dx, mask);
+    }
+
+    /**
+     * Sweeps the given bounds along the x-axis, like {@link #sweepX(Rectangle, float, int)}, for callers that keep
+     * their bounds in plain numbers.
+     *
+     * @param x      The left edge of the bounds in world units.
+     * @param y      The bottom edge of the bounds in world units.
+     * @param width  The width of the bounds.
+     * @param height The height of the bounds.
+     * @param dx     The distance to move, negative to move left.
+     * @param mask   The flags of the cells that block the move.
+     * @return The distance the bounds can move, between 0 and dx.
+     */
+    public float sweepX(float x, float y, float width, float height, float dx, int mask) {
+        int fromY = toCell(y);
+        int toY = toCellExclusive(y + height);
+        if (dx > 0) {
+            float edge = x + width;
+            int last = toCellExclusive(edge + dx);
+            for (int column = toCellExclusive(edge) + 1; column <= last; column++) {
+                if (columnBlocks(column, fromY, toY, mask)) {
+                    return Math.max(0, column * MazeGrid.TILE_SIZE - edge);
+                }
+            }
+        } else if (dx < 0) {
+            int last = toCell(x + dx);
+            for (int column = toCell(x) - 1; column >= last; column--) {
+                if (columnBlocks(column, fromY, toY, mask)) {
+                    return Math.min(0, (column + 1) * MazeGrid.TILE_SIZE - x);
+                }
+            }
+        }
+        return dx;
+    }
+
+    /**
+     * Sweeps the given bounds along the y-axis and finds how far they can move before touching a blocking cell.
+     * Only the rows between the start and the end of the move are checked.
+     *
+     * @param bounds The bounds to move, in world units. They are not changed.
+     * @param dy     The distance to move, negative to move down.
+     * @param mask   The flags of the cells that block the move.
+     * @return The distance the bounds can move, between 0 and dy.
+     */
+    public float sweepY(Rectangle bounds, float dy, int mask) {
+        return sweepY(bounds.x, bounds.y, bounds.width, bounds.height, dy, mask);
+    }
+
+    /**
+     * Sweeps the given bounds along the y-axis, like {@link #sweepY(Rectangle, float, int)}, for callers that keep
+     * their bounds in plain numbers.
+     *
+     * @param x      The left edge of the bounds in world units.
+     * @param y      The bottom edge of the bounds in world units.
+     * @param width  The width of the bounds.
+     * @param height The height of the bounds.
+     * @param dy     The distance to move, negative to move down.
+     * @param mask   The flags of the cells that block the move.
+     * @return The distance the bounds can move, between 0 and dy.
+     */
+    public float sweepY(float x, float y, float width, float height, float dy, int mask) {
+        int fromX = toCell(x);
+        int toX = toCellExclusive(x + width);
+        if (dy > 0) {
+            float edge = y + height;
+            int last = toCellExclusive(edge + dy);
+            for (int row = toCellExclusive(edge) + 1; row <= last; row++) {
+                if (rowBlocks(row, fromX, toX, mask)) {
+                    return Math.max(0, row * MazeGrid.TILE_SIZE - edge);
+                }
+            }
+        } else if (dy < 0) {
+            int last = toCell(y + dy);
+            for (int row = toCell(y) - 1; row >= last; row--) {
+                if (rowBlocks(row, fromX, toX, mask)) {
+                    return Math.min(0, (row + 1) * MazeGrid.TILE_SIZE - y);
+                }
+            }
+        }
+        return dy;
+    }
+
+    /**
+     * Finds an exit point overlapped by the given bounds.
+     *
+     * @param bounds The bounds to check, in world units.
+     * @return The first exit point found, or null if the bounds do not overlap one.
+     */
+    public ExitPoint findExit(Rectangle bounds) {
+        int fromX = toCell(bounds.x);
+        int fromY = toCell(bounds.y);
+        int toX = toCellExclusive(bounds.x + bounds.width);
+        int toY = toCellExclusive(bounds.y + bounds.height);
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                if ((testCell(x, y) & EXIT) != 0) {
+                    ExitPoint exitPoint = exits.get(key(x, y));
+                    if (exitPoint != null) {
+                        return exitPoint;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registers an exit point at the cell its bounds start in.
+     *
+     * @param exitPoint The exit point to add.
+     */
+    public void addExit(ExitPoint exitPoint) {
+        exits.put(key(toCell(exitPoint.getBounds().x), toCell(exitPoint.getBounds().y)), exitPoint);
+    }
+
+    /**
+     * Unregisters an exit point, like when the part of a streamed maze it is in is evicted.
+     *
+     * @param exitPoint The exit point to remove. Nothing happens if another exit is registered at its cell.
+     */
+    public void removeExit(ExitPoint exitPoint) {
+        long key = key(toCell(exitPoint.getBounds().x), toCell(exitPoint.getBounds().y));
+        if (exits.get(key) == exitPoint) {
+            exits.remove(key);
+        }
+    }
+
+    /**
+     * Gets the number of cells tested since the last call to {@link #resetStats()}.
+     *
+     * @return The number of cells tested.
+     */
+    public int getCellsTested() {
+        return cellsTested;
+    }
+
+    /**
+     * Adds the cells tested by a view to the cells tested by this grid, and resets the view.
+     *
+     * @param view A view created by {@link #createView()}.
+     */
+    public void addStats(CollisionGrid view) {
+        cellsTested += view.cellsTested;
+        view.resetStats();
+    }
+
+    /**
+     * Resets the number of cells tested.
+     */
+    public void resetStats() {
+        cellsTested = 0;
+    }
+
+    @Override
+    public void tileChanged(int x, int y, int oldTileId, int newTileId) {
+        if (oldTileId == MazeGrid.EXIT && newTileId != MazeGrid.EXIT) {
+            exits.remove(key(x, y));
+        }
+    }
+
+    /**
+     * Gets the collision flags of a single cell for a collision query, and counts the test.
+     */
+    private int testCell(int x, int y) {
+        cellsTested++;
+        return getFlags(x, y);
+    }
+
+    private boolean columnBlocks(int x, int fromY, int toY, int mask) {
+        for (int y = fromY; y <= toY; y++) {
+            if ((testCell(x, y) & mask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean rowBlocks(int y, int fromX, int toX, int mask) {
+        for (int x = fromX; x <= toX; x++) {
+            if ((testCell(x, y) & mask) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long key(int x, int y) {
+        return (long) y * world.getWidth() + x;
+    }
+
+    private static int toCell(float worldCoordinate) {
+        return (int) Math.floor(worldCoordinate / MazeGrid.TILE_SIZE);
+    }
+
+    private static int toCellExclusive(float worldCoordinate) {
+        return (int) Math.ceil(worldCoordinate / MazeGrid.TILE_SIZE) - 1;
+    }
+}
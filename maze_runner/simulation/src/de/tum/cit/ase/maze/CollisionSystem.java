@@ -0,0 +1,54 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The CollisionSystem class finds the entities touching the entities that look for contacts.
+ * The broadphase only returns the entities near them, so this does not test every pair.
+ */
+public class CollisionSystem extends TimedSystem {
+
+    /** Runs after everything moved. */
+    public static final int PRIORITY = 3;
+    private static final Family FAMILY = Family.all(PositionComponent.class, BoundsComponent.class, ContactComponent.class).get();
+
+    private final FrameStats frameStats;
+    private final Rectangle bounds = new Rectangle();
+    private ImmutableArray<Entity> entities;
+
+    /**
+     * Constructs a CollisionSystem.
+     *
+     * @param frameStats The statistics the contacts are counted in.
+     */
+    public CollisionSystem(FrameStats frameStats) {
+        super("collision", PRIORITY);
+        this.frameStats = frameStats;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(FAMILY);
+    }
+
+    @Override
+    protected void run(float deltaTime) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            ContactComponent contacts = ContactComponent.MAPPER.get(entity);
+            // Remember what touched the entity in the last step, to notice in the trigger system when a touch ends
+            Array<Entity> touched = contacts.touching;
+            contacts.touching = contacts.touched;
+            contacts.touched = touched;
+            BoundsComponent.MAPPER.get(entity).index.query(PositionComponent.MAPPER.get(entity).getBounds(bounds),
+                    contacts.touching);
+            contacts.touching.removeValue(entity, true);
+            frameStats.broadphasePairs += contacts.touching.size;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The ContactComponent class holds the entities that touch an entity, found by the {@link CollisionSystem}.
+ * The touches of the step before are kept as well, so it can be seen when a touch starts or ends.
+ */
+public class ContactComponent implements Component {
+
+    public static final ComponentMapper<ContactComponent> MAPPER = ComponentMapper.getFor(ContactComponent.class);
+
+    /** The entities touching in this step. */
+    public Array<Entity> touching = new Array<>();
+    /** The entities touching in the step before. */
+    public Array<Entity> touched = new Array<>();
+}
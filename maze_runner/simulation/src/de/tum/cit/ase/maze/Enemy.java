@@ -0,0 +1,269 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * The Enemy class represents an enemy character in the game.
+ * It is a view of an entity in an {@link EntityStore}: the position, direction and timers of all enemies are kept
+ * in the arrays of the store, and an Enemy only holds what differs between enemies and cannot be stored in numbers.
+ */
+public class Enemy {
+
+    private static final float SPEED = 50.0f; // Enemy speed in units per second
+    private static final float MIN_COOLDOWN = 1f; // Minimum waiting time (seconds)
+    private static final float MAX_COOLDOWN = 2f; // Maximum waiting time (seconds)
+    private static final float WIDTH = 16;
+    private static final float HEIGHT = 16;
+
+    private final EntityStore<Enemy> store;
+    private final int handle;
+    private EnemyBehaviour behaviour = EnemyBehaviour.WANDER;
+    // Every enemy has its own random numbers, so enemies can be updated on any thread in any order with the same result
+    private final RandomXS128 random;
+    // Only created for callers that ask for them
+    private Vector2 position;
+    private Vector2 previousPosition;
+    private Rectangle boundingBox;
+
+    /**
+     * Constructs an Enemy object with the given starting position and adds it to a store.
+     *
+     * @param store         The store that keeps the data of the enemies.
+     * @param startPosition The starting position of the enemy.
+     * @param seed          The seed of the level; each enemy mixes it with its starting position.
+     */
+    public Enemy(EntityStore<Enemy> store, Vector2 startPosition, long seed) {
+        this.store = store;
+        this.handle = store.add(this, startPosition.x, startPosition.y, WIDTH, HEIGHT);
+        int slot = store.getSlot(handle);
+        store.state[slot] = 1; // Set the initial health of the enemy to 1
+        this.random = new RandomXS128(((long) Float.floatToIntBits(startPosition.x) << 32
+                ^ Float.floatToIntBits(startPosition.y)) ^ 0x5DEECE66DL ^ seed * 0x9E3779B97F4A7C15L);
+        store.cooldown[slot] = getRandomCooldown();
+        store.direction[slot] = (byte) random.nextInt(4);
+    }
+
+    /**
+     * Updates the enemy's state based on the elapsed time.
+     * The behaviour of the enemy chooses the direction, the enemy walks around randomly if it does not choose one.
+     * Only the slot of this enemy in the store is changed, so different enemies can be updated at the same time.
+     *
+     * @param delta         The elapsed time since the last update.
+     * @param collisionGrid The walls and exits the enemy cannot move through.
+     */
+    public void update(float delta, CollisionGrid collisionGrid) {
+        int slot = store.getSlot(handle);
+        float x = store.x[slot];
+        float y = store.y[slot];
+        float width = store.width[slot];
+        float height = store.height[slot];
+        store.prevX[slot] = x;
+        store.prevY[slot] = y;
+        float dx = 0;
+        float dy = 0;
+        store.timer[slot] += delta;
+
+        // The tile the centre of the enemy is on
+        int tileX = (int) Math.floor((x + width / 2) / MazeGrid.TILE_SIZE);
+        int tileY = (int) Math.floor((y + height / 2) / MazeGrid.TILE_SIZE);
+        int step = behaviour.nextStep(this, tileX, tileY);
+        if (step >= 0) {
+            // Walk towards the next tile, but line up with the current row or column first so corners are not cut into walls
+            store.direction[slot] = (byte) step;
+            float distanceLeft = SPEED * delta;
+            float toX = (tileX + FlowField.getStepX(step)) * MazeGrid.TILE_SIZE - x;
+            float toY = (tileY + FlowField.getStepY(step)) * MazeGrid.TILE_SIZE - y;
+            if (FlowField.getStepX(step) != 0) {
+                dy = MathUtils.clamp(toY, -distanceLeft, distanceLeft);
+                distanceLeft -= Math.abs(dy);
+                dx = MathUtils.clamp(toX, -distanceLeft, distanceLeft);
+            } else {
+                dx = MathUtils.clamp(toX, -distanceLeft, distanceLeft);
+                distanceLeft -= Math.abs(dx);
+                dy = MathUtils.clamp(toY, -distanceLeft, distanceLeft);
+            }
+        } else {
+            if (store.timer[slot] >= store.cooldown[slot]) {
+                store.direction[slot] = (byte) random.nextInt(4); // 0: Up, 1: Down, 2: Left, 3: Right
+                store.timer[slot] = 0f; // Direction changed, reset the time
+            }
+            switch (store.direction[slot]) {
+                case 0:
+                    dy = SPEED * delta;
+                    break;
+                case 1:
+                    dy = -SPEED * delta;
+                    break;
+                case 2:
+                    dx = -SPEED * delta;
+                    break;
+                case 3:
+                    dx = SPEED * delta;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        x += collisionGrid.sweepX(x, y, width, height, dx, CollisionGrid.SOLID | CollisionGrid.EXIT);
+        y += collisionGrid.sweepY(x, y, width, height, dy, CollisionGrid.SOLID | CollisionGrid.EXIT);
+
+        // Check if the enemy is out of the maze and adjust its position if necessary
+        float maxX = collisionGrid.getWidth() * MazeGrid.TILE_SIZE - width;
+        float maxY = collisionGrid.getHeight() * MazeGrid.TILE_SIZE - height;
+        store.x[slot] = MathUtils.clamp(x, 0, maxX);
+        store.y[slot] = MathUtils.clamp(y, 0, maxY);
+    }
+
+    /**
+     * Generates a random cooldown time between the minimum and maximum values.
+     *
+     * @return A random cooldown time.
+     */
+    private float getRandomCooldown() {
+        return MIN_COOLDOWN + random.nextFloat() * (MAX_COOLDOWN - MIN_COOLDOWN);
+    }
+
+    /**
+     * Gets the handle of the enemy in its store.
+     *
+     * @return The handle of the enemy.
+     */
+    public int getHandle() {
+        return handle;
+    }
+
+    /**
+     * Gets the width of the enemy.
+     *
+     * @return The width of the enemy.
+     */
+    public float getWidth() {
+        return store.width[store.getSlot(handle)];
+    }
+
+    /**
+     * Gets the height of the enemy.
+     *
+     * @return The height of the enemy.
+     */
+    public float getHeight() {
+        return store.height[store.getSlot(handle)];
+    }
+
+    /**
+     * Gets the bounding box of the enemy. The same rectangle is returned every time, set to the current bounds.
+     *
+     * @return The bounding box of the enemy.
+     */
+    public Rectangle getBoundingBox() {
+        if (boundingBox == null) {
+            boundingBox = new Rectangle();
+        }
+        return store.getBounds(store.getSlot(handle), boundingBox);
+    }
+
+    /**
+     * Checks if the enemy is activated.
+     *
+     * @return True if the enemy is activated, false otherwise.
+     */
+    public boolean isActivated() {
+        return store.hasFlag(store.getSlot(handle), EntityStore.ACTIVATED);
+    }
+
+    /**
+     * Sets the activation status of the enemy.
+     *
+     * @param activated The new activation status.
+     */
+    public void setActivated(boolean activated) {
+        store.setFlag(store.getSlot(handle), EntityStore.ACTIVATED, activated);
+    }
+
+    /**
+     * Gets the behaviour that decides where the enemy walks.
+     *
+     * @return The behaviour of the enemy.
+     */
+    public EnemyBehaviour getBehaviour() {
+        return behaviour;
+    }
+
+    /**
+     * Sets the behaviour that decides where the enemy walks.
+     *
+     * @param behaviour The new behaviour.
+     */
+    public void setBehaviour(EnemyBehaviour behaviour) {
+        this.behaviour = behaviour;
+    }
+
+    /**
+     * Gets the x-coordinate of the enemy.
+     *
+     * @return The x-coordinate in world units.
+     */
+    public float getX() {
+        return store.x[store.getSlot(handle)];
+    }
+
+    /**
+     * Gets the y-coordinate of the enemy.
+     *
+     * @return The y-coordinate in world units.
+     */
+    public float getY() {
+        return store.y[store.getSlot(handle)];
+    }
+
+    /**
+     * Gets the position of the enemy. The same vector is returned every time, set to the current position.
+     *
+     * @return The position of the enemy.
+     */
+    public Vector2 getPosition() {
+        if (position == null) {
+            position = new Vector2();
+        }
+        int slot = store.getSlot(handle);
+        return position.set(store.x[slot], store.y[slot]);
+    }
+
+    /**
+     * Checks if the enemy collides with a character.
+     *
+     * @param character The character to check for collision.
+     * @return True if the enemy collides with the character, false otherwise.
+     */
+    public boolean collidesWith(Character character) {
+        return getBoundingBox().overlaps(character.getBoundingBox());
+    }
+
+    /**
+     * Sets the position of the enemy.
+     *
+     * @param newPosition The new position of the enemy.
+     */
+    public void setPosition(Vector2 newPosition) {
+        int slot = store.getSlot(handle);
+        store.x[slot] = newPosition.x;
+        store.y[slot] = newPosition.y;
+    }
+
+    /**
+     * Gets the previous position of the enemy. The same vector is returned every time, set to the previous position.
+     *
+     * @return The previous position of the enemy.
+     */
+    public Vector2 getPreviousPosition() {
+        if (previousPosition == null) {
+            previousPosition = new Vector2();
+        }
+        int slot = store.getSlot(handle);
+        return previousPosition.set(store.prevX[slot], store.prevY[slot]);
+    }
+}
@@ -0,0 +1,33 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The EnemyBehaviour interface decides where an enemy walks. The enemy asks its behaviour for the
+ * direction of its next step every update and takes care of the movement itself.
+ */
+public interface EnemyBehaviour {
+
+    /** Walks around randomly. */
+    EnemyBehaviour WANDER = (enemy, tileX, tileY) -> -1;
+
+    /**
+     * Chooses the direction of the next step of an enemy.
+     *
+     * @param enemy The enemy.
+     * @param tileX The x-coordinate of the tile the centre of the enemy is on.
+     * @param tileY The y-coordinate of the tile the centre of the enemy is on.
+     * @return One of {@link FlowField#UP}, {@link FlowField#DOWN}, {@link FlowField#LEFT} and {@link FlowField#RIGHT}
+     *         to walk to the neighbouring tile in that direction, or -1 to walk around randomly.
+     */
+    int nextStep(Enemy enemy, int tileX, int tileY);
+
+    /**
+     * Checks if enemies with this behaviour can be updated on several threads at once.
+     * Behaviours that use a service whose answers depend on the order of requests, like the {@link Pathfinder}
+     * with its cache and budget, must be updated one enemy after the other.
+     *
+     * @return True if the behaviour only reads shared state, false otherwise.
+     */
+    default boolean isParallelSafe() {
+        return true;
+    }
+}
@@ -0,0 +1,138 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * The EnemyLod class decides how often each enemy is updated, depending on how far it is from the character
+ * and the camera. Enemies nearby are updated every step, enemies further away only every few steps with the
+ * time they missed added up, and enemies far away are asleep and not updated at all.
+ * Enemies of the same tier are spread evenly over the steps, so the work per step stays the same.
+ */
+public class EnemyLod {
+
+    /** Enemies updated every step. */
+    public static final int NEAR = 0;
+    /** Enemies updated every few steps. */
+    public static final int MID = 1;
+    /** Enemies updated rarely, with large steps. */
+    public static final int FAR = 2;
+    /** Enemies not updated at all. */
+    public static final int ASLEEP = 3;
+    /** The number of tiers. */
+    public static final int TIERS = 4;
+
+    private final float nearDistance2;
+    private final float midDistance2;
+    private final float farDistance2;
+    private final int midInterval;
+    private final int farInterval;
+    /** The time each enemy has missed since its last update, by index. */
+    private final FloatArray missedTime = new FloatArray();
+    private final int[] tierCounts = new int[TIERS];
+    private int updates;
+    private int step;
+
+    /**
+     * Constructs an EnemyLod.
+     *
+     * @param nearDistance The distance in tiles up to which enemies are updated every step.
+     * @param midDistance  The distance in tiles up to which enemies are updated every {@code midInterval} steps.
+     * @param farDistance  The distance in tiles up to which enemies are updated every {@code farInterval} steps.
+     *                     Enemies further away are asleep.
+     * @param midInterval  How many steps apart the enemies at mid range are updated.
+     * @param farInterval  How many steps apart the enemies far away are updated.
+     */
+    public EnemyLod(float nearDistance, float midDistance, float farDistance, int midInterval, int farInterval) {
+        this.nearDistance2 = square(nearDistance * MazeGrid.TILE_SIZE);
+        this.midDistance2 = square(midDistance * MazeGrid.TILE_SIZE);
+        this.farDistance2 = square(farDistance * MazeGrid.TILE_SIZE);
+        this.midInterval = midInterval;
+        this.farInterval = farInterval;
+    }
+
+    /**
+     * Starts a new step of the game logic. The tier counts of the last step are reset.
+     */
+    public void beginStep() {
+        step++;
+        for (int tier = 0; tier < TIERS; tier++) {
+            tierCounts[tier] = 0;
+        }
+        updates = 0;
+    }
+
+    /**
+     * Finds the tier of an enemy and how much time it should be updated with in this step.
+     *
+     * @param index    The index of the enemy. Every enemy must always be given the same index.
+     * @param enemyX   The x-coordinate of the enemy in world units.
+     * @param enemyY   The y-coordinate of the enemy in world units.
+     * @param focusX   The x-coordinate of the character in world units.
+     * @param focusY   The y-coordinate of the character in world units.
+     * @param cameraX  The x-coordinate of the camera in world units.
+     * @param cameraY  The y-coordinate of the camera in world units.
+     * @param delta    The length of the step in seconds.
+     * @return The time to update the enemy with, including the steps it missed, or 0 if it is not updated in this step.
+     */
+    public float advance(int index, float enemyX, float enemyY, float focusX, float focusY,
+                         float cameraX, float cameraY, float delta) {
+        if (index >= missedTime.size) {
+            missedTime.setSize(index + 1);
+        }
+        float distance2 = Math.min(Vector2.dst2(enemyX, enemyY, focusX, focusY), Vector2.dst2(enemyX, enemyY, cameraX, cameraY));
+        int tier = getTier(distance2);
+        tierCounts[tier]++;
+        if (tier == ASLEEP) {
+            // Sleeping enemies do not catch up on the time they slept
+            missedTime.set(index, 0);
+            return 0;
+        }
+        float time = missedTime.get(index) + delta;
+        int interval = tier == NEAR ? 1 : tier == MID ? midInterval : farInterval;
+        // The index spreads the enemies of a tier over the steps of its interval
+        if ((step + index) % interval != 0) {
+            missedTime.set(index, time);
+            return 0;
+        }
+        missedTime.set(index, 0);
+        updates++;
+        return time;
+    }
+
+    /**
+     * Gets the number of enemies in a tier during the last step.
+     *
+     * @param tier One of {@link #NEAR}, {@link #MID}, {@link #FAR} and {@link #ASLEEP}.
+     * @return The number of enemies.
+     */
+    public int getTierCount(int tier) {
+        return tierCounts[tier];
+    }
+
+    /**
+     * Gets the number of enemies updated during the last step.
+     *
+     * @return The number of updates.
+     */
+    public int getUpdates() {
+        return updates;
+    }
+
+    private int getTier(float distance2) {
+        if (distance2 <= nearDistance2) {
+            return NEAR;
+        }
+        if (distance2 <= midDistance2) {
+            return MID;
+        }
+        if (distance2 <= farDistance2) {
+            return FAR;
+        }
+        return ASLEEP;
+    }
+
+    private static float square(float value) {
+        return value * value;
+    }
+}
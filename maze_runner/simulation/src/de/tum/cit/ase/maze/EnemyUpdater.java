@@ -0,0 +1,167 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The EnemyUpdater class runs the update of all enemies for one step, either on the render thread or spread over
+ * a fork/join pool. An enemy update (choosing a direction, moving and sliding along walls) only reads the tiles
+ * and the flow field and only changes the enemy itself, so the enemies can be split into chunks that run on
+ * any thread in any order. Every enemy has its own random numbers, so the result is the same for every number of
+ * threads. Enemies whose behaviour uses order dependent services are always updated on the render thread,
+ * in the order of the enemies.
+ */
+public class EnemyUpdater implements Disposable {
+
+    /** The number of enemies updated by one task. */
+    private static final int CHUNK_SIZE = 64;
+
+    private final int parallelism;
+    private ForkJoinPool pool;
+    private boolean parallel;
+
+    // Tasks and views are kept between steps, so a step does not create any objects
+    private final ArrayList<Chunk> chunks = new ArrayList<>();
+    private final Array<Chunk> chunkPool = new Array<>();
+    private final RunChunks runChunks = new RunChunks();
+    private final IntArray parallelEnemies = new IntArray();
+    private Array<Enemy> enemies;
+    private FloatArray times;
+    private int parallelUpdates;
+
+    /**
+     * Constructs an EnemyUpdater. No threads are started until the first parallel update.
+     *
+     * @param parallelism The number of threads used in parallel mode.
+     */
+    public EnemyUpdater(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Switches between updating all enemies on the render thread and updating them in parallel.
+     *
+     * @param parallel True for parallel updates, false for single-threaded ones.
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Checks if the enemies are updated in parallel.
+     *
+     * @return True in parallel mode, false in single-threaded mode.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Updates the enemies.
+     *
+     * @param enemies       The enemies.
+     * @param times         The time to update each enemy with, by index; 0 to leave an enemy alone.
+     * @param collisionGrid The walls and exits the enemies cannot move through. Its tiles must not change meanwhile.
+     */
+    public void update(Array<Enemy> enemies, FloatArray times, CollisionGrid collisionGrid) {
+        parallelEnemies.clear();
+        for (int i = 0; i < enemies.size; i++) {
+            float time = times.get(i);
+            if (time <= 0) {
+                continue;
+            }
+            Enemy enemy = enemies.get(i);
+            if (parallel && enemy.getBehaviour().isParallelSafe()) {
+                parallelEnemies.add(i);
+            } else {
+                enemy.update(time, collisionGrid);
+            }
+        }
+        parallelUpdates = parallelEnemies.size;
+        if (parallelEnemies.size == 0) {
+            return;
+        }
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        this.enemies = enemies;
+        this.times = times;
+        chunks.clear();
+        for (int from = 0, index = 0; from < parallelEnemies.size; from += CHUNK_SIZE, index++) {
+            if (index == chunkPool.size) {
+                chunkPool.add(new Chunk(collisionGrid.createView()));
+            }
+            Chunk chunk = chunkPool.get(index);
+            chunk.reinitialize();
+            chunk.from = from;
+            chunk.to = Math.min(from + CHUNK_SIZE, parallelEnemies.size);
+            chunks.add(chunk);
+        }
+        runChunks.reinitialize();
+        pool.invoke(runChunks);
+        // Merge the counters of the threads back on the render thread
+        for (int i = 0; i < chunks.size(); i++) {
+            collisionGrid.addStats(chunks.get(i).collisionGrid);
+        }
+        this.enemies = null;
+        this.times = null;
+    }
+
+    /**
+     * Gets the number of enemies updated in parallel during the last update.
+     *
+     * @return The number of enemies.
+     */
+    public int getParallelUpdates() {
+        return parallelUpdates;
+    }
+
+    @Override
+    public void dispose() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * The RunChunks class is the root task: it runs all chunks and waits for them.
+     */
+    private class RunChunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            invokeAll(chunks);
+        }
+    }
+
+    /**
+     * The Chunk class updates a range of the enemies that run in parallel, with its own view of the collision grid.
+     */
+    private class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CollisionGrid collisionGrid;
+        private int from;
+        private int to;
+
+        private Chunk(CollisionGrid collisionGrid) {
+            this.collisionGrid = collisionGrid;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = from; i < to; i++) {
+                int index = parallelEnemies.get(i);
+                enemies.get(index).update(times.get(index), collisionGrid);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * The EntityStore class keeps the data of many entities of one kind, like enemies, traps or keys, in plain arrays
+ * with one column per value instead of one object per entity. Loops over all entities then read the values they
+ * need one after the other in memory, and a thousand entities take up a few arrays instead of thousands of objects.
+ * <p>
+ * The entities are kept densely in the slots {@code 0} to {@code size() - 1}. Removing an entity moves the last one
+ * into its slot, so slots change; every entity also has a handle that stays the same for as long as it exists.
+ * Every entity has a view, like an {@link Enemy}, that finds its data through its handle.
+ * <p>
+ * The columns are read and written directly by the views and by update loops. They are replaced by larger arrays
+ * when the store grows, so they must not be kept across calls to {@link #add}.
+ *
+ * @param <T> The type of the views.
+ */
+public class EntityStore<T> {
+
+    /** The flag of entities that were activated, like a trap that hurt the character or a collected key. */
+    public static final byte ACTIVATED = 1;
+    /** The flag of entities that moved on their own in the last step, like a walking character. */
+    public static final byte MOVING = 2;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The position of each entity in world units, by slot. */
+    float[] x = new float[INITIAL_CAPACITY];
+    float[] y = new float[INITIAL_CAPACITY];
+    /** The position of each entity before its last update, by slot. */
+    float[] prevX = new float[INITIAL_CAPACITY];
+    float[] prevY = new float[INITIAL_CAPACITY];
+    /** The size of the bounds of each entity in world units, by slot. */
+    float[] width = new float[INITIAL_CAPACITY];
+    float[] height = new float[INITIAL_CAPACITY];
+    /** Time in seconds each entity counts up, and how long until it acts again, by slot. */
+    float[] timer = new float[INITIAL_CAPACITY];
+    float[] cooldown = new float[INITIAL_CAPACITY];
+    /** The direction each entity faces or walks in, by slot. */
+    byte[] direction = new byte[INITIAL_CAPACITY];
+    /** A small number each kind of entity uses for itself, like the health of an enemy, by slot. */
+    byte[] state = new byte[INITIAL_CAPACITY];
+    /** Flags like {@link #ACTIVATED}, by slot. */
+    byte[] flags = new byte[INITIAL_CAPACITY];
+
+    /** The views by slot. Unordered, so removing an entity moves the last view into its slot like the columns. */
+    private final Array<T> views = new Array<>(false, INITIAL_CAPACITY);
+    private int[] handleOfSlot = new int[INITIAL_CAPACITY];
+    private int[] slotOfHandle = new int[INITIAL_CAPACITY];
+    private final IntArray freeHandles = new IntArray();
+    private int handleCount;
+    private int changes;
+
+    /**
+     * Adds an entity. Its direction, state, flags and timers start at 0.
+     *
+     * @param view   The view of the entity.
+     * @param x      The x-coordinate of the entity in world units.
+     * @param y      The y-coordinate of the entity in world units.
+     * @param width  The width of the bounds of the entity.
+     * @param height The height of the bounds of the entity.
+     * @return The handle of the entity.
+     */
+    public int add(T view, float x, float y, float width, float height) {
+        int slot = views.size;
+        if (slot == this.x.length) {
+            grow(slot * 2);
+        }
+        int handle;
+        if (freeHandles.size > 0) {
+            handle = freeHandles.pop();
+        } else {
+            handle = handleCount++;
+            if (handle == slotOfHandle.length) {
+                slotOfHandle = Arrays.copyOf(slotOfHandle, handle * 2);
+            }
+        }
+        views.add(view);
+        handleOfSlot[slot] = handle;
+        slotOfHandle[handle] = slot;
+        this.x[slot] = x;
+        this.y[slot] = y;
+        prevX[slot] = x;
+        prevY[slot] = y;
+        this.width[slot] = width;
+        this.height[slot] = height;
+        timer[slot] = 0;
+        cooldown[slot] = 0;
+        direction[slot] = 0;
+        state[slot] = 0;
+        flags[slot] = 0;
+        changes++;
+        return handle;
+    }
+
+    /**
+     * Removes an entity. The last entity is moved into its slot, and its handle may be given to a later entity.
+     *
+     * @param handle The handle of the entity.
+     */
+    public void remove(int handle) {
+        int slot = slotOfHandle[handle];
+        int last = views.size - 1;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            prevX[slot] = prevX[last];
+            prevY[slot] = prevY[last];
+            width[slot] = width[last];
+            height[slot] = height[last];
+            timer[slot] = timer[last];
+            cooldown[slot] = cooldown[last];
+            direction[slot] = direction[last];
+            state[slot] = state[last];
+            flags[slot] = flags[last];
+            handleOfSlot[slot] = handleOfSlot[last];
+            slotOfHandle[handleOfSlot[slot]] = slot;
+        }
+        views.removeIndex(slot);
+        slotOfHandle[handle] = -1;
+        freeHandles.add(handle);
+        changes++;
+    }
+
+    /**
+     * Gets the number of entities.
+     *
+     * @return The number of entities.
+     */
+    public int size() {
+        return views.size;
+    }
+
+    /**
+     * Gets the number of entities added and removed so far. While it stays the same, every slot holds the same entity.
+     *
+     * @return The number of changes.
+     */
+    public int getChanges() {
+        return changes;
+    }
+
+    /**
+     * Gets the slot an entity is in at the moment.
+     *
+     * @param handle The handle of the entity.
+     * @return The slot of the entity.
+     */
+    public int getSlot(int handle) {
+        return slotOfHandle[handle];
+    }
+
+    /**
+     * Gets the handle of the entity in a slot.
+     *
+     * @param slot The slot.
+     * @return The handle of the entity.
+     */
+    public int getHandle(int slot) {
+        return handleOfSlot[slot];
+    }
+
+    /**
+     * Gets the views of all entities, in the order of their slots. The array must not be changed.
+     *
+     * @return The views.
+     */
+    public Array<T> getViews() {
+        return views;
+    }
+
+    /**
+     * Gets the x-coordinate of the entity in a slot.
+     *
+     * @param slot The slot.
+     * @return The x-coordinate in world units.
+     */
+    public float getX(int slot) {
+        return x[slot];
+    }
+
+    /**
+     * Gets the y-coordinate of the entity in a slot.
+     *
+     * @param slot The slot.
+     * @return The y-coordinate in world units.
+     */
+    public float getY(int slot) {
+        return y[slot];
+    }
+
+    /**
+     * Gets the x-coordinate of the entity in a slot before its last update.
+     *
+     * @param slot The slot.
+     * @return The previous x-coordinate in world units.
+     */
+    public float getPrevX(int slot) {
+        return prevX[slot];
+    }
+
+    /**
+     * Gets the y-coordinate of the entity in a slot before its last update.
+     *
+     * @param slot The slot.
+     * @return The previous y-coordinate in world units.
+     */
+    public float getPrevY(int slot) {
+        return prevY[slot];
+    }
+
+    /**
+     * Copies the bounds of the entity in a slot into a rectangle.
+     *
+     * @param slot   The slot.
+     * @param bounds The rectangle to set.
+     * @return The given rectangle.
+     */
+    public Rectangle getBounds(int slot, Rectangle bounds) {
+        return bounds.set(x[slot], y[slot], width[slot], height[slot]);
+    }
+
+    /**
+     * Checks if the entity in a slot has a flag.
+     *
+     * @param slot The slot.
+     * @param flag The flag, for example {@link #ACTIVATED}.
+     * @return True if the flag is set, false otherwise.
+     */
+    public boolean hasFlag(int slot, byte flag) {
+        return (flags[slot] & flag) != 0;
+    }
+
+    /**
+     * Sets or clears a flag of the entity in a slot.
+     *
+     * @param slot  The slot.
+     * @param flag  The flag, for example {@link #ACTIVATED}.
+     * @param value True to set the flag, false to clear it.
+     */
+    public void setFlag(int slot, byte flag, boolean value) {
+        flags[slot] = (byte) (value ? flags[slot] | flag : flags[slot] & ~flag);
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        timer = Arrays.copyOf(timer, capacity);
+        cooldown = Arrays.copyOf(cooldown, capacity);
+        direction = Arrays.copyOf(direction, capacity);
+        state = Arrays.copyOf(state, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        handleOfSlot = Arrays.copyOf(handleOfSlot, capacity);
+    }
+}
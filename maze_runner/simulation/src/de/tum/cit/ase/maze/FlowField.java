@@ -0,0 +1,197 @@
+package de.tum.cit.ase.maze;
+
+import java.util.Arrays;
+
+/**
+ * The FlowField class holds the walking distance from every tile around a target tile to the target,
+ * found by one breadth-first search over the maze. Any number of enemies can then look up their next
+ * step towards the target in constant time, instead of searching a path each.
+ * The search covers a square window around the target, so its cost does not grow with the size of the maze.
+ * It is only run again when the target moves to another tile.
+ */
+public class FlowField {
+
+    /** The distance of tiles that cannot reach the target or lie outside the window. */
+    public static final int UNREACHABLE = -1;
+
+    // Directions, in the same order enemies use for walking
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+
+    private static final int[] STEP_X = {0, 0, -1, 1};
+    private static final int[] STEP_Y = {1, -1, 0, 0};
+
+    private final CollisionGrid collisionGrid;
+    private final int blockingFlags;
+    private final int radius;
+    private final int[] distances;
+    private final int[] queue;
+    private int originX;
+    private int originY;
+    private int windowWidth;
+    private int windowHeight;
+    private int targetX = Integer.MIN_VALUE;
+    private int targetY = Integer.MIN_VALUE;
+    private int refreshes;
+
+    /**
+     * Constructs a FlowField.
+     *
+     * @param collisionGrid The walls of the maze.
+     * @param blockingFlags The collision flags of the cells that cannot be walked through.
+     * @param radius        How far the search reaches from the target, in tiles.
+     */
+    public FlowField(CollisionGrid collisionGrid, int blockingFlags, int radius) {
+        this.collisionGrid = collisionGrid;
+        this.blockingFlags = blockingFlags;
+        this.radius = radius;
+        int size = 2 * radius + 1;
+        this.distances = new int[size * size];
+        this.queue = new int[size * size];
+    }
+
+    /**
+     * Moves the target of the field. The distances are only searched again if the target changed tiles.
+     *
+     * @param tileX The x-coordinate of the target in tiles.
+     * @param tileY The y-coordinate of the target in tiles.
+     * @return True if the distances were searched again, false if the target is still on the same tile.
+     */
+    public boolean setTarget(int tileX, int tileY) {
+        if (tileX == targetX && tileY == targetY) {
+            return false;
+        }
+        targetX = tileX;
+        targetY = tileY;
+        originX = Math.max(0, tileX - radius);
+        originY = Math.max(0, tileY - radius);
+        windowWidth = Math.min(collisionGrid.getWidth(), tileX + radius + 1) - originX;
+        windowHeight = Math.min(collisionGrid.getHeight(), tileY + radius + 1) - originY;
+        search();
+        refreshes++;
+        return true;
+    }
+
+    /**
+     * Runs the breadth-first search from the target over the window.
+     */
+    private void search() {
+        int cells = Math.max(0, windowWidth) * Math.max(0, windowHeight);
+        Arrays.fill(distances, 0, cells, UNREACHABLE);
+        if (!contains(targetX, targetY)) {
+            return;
+        }
+        int head = 0;
+        int tail = 0;
+        int start = (targetY - originY) * windowWidth + (targetX - originX);
+        distances[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int index = queue[head++];
+            int x = index % windowWidth;
+            int y = index / windowWidth;
+            int distance = distances[index] + 1;
+            for (int direction = 0; direction < 4; direction++) {
+                int nextX = x + STEP_X[direction];
+                int nextY = y + STEP_Y[direction];
+                if (nextX < 0 || nextY < 0 || nextX >= windowWidth || nextY >= windowHeight) {
+                    continue;
+                }
+                int next = nextY * windowWidth + nextX;
+                if (distances[next] == UNREACHABLE && !isBlocked(originX + nextX, originY + nextY)) {
+                    distances[next] = distance;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the search cannot walk onto a tile. Subclasses can block more tiles than the blocking flags do.
+     *
+     * @param tileX The x-coordinate in tiles.
+     * @param tileY The y-coordinate in tiles.
+     * @return True if the tile has one of the blocking flags.
+     */
+    protected boolean isBlocked(int tileX, int tileY) {
+        return (collisionGrid.getFlags(tileX, tileY) & blockingFlags) != 0;
+    }
+
+    /**
+     * Gets the walking distance from a tile to the target.
+     *
+     * @param tileX The x-coordinate in tiles.
+     * @param tileY The y-coordinate in tiles.
+     * @return The distance in tiles, or {@link #UNREACHABLE}.
+     */
+    public int getDistance(int tileX, int tileY) {
+        if (!contains(tileX, tileY)) {
+            return UNREACHABLE;
+        }
+        return distances[(tileY - originY) * windowWidth + (tileX - originX)];
+    }
+
+    /**
+     * Finds the direction of the next step from a tile towards the target.
+     *
+     * @param tileX The x-coordinate in tiles.
+     * @param tileY The y-coordinate in tiles.
+     * @return One of {@link #UP}, {@link #DOWN}, {@link #LEFT} and {@link #RIGHT},
+     *         or -1 if the tile is the target or cannot reach it.
+     */
+    public int getNextStep(int tileX, int tileY) {
+        int distance = getDistance(tileX, tileY);
+        if (distance <= 0) {
+            return -1;
+        }
+        for (int direction = 0; direction < 4; direction++) {
+            int next = getDistance(tileX + STEP_X[direction], tileY + STEP_Y[direction]);
+            if (next != UNREACHABLE && next < distance) {
+                return direction;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the x-offset of a step in the given direction.
+     *
+     * @param direction One of the direction constants.
+     * @return -1, 0 or 1.
+     */
+    public static int getStepX(int direction) {
+        return STEP_X[direction];
+    }
+
+    /**
+     * Gets the y-offset of a step in the given direction.
+     *
+     * @param direction One of the direction constants.
+     * @return -1, 0 or 1.
+     */
+    public static int getStepY(int direction) {
+        return STEP_Y[direction];
+    }
+
+    /**
+     * Gets the number of times the distances were searched since the last call to {@link #resetStats()}.
+     *
+     * @return The number of searches.
+     */
+    public int getRefreshes() {
+        return refreshes;
+    }
+
+    /**
+     * Resets the number of searches.
+     */
+    public void resetStats() {
+        refreshes = 0;
+    }
+
+    private boolean contains(int tileX, int tileY) {
+        return tileX >= originX && tileY >= originY && tileX < originX + windowWidth && tileY < originY + windowHeight;
+    }
+}
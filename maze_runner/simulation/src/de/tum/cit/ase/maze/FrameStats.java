@@ -0,0 +1,152 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * The FrameStats class collects counters about the last rendered frame, shown in the HUD when debug output is on.
+ */
+public class FrameStats {
+
+    /** Fixed steps of the game logic run during the frame. */
+    public int simulationSteps;
+
+    /** Draw calls issued by the sprite batch while drawing the maze and its objects. */
+    public int drawCalls;
+
+    /** Blocks of static tiles drawn from their cached textures. */
+    public int staticBlocksDrawn;
+
+    /** Blocks of static tiles that had to be drawn into their textures again. */
+    public int staticBlocksBuilt;
+
+    /** Blocks of static tiles outside of the camera's view. */
+    public int staticBlocksCulled;
+
+    /** Characters, enemies, traps and keys drawn. */
+    public int objectsDrawn;
+
+    /** Characters, enemies, traps and keys near the camera's view that were skipped because they are outside of it. */
+    public int objectsCulled;
+
+    /** Grid cells looked at by collision checks against walls and exits. */
+    public int collisionCellsTested;
+
+    /** Enemies, traps and keys tested by broadphase queries, for drawing and for collisions. */
+    public int broadphaseCandidates;
+
+    /** Traps and enemies touching the character, summed over the steps of the frame. */
+    public int broadphasePairs;
+
+    /** Searches of the flow field enemies use to chase the character. */
+    public int flowFieldRefreshes;
+
+    /** Enemies updated every step, during the last step of the frame. */
+    public int enemiesNear;
+
+    /** Enemies updated every few steps, during the last step of the frame. */
+    public int enemiesMid;
+
+    /** Enemies updated rarely, during the last step of the frame. */
+    public int enemiesFar;
+
+    /** Enemies asleep, during the last step of the frame. */
+    public int enemiesAsleep;
+
+    /** Enemy updates, summed over the steps of the frame. */
+    public int enemyUpdates;
+
+    /** Enemy updates run in parallel, summed over the steps of the frame. */
+    public int parallelEnemyUpdates;
+
+    /** Path searches run for patrolling and guarding enemies. */
+    public int pathSearches;
+
+    /** Path requests answered from the path cache. */
+    public int pathCacheHits;
+
+    /** Nodes expanded by path searches. */
+    public int pathNodesExpanded;
+
+    /** Path requests put off to a later frame because the search budget was used up. */
+    public int pathRequestsDeferred;
+
+    /** Time in nanoseconds spent taking snapshots for rewinding, summed over the steps of the frame. */
+    public long rewindNanos;
+
+    /** Steps the game can be turned back by at the end of the frame. */
+    public int rewindSteps;
+
+    /** The systems whose running times are shown. Their times are reset by whoever runs them. */
+    public final Array<TimedSystem> systems = new Array<>();
+
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * Resets the counters at the start of a frame.
+     */
+    public void reset() {
+        simulationSteps = 0;
+        drawCalls = 0;
+        staticBlocksDrawn = 0;
+        staticBlocksBuilt = 0;
+        staticBlocksCulled = 0;
+        objectsDrawn = 0;
+        objectsCulled = 0;
+        collisionCellsTested = 0;
+        broadphaseCandidates = 0;
+        broadphasePairs = 0;
+        flowFieldRefreshes = 0;
+        enemiesNear = 0;
+        enemiesMid = 0;
+        enemiesFar = 0;
+        enemiesAsleep = 0;
+        enemyUpdates = 0;
+        parallelEnemyUpdates = 0;
+        pathSearches = 0;
+        pathCacheHits = 0;
+        pathNodesExpanded = 0;
+        pathRequestsDeferred = 0;
+        rewindNanos = 0;
+        rewindSteps = 0;
+    }
+
+    /**
+     * Describes the counters. The returned text is reused by the next call, so describing takes no new memory.
+     *
+     * @param framesPerSecond The current frame rate.
+     * @return The description of the counters.
+     */
+    public CharSequence describe(int framesPerSecond) {
+        text.setLength(0);
+        text.append("FPS ").append(framesPerSecond)
+                .append("  steps ").append(simulationSteps)
+                .append("  draw calls ").append(drawCalls)
+                .append("  static blocks ").append(staticBlocksDrawn)
+                .append(" (rebuilt ").append(staticBlocksBuilt)
+                .append(", culled ").append(staticBlocksCulled).append(')')
+                .append("  objects ").append(objectsDrawn)
+                .append(" (culled ").append(objectsCulled).append(')')
+                .append("\ncollision cells ").append(collisionCellsTested)
+                .append("  broadphase candidates ").append(broadphaseCandidates)
+                .append("  pairs ").append(broadphasePairs)
+                .append("  flow field searches ").append(flowFieldRefreshes)
+                .append("\nenemies near ").append(enemiesNear)
+                .append(", mid ").append(enemiesMid)
+                .append(", far ").append(enemiesFar)
+                .append(", asleep ").append(enemiesAsleep)
+                .append("  enemy updates ").append(enemyUpdates)
+                .append(" (parallel ").append(parallelEnemyUpdates).append(')')
+                .append("  path searches ").append(pathSearches)
+                .append(" (nodes ").append(pathNodesExpanded)
+                .append(", cached ").append(pathCacheHits)
+                .append(", deferred ").append(pathRequestsDeferred).append(')')
+                .append("  rewind ").append(rewindNanos / 1000).append(" us (").append(rewindSteps).append(" steps)");
+        text.append("\nsystems");
+        for (int i = 0; i < systems.size; i++) {
+            TimedSystem system = systems.get(i);
+            text.append("  ").append(system.getName()).append(' ').append(system.getNanos() / 1000).append(" us");
+        }
+        return text;
+    }
+}
@@ -0,0 +1,33 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The GuardBehaviour class makes an enemy stay at a post, such as an exit or a key.
+ * When the player comes close it chases them, and when they get away it walks back to its post.
+ * Every enemy needs its own instance.
+ */
+public class GuardBehaviour extends PatrolBehaviour {
+
+    private final ChaseBehaviour chase;
+
+    /**
+     * Constructs a GuardBehaviour.
+     *
+     * @param pathfinder The pathfinder to find the way back to the post.
+     * @param chase      The behaviour used while the player is close.
+     * @param postX      The x-coordinate of the post in tiles.
+     * @param postY      The y-coordinate of the post in tiles.
+     */
+    public GuardBehaviour(Pathfinder pathfinder, ChaseBehaviour chase, int postX, int postY) {
+        super(pathfinder, new int[] {postX}, new int[] {postY});
+        this.chase = chase;
+    }
+
+    @Override
+    public int nextStep(Enemy enemy, int tileX, int tileY) {
+        int step = chase.nextStep(enemy, tileX, tileY);
+        if (step >= 0) {
+            return step;
+        }
+        return super.nextStep(enemy, tileX, tileY);
+    }
+}
@@ -0,0 +1,24 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+
+/**
+ * The HealthComponent class holds the lives of an entity that can be hurt by triggers.
+ */
+public class HealthComponent implements Component {
+
+    public static final ComponentMapper<HealthComponent> MAPPER = ComponentMapper.getFor(HealthComponent.class);
+
+    /** The lives left. The entity dies when they reach 0. */
+    public int health;
+
+    /**
+     * Constructs a HealthComponent.
+     *
+     * @param health The lives to start with.
+     */
+    public HealthComponent(int health) {
+        this.health = health;
+    }
+}
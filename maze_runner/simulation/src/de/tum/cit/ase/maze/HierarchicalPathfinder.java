@@ -0,0 +1,562 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BinaryHeap;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.Arrays;
+
+/**
+ * The HierarchicalPathfinder class finds paths across huge mazes with HPA*. The maze is cut into square sectors.
+ * Where free tiles meet across the border of two sectors there is an entrance, and every entrance gets a node on
+ * both sides. Nodes of the same sector are linked by the length of the shortest path between them inside the sector.
+ * A search then only runs over this small graph of entrances, and the tiles between two of its nodes are filled in
+ * by a search inside one sector, when they are needed.
+ * The paths found are close to, but not always exactly, the shortest ones.
+ * Sectors are set up the first time a search reaches them, or all at once with {@link #buildAll()},
+ * and only the sectors around a changed tile are set up again.
+ */
+public class HierarchicalPathfinder implements TileMap.TileListener {
+
+    /** Entrances at least this wide get a node at both ends instead of one in the middle. */
+    private static final int WIDE_ENTRANCE = 6;
+    private static final int[] STEP_X = {0, 0, -1, 1};
+    private static final int[] STEP_Y = {1, -1, 0, 0};
+    private static final int UNREACHED = -1;
+
+    private final CollisionGrid collisionGrid;
+    private final int blockingFlags;
+    private final int sectorSize;
+    private final int sectorsX;
+    private final int sectorsY;
+    /** The sectors set up so far, so that huge streamed mazes only take memory for the sectors searches reached. */
+    private final IntMap<Sector> sectors = new IntMap<>();
+
+    // Searches inside one sector
+    private final int[] localDistances;
+    private final int[] localParents;
+    private final int[] localQueue;
+    private int localOriginX;
+    private int localOriginY;
+
+    // The search over the graph of entrances
+    private final BinaryHeap<Node> open = new BinaryHeap<>();
+    private final Array<Node> startNodes = new Array<>();
+    private final IntArray startCosts = new IntArray();
+    // The waypoints and tiles of the path being filled in, kept so that finding paths takes no new memory
+    private final IntArray waypoints = new IntArray();
+    private final IntArray tiles = new IntArray();
+    private int stamp;
+    private int nodesExpanded;
+    private int sectorsBuilt;
+
+    /**
+     * Constructs a HierarchicalPathfinder. No sector is set up yet.
+     *
+     * @param collisionGrid The walls of the maze.
+     * @param blockingFlags The collision flags of the cells that cannot be walked through.
+     * @param sectorSize    The width and height of a sector in tiles.
+     */
+    public HierarchicalPathfinder(CollisionGrid collisionGrid, int blockingFlags, int sectorSize) {
+        this.collisionGrid = collisionGrid;
+        this.blockingFlags = blockingFlags;
+        this.sectorSize = sectorSize;
+        this.sectorsX = (collisionGrid.getWidth() + sectorSize - 1) / sectorSize;
+        this.sectorsY = (collisionGrid.getHeight() + sectorSize - 1) / sectorSize;
+        this.localDistances = new int[sectorSize * sectorSize];
+        this.localParents = new int[sectorSize * sectorSize];
+        this.localQueue = new int[sectorSize * sectorSize];
+    }
+
+    /**
+     * Sets up every sector of the maze, so that no search has to do it later.
+     */
+    public void buildAll() {
+        for (int sectorY = 0; sectorY < sectorsY; sectorY++) {
+            for (int sectorX = 0; sectorX < sectorsX; sectorX++) {
+                prepareSector(sectorX, sectorY);
+            }
+        }
+    }
+
+    /**
+     * Finds a path between two tiles and fills in all of its tiles.
+     *
+     * @param startX The x-coordinate of the start in tiles.
+     * @param startY The y-coordinate of the start in tiles.
+     * @param goalX  The x-coordinate of the goal in tiles.
+     * @param goalY  The y-coordinate of the goal in tiles.
+     * @param path   The path to fill in. It is left as it was if the goal cannot be reached.
+     * @return True if a path was found, false if the goal cannot be reached.
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, Pathfinder.Path path) {
+        if (!findWaypoints(startX, startY, goalX, goalY, waypoints)) {
+            return false;
+        }
+        tiles.clear();
+        tiles.add(startX, startY);
+        for (int i = 0; i + 3 < waypoints.size; i += 2) {
+            refineSegment(waypoints.get(i), waypoints.get(i + 1), waypoints.get(i + 2), waypoints.get(i + 3), tiles);
+        }
+        path.setLength(tiles.size / 2);
+        for (int i = 0; i < tiles.size / 2; i++) {
+            path.set(i, tiles.get(2 * i), tiles.get(2 * i + 1));
+        }
+        return true;
+    }
+
+    /**
+     * Finds a path between two tiles over the graph of entrances, without filling in the tiles between them.
+     * Two waypoints after each other are either next to each other or in the same sector,
+     * so the tiles between them can be filled in with {@link #refineSegment} when they are needed.
+     *
+     * @param startX    The x-coordinate of the start in tiles.
+     * @param startY    The y-coordinate of the start in tiles.
+     * @param goalX     The x-coordinate of the goal in tiles.
+     * @param goalY     The y-coordinate of the goal in tiles.
+     * @param waypoints The array the waypoints are added to as pairs of x and y, from the start to the goal. It is cleared first.
+     * @return True if a path was found, false if the goal cannot be reached.
+     */
+    public boolean findWaypoints(int startX, int startY, int goalX, int goalY, IntArray waypoints) {
+        waypoints.clear();
+        if (isBlocked(startX, startY) || isBlocked(goalX, goalY)) {
+            return false;
+        }
+        stamp++;
+        Sector startSector = prepareSector(startX / sectorSize, startY / sectorSize);
+        Sector goalSector = prepareSector(goalX / sectorSize, goalY / sectorSize);
+
+        // The distances from the goal to the nodes of its sector end the search
+        searchLocally(goalSector, goalX, goalY);
+        for (int i = 0; i < goalSector.nodes.size; i++) {
+            Node node = goalSector.nodes.get(i);
+            node.goalStamp = stamp;
+            node.goalCost = localDistance(node.x, node.y);
+        }
+        // The start may reach the goal without leaving its sector
+        searchLocally(startSector, startX, startY);
+        int best = startSector == goalSector ? localDistance(goalX, goalY) : UNREACHED;
+        if (best == UNREACHED) {
+            best = Integer.MAX_VALUE;
+        }
+        Node bestNode = null;
+        startNodes.clear();
+        startCosts.clear();
+        for (int i = 0; i < startSector.nodes.size; i++) {
+            Node node = startSector.nodes.get(i);
+            int cost = localDistance(node.x, node.y);
+            if (cost != UNREACHED) {
+                startNodes.add(node);
+                startCosts.add(cost);
+            }
+        }
+
+        open.clear();
+        for (int i = 0; i < startNodes.size; i++) {
+            reach(startNodes.get(i), startCosts.get(i), null, goalX, goalY);
+        }
+        while (open.notEmpty()) {
+            Node node = open.pop();
+            if (node.getValue() >= best) {
+                break; // No node left in the open list can lead to a shorter path
+            }
+            node.closed = true;
+            nodesExpanded++;
+            if (node.goalStamp == stamp && node.goalCost != UNREACHED && node.cost + node.goalCost < best) {
+                best = node.cost + node.goalCost;
+                bestNode = node;
+            }
+            prepareSector(node.sector.x, node.sector.y);
+            for (int i = 0; i < node.crossings.size; i++) {
+                reach(node.crossings.get(i), node.cost + 1, node, goalX, goalY);
+            }
+            for (int i = 0; i < node.links.size; i++) {
+                reach(node.links.get(i), node.cost + node.linkCosts.get(i), node, goalX, goalY);
+            }
+        }
+        if (best == Integer.MAX_VALUE) {
+            return false;
+        }
+
+        // Walk back from the last node; the waypoints are added in reverse and turned around at the end
+        waypoints.add(goalY, goalX);
+        for (Node node = bestNode; node != null; node = node.parent) {
+            waypoints.add(node.y, node.x);
+        }
+        waypoints.add(startY, startX);
+        waypoints.reverse();
+        return true;
+    }
+
+    /**
+     * Fills in the tiles between two waypoints found by {@link #findWaypoints}.
+     *
+     * @param fromX The x-coordinate of the first waypoint in tiles.
+     * @param fromY The y-coordinate of the first waypoint in tiles.
+     * @param toX   The x-coordinate of the second waypoint in tiles.
+     * @param toY   The y-coordinate of the second waypoint in tiles.
+     * @param tiles The array the tiles after the first waypoint up to the second one are added to, as pairs of x and y.
+     */
+    public void refineSegment(int fromX, int fromY, int toX, int toY, IntArray tiles) {
+        if (fromX == toX && fromY == toY) {
+            return;
+        }
+        if (Math.abs(toX - fromX) + Math.abs(toY - fromY) == 1) {
+            tiles.add(toX, toY);
+            return;
+        }
+        searchLocally(getSector(fromX / sectorSize, fromY / sectorSize), fromX, fromY);
+        int length = localDistance(toX, toY);
+        int start = tiles.size;
+        tiles.setSize(start + 2 * length);
+        int index = localIndex(toX, toY);
+        for (int i = length - 1; i >= 0; i--) {
+            tiles.set(start + 2 * i, localOriginX + index % sectorSize);
+            tiles.set(start + 2 * i + 1, localOriginY + index / sectorSize);
+            index = localParents[index];
+        }
+    }
+
+    /**
+     * Gets the number of entrance nodes expanded by searches since the last call to {@link #resetStats()}.
+     *
+     * @return The number of nodes expanded.
+     */
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Gets the number of sectors set up since the last call to {@link #resetStats()}.
+     *
+     * @return The number of sectors set up.
+     */
+    public int getSectorsBuilt() {
+        return sectorsBuilt;
+    }
+
+    /**
+     * Resets the counters.
+     */
+    public void resetStats() {
+        nodesExpanded = 0;
+        sectorsBuilt = 0;
+    }
+
+    @Override
+    public void tileChanged(int x, int y, int oldTileId, int newTileId) {
+        if (CollisionGrid.isBlocking(oldTileId, blockingFlags) == CollisionGrid.isBlocking(newTileId, blockingFlags)) {
+            return;
+        }
+        int sectorX = x / sectorSize;
+        int sectorY = y / sectorSize;
+        // The paths inside the sector and the entrances on its borders may have changed
+        Sector sector = sectors.get(sectorIndex(sectorX, sectorY));
+        if (sector != null) {
+            sector.rightBorderValid = false;
+            sector.topBorderValid = false;
+            sector.linksValid = false;
+        }
+        Sector left = sectorX > 0 ? sectors.get(sectorIndex(sectorX - 1, sectorY)) : null;
+        if (left != null) {
+            left.rightBorderValid = false;
+        }
+        Sector below = sectorY > 0 ? sectors.get(sectorIndex(sectorX, sectorY - 1)) : null;
+        if (below != null) {
+            below.topBorderValid = false;
+        }
+    }
+
+    /**
+     * Makes sure the entrances on all borders of a sector and the links between them are up to date.
+     */
+    private Sector prepareSector(int sectorX, int sectorY) {
+        Sector sector = getSector(sectorX, sectorY);
+        if (sectorX > 0) {
+            prepareRightBorder(sectorX - 1, sectorY);
+        }
+        if (sectorX + 1 < sectorsX) {
+            prepareRightBorder(sectorX, sectorY);
+        }
+        if (sectorY > 0) {
+            prepareTopBorder(sectorX, sectorY - 1);
+        }
+        if (sectorY + 1 < sectorsY) {
+            prepareTopBorder(sectorX, sectorY);
+        }
+        if (!sector.linksValid) {
+            linkNodes(sector);
+            sector.linksValid = true;
+            sectorsBuilt++;
+        }
+        return sector;
+    }
+
+    /**
+     * Finds the entrances between a sector and the sector to its right.
+     */
+    private void prepareRightBorder(int sectorX, int sectorY) {
+        Sector left = getSector(sectorX, sectorY);
+        if (left.rightBorderValid) {
+            return;
+        }
+        Sector right = getSector(sectorX + 1, sectorY);
+        removeCrossings(left, right);
+        int x = (sectorX + 1) * sectorSize - 1;
+        int fromY = sectorY * sectorSize;
+        int toY = Math.min(fromY + sectorSize, collisionGrid.getHeight());
+        int runStart = -1;
+        for (int y = fromY; y <= toY; y++) {
+            boolean open = y < toY && !isBlocked(x, y) && !isBlocked(x + 1, y);
+            if (open && runStart < 0) {
+                runStart = y;
+            } else if (!open && runStart >= 0) {
+                for (int entranceY : entranceTiles(runStart, y - 1)) {
+                    cross(left, x, entranceY, right, x + 1, entranceY);
+                }
+                runStart = -1;
+            }
+        }
+        left.rightBorderValid = true;
+    }
+
+    /**
+     * Finds the entrances between a sector and the sector above it.
+     */
+    private void prepareTopBorder(int sectorX, int sectorY) {
+        Sector bottom = getSector(sectorX, sectorY);
+        if (bottom.topBorderValid) {
+            return;
+        }
+        Sector top = getSector(sectorX, sectorY + 1);
+        removeCrossings(bottom, top);
+        int y = (sectorY + 1) * sectorSize - 1;
+        int fromX = sectorX * sectorSize;
+        int toX = Math.min(fromX + sectorSize, collisionGrid.getWidth());
+        int runStart = -1;
+        for (int x = fromX; x <= toX; x++) {
+            boolean open = x < toX && !isBlocked(x, y) && !isBlocked(x, y + 1);
+            if (open && runStart < 0) {
+                runStart = x;
+            } else if (!open && runStart >= 0) {
+                for (int entranceX : entranceTiles(runStart, x - 1)) {
+                    cross(bottom, entranceX, y, top, entranceX, y + 1);
+                }
+                runStart = -1;
+            }
+        }
+        bottom.topBorderValid = true;
+    }
+
+    /**
+     * Chooses where an entrance gets its nodes: in the middle of narrow entrances, at both ends of wide ones.
+     */
+    private int[] entranceTiles(int first, int last) {
+        if (last - first + 1 >= WIDE_ENTRANCE) {
+            return new int[] {first, last};
+        }
+        return new int[] {(first + last) / 2};
+    }
+
+    /**
+     * Links two tiles across a border, adding nodes for them if they have none yet.
+     */
+    private void cross(Sector from, int fromX, int fromY, Sector to, int toX, int toY) {
+        Node fromNode = from.getOrAddNode(fromX, fromY);
+        Node toNode = to.getOrAddNode(toX, toY);
+        fromNode.crossings.add(toNode);
+        toNode.crossings.add(fromNode);
+        from.linksValid = false;
+        to.linksValid = false;
+    }
+
+    /**
+     * Removes the links across the border of two sectors, and the nodes that were only there for them.
+     */
+    private void removeCrossings(Sector first, Sector second) {
+        for (int i = first.nodes.size - 1; i >= 0; i--) {
+            Node node = first.nodes.get(i);
+            for (int j = node.crossings.size - 1; j >= 0; j--) {
+                Node other = node.crossings.get(j);
+                if (other.sector == second) {
+                    node.crossings.removeIndex(j);
+                    other.crossings.removeValue(node, true);
+                }
+            }
+        }
+        first.removeNodesWithoutCrossings();
+        second.removeNodesWithoutCrossings();
+    }
+
+    /**
+     * Links every node of a sector to the other nodes it can reach inside the sector.
+     */
+    private void linkNodes(Sector sector) {
+        for (int i = 0; i < sector.nodes.size; i++) {
+            Node node = sector.nodes.get(i);
+            node.links.clear();
+            node.linkCosts.clear();
+            searchLocally(sector, node.x, node.y);
+            for (int j = 0; j < sector.nodes.size; j++) {
+                Node other = sector.nodes.get(j);
+                int cost = localDistance(other.x, other.y);
+                if (other != node && cost != UNREACHED) {
+                    node.links.add(other);
+                    node.linkCosts.add(cost);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reaches a node during the search over the graph of entrances and keeps the cheaper way to it.
+     */
+    private void reach(Node node, int cost, Node parent, int goalX, int goalY) {
+        if (node.stamp == stamp && (node.closed || node.cost <= cost)) {
+            return;
+        }
+        float estimate = cost + Math.abs(goalX - node.x) + Math.abs(goalY - node.y);
+        boolean inOpen = node.stamp == stamp;
+        node.stamp = stamp;
+        node.cost = cost;
+        node.parent = parent;
+        node.closed = false;
+        if (inOpen) {
+            open.setValue(node, estimate);
+        } else {
+            open.add(node, estimate);
+        }
+    }
+
+    /**
+     * Runs a breadth-first search from a tile over the tiles of its sector.
+     */
+    private void searchLocally(Sector sector, int fromX, int fromY) {
+        localOriginX = sector.x * sectorSize;
+        localOriginY = sector.y * sectorSize;
+        int width = Math.min(sectorSize, collisionGrid.getWidth() - localOriginX);
+        int height = Math.min(sectorSize, collisionGrid.getHeight() - localOriginY);
+        Arrays.fill(localDistances, UNREACHED);
+        int head = 0;
+        int tail = 0;
+        int start = localIndex(fromX, fromY);
+        localDistances[start] = 0;
+        localParents[start] = -1;
+        localQueue[tail++] = start;
+        while (head < tail) {
+            int index = localQueue[head++];
+            int x = index % sectorSize;
+            int y = index / sectorSize;
+            for (int direction = 0; direction < 4; direction++) {
+                int nextX = x + STEP_X[direction];
+                int nextY = y + STEP_Y[direction];
+                if (nextX < 0 || nextY < 0 || nextX >= width || nextY >= height) {
+                    continue;
+                }
+                int next = nextY * sectorSize + nextX;
+                if (localDistances[next] == UNREACHED && !isBlocked(localOriginX + nextX, localOriginY + nextY)) {
+                    localDistances[next] = localDistances[index] + 1;
+                    localParents[next] = index;
+                    localQueue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    private int localDistance(int x, int y) {
+        return localDistances[localIndex(x, y)];
+    }
+
+    private int localIndex(int x, int y) {
+        return (y - localOriginY) * sectorSize + (x - localOriginX);
+    }
+
+    private boolean isBlocked(int x, int y) {
+        return x < 0 || y < 0 || x >= collisionGrid.getWidth() || y >= collisionGrid.getHeight()
+                || (collisionGrid.getFlags(x, y) & blockingFlags) != 0;
+    }
+
+    private Sector getSector(int sectorX, int sectorY) {
+        int index = sectorIndex(sectorX, sectorY);
+        Sector sector = sectors.get(index);
+        if (sector == null) {
+            sector = new Sector(sectorX, sectorY);
+            sectors.put(index, sector);
+        }
+        return sector;
+    }
+
+    private int sectorIndex(int sectorX, int sectorY) {
+        return sectorY * sectorsX + sectorX;
+    }
+
+    /**
+     * The Sector class holds the entrance nodes of one sector.
+     */
+    private static class Sector {
+        private final int x;
+        private final int y;
+        private final Array<Node> nodes = new Array<>(false, 8);
+        private boolean linksValid;
+        /** Whether the entrances across the right border are up to date. */
+        private boolean rightBorderValid;
+        /** Whether the entrances across the top border are up to date. */
+        private boolean topBorderValid;
+
+        private Sector(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        private Node getOrAddNode(int tileX, int tileY) {
+            for (int i = 0; i < nodes.size; i++) {
+                Node node = nodes.get(i);
+                if (node.x == tileX && node.y == tileY) {
+                    return node;
+                }
+            }
+            Node node = new Node(this, tileX, tileY);
+            nodes.add(node);
+            return node;
+        }
+
+        private void removeNodesWithoutCrossings() {
+            for (int i = nodes.size - 1; i >= 0; i--) {
+                if (nodes.get(i).crossings.isEmpty()) {
+                    nodes.removeIndex(i);
+                    linksValid = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * The Node class is one side of an entrance: a tile next to the border of its sector.
+     */
+    private static class Node extends BinaryHeap.Node {
+        private final Sector sector;
+        private final int x;
+        private final int y;
+        /** The nodes on the other side of the border, one step away. */
+        private final Array<Node> crossings = new Array<>(false, 2);
+        /** The nodes of the same sector that can be reached inside it. */
+        private final Array<Node> links = new Array<>(false, 8);
+        private final IntArray linkCosts = new IntArray(false, 8);
+
+        // The state of the current search, valid if the stamp matches
+        private int stamp;
+        private int cost;
+        private Node parent;
+        private boolean closed;
+        private int goalStamp;
+        private int goalCost;
+
+        private Node(Sector sector, int x, int y) {
+            super(0);
+            this.sector = sector;
+            this.x = x;
+            this.y = y;
+        }
+    }
+}
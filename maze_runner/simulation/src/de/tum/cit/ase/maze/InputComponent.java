@@ -0,0 +1,22 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+
+/**
+ * The InputComponent class marks an entity controlled by the player and holds the buttons held down in this step.
+ * The buttons are set before the step by whoever runs the game; the velocity is set from them by the {@link InputSystem}.
+ */
+public class InputComponent implements Component {
+
+    public static final ComponentMapper<InputComponent> MAPPER = ComponentMapper.getFor(InputComponent.class);
+
+    // Buttons, one bit per direction in the order directions are numbered in
+    public static final int UP = 1 << FlowField.UP;
+    public static final int DOWN = 1 << FlowField.DOWN;
+    public static final int LEFT = 1 << FlowField.LEFT;
+    public static final int RIGHT = 1 << FlowField.RIGHT;
+
+    /** The buttons held down, a combination of {@link #UP}, {@link #DOWN}, {@link #LEFT} and {@link #RIGHT}. */
+    public int buttons;
+}
@@ -0,0 +1,73 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+
+/**
+ * The InputSystem class turns the buttons the player holds down into the velocity and direction
+ * of the entities the player controls. The buttons are set in their {@link InputComponent} by whoever runs the game,
+ * like the game screen from the keyboard or a replay, so the system itself reads no device.
+ */
+public class InputSystem extends TimedSystem {
+
+    /** Runs first, so every other system sees the input of this step. */
+    public static final int PRIORITY = 0;
+    private static final Family FAMILY = Family.all(InputComponent.class, VelocityComponent.class, PositionComponent.class).get();
+
+    private ImmutableArray<Entity> entities;
+
+    /**
+     * Constructs an InputSystem.
+     */
+    public InputSystem() {
+        super("input", PRIORITY);
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(FAMILY);
+    }
+
+    @Override
+    protected void run(float deltaTime) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            apply(InputComponent.MAPPER.get(entity).buttons, VelocityComponent.MAPPER.get(entity),
+                    PositionComponent.MAPPER.get(entity));
+        }
+    }
+
+    /**
+     * Sets the velocity, direction and moving flag of an entity from the buttons held down.
+     *
+     * @param buttons  The buttons held down.
+     * @param velocity The velocity of the entity.
+     * @param position The position of the entity.
+     */
+    private static void apply(int buttons, VelocityComponent velocity, PositionComponent position) {
+        velocity.x = 0;
+        velocity.y = 0;
+        int slot = position.getSlot();
+        EntityStore<?> store = position.store;
+        // When several keys are held, the last one checked decides the direction the entity faces
+        if ((buttons & InputComponent.UP) != 0) {
+            velocity.y += velocity.speed;
+            store.direction[slot] = FlowField.UP;
+        }
+        if ((buttons & InputComponent.DOWN) != 0) {
+            velocity.y -= velocity.speed;
+            store.direction[slot] = FlowField.DOWN;
+        }
+        if ((buttons & InputComponent.LEFT) != 0) {
+            velocity.x -= velocity.speed;
+            store.direction[slot] = FlowField.LEFT;
+        }
+        if ((buttons & InputComponent.RIGHT) != 0) {
+            velocity.x += velocity.speed;
+            store.direction[slot] = FlowField.RIGHT;
+        }
+        store.setFlag(slot, EntityStore.MOVING, buttons != 0);
+    }
+}
@@ -0,0 +1,33 @@
+package de.tum.cit.ase.maze;
+
+import java.io.IOException;
+
+/**
+ * The MapFormatException class signals a malformed line in a map file.
+ */
+public class MapFormatException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int line;
+
+    /**
+     * Constructs a MapFormatException for the given line.
+     *
+     * @param name    The name of the map file.
+     * @param line    The line number, starting at 1.
+     * @param message What is wrong with the line.
+     */
+    public MapFormatException(String name, int line, String message) {
+        super(name + ":" + line + ": " + message);
+        this.line = line;
+    }
+
+    /**
+     * Gets the number of the malformed line.
+     *
+     * @return The line number, starting at 1.
+     */
+    public int getLine() {
+        return line;
+    }
+}
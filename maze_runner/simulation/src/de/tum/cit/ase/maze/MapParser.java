@@ -0,0 +1,151 @@
+package de.tum.cit.ase.maze;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The MapParser class reads map files in the "x,y=tileId" format straight from a byte buffer.
+ * Every tile is handed to a {@link TileVisitor} as plain numbers, so parsing does not create
+ * any objects per tile. Blank lines and lines starting with '#' or '!' are skipped,
+ * and ':' is accepted instead of '=' like in .properties files.
+ * The parser does not use libGDX, so it can also be used by command line tools.
+ */
+public class MapParser {
+
+    /** Coordinates and tile ids are rejected once they have more digits than this. */
+    private static final int MAX_DIGITS = 9;
+
+    private final ByteBuffer buffer;
+    private final String name;
+    private final int end;
+    private int position;
+    private int line = 1;
+
+    private MapParser(ByteBuffer buffer, String name) {
+        this.buffer = buffer;
+        this.name = name;
+        this.position = buffer.position();
+        this.end = buffer.limit();
+        // Skip the byte order mark some editors put in front of UTF-8 files
+        if (end - position >= 3 && buffer.get(position) == (byte) 0xEF && buffer.get(position + 1) == (byte) 0xBB
+                && buffer.get(position + 2) == (byte) 0xBF) {
+            position += 3;
+        }
+    }
+
+    /**
+     * Parses the map in the remaining bytes of the buffer. The buffer's position is not changed.
+     *
+     * @param buffer  The contents of the map file.
+     * @param name    The name of the map file, used in error messages.
+     * @param visitor The visitor that receives every tile, in the order of the file.
+     * @throws MapFormatException If a line is malformed.
+     */
+    public static void parse(ByteBuffer buffer, String name, TileVisitor visitor) throws MapFormatException {
+        new MapParser(buffer, name).parse(visitor);
+    }
+
+    private void parse(TileVisitor visitor) throws MapFormatException {
+        while (true) {
+            skipBlanks();
+            if (position >= end) {
+                return;
+            }
+            byte c = buffer.get(position);
+            if (c == '\n' || c == '\r') {
+                nextLine();
+                continue;
+            }
+            if (c == '#' || c == '!') {
+                while (position < end && buffer.get(position) != '\n' && buffer.get(position) != '\r') {
+                    position++;
+                }
+                continue;
+            }
+
+            int x = readNumber("x-coordinate");
+            skipBlanks();
+            expect(',', "',' after the x-coordinate");
+            skipBlanks();
+            int y = readNumber("y-coordinate");
+            skipBlanks();
+            if (position < end && (buffer.get(position) == '=' || buffer.get(position) == ':')) {
+                position++;
+                skipBlanks();
+            }
+            int tileId = readNumber("tile id");
+            skipBlanks();
+            if (position < end && buffer.get(position) != '\n' && buffer.get(position) != '\r') {
+                throw error("Unexpected '" + (char) buffer.get(position) + "' after the tile id");
+            }
+            if (tileId > Byte.MAX_VALUE) {
+                throw error("Tile id " + tileId + " is out of range");
+            }
+            visitor.tile(x, y, tileId);
+        }
+    }
+
+    private int readNumber(String what) throws MapFormatException {
+        int start = position;
+        int value = 0;
+        while (position < end) {
+            byte c = buffer.get(position);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            if (position - start == MAX_DIGITS) {
+                throw error("The " + what + " is too large");
+            }
+            value = value * 10 + (c - '0');
+            position++;
+        }
+        if (position == start) {
+            throw error("Expected the " + what);
+        }
+        return value;
+    }
+
+    private void expect(char expected, String what) throws MapFormatException {
+        if (position >= end || buffer.get(position) != expected) {
+            throw error("Expected " + what);
+        }
+        position++;
+    }
+
+    private void skipBlanks() {
+        while (position < end) {
+            byte c = buffer.get(position);
+            if (c != ' ' && c != '\t' && c != '\f') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private void nextLine() {
+        // "\r\n" counts as a single line break
+        if (buffer.get(position) == '\r' && position + 1 < end && buffer.get(position + 1) == '\n') {
+            position++;
+        }
+        position++;
+        line++;
+    }
+
+    private MapFormatException error(String message) {
+        return new MapFormatException(name, line, message);
+    }
+
+    /**
+     * The TileVisitor interface receives the tiles read by a {@link MapParser}.
+     */
+    public interface TileVisitor {
+
+        /**
+         * Called for every tile in the map file.
+         *
+         * @param x      The x-coordinate in tiles.
+         * @param y      The y-coordinate in tiles.
+         * @param tileId The tile id.
+         */
+        void tile(int x, int y, int tileId);
+    }
+}
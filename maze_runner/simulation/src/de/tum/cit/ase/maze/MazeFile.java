@@ -0,0 +1,200 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The MazeFile class reads and writes compiled maps.
+ * A compiled map starts with a fixed size header holding the maze size, the entry and exit,
+ * the number of each map object and a checksum, followed by the tile ids packed one byte per tile.
+ * Compiled maps are memory-mapped when loaded, so the tiles are never copied or parsed.
+ */
+public class MazeFile {
+
+    /** The file extension of compiled maps. */
+    public static final String EXTENSION = "mazebin";
+
+    /** The first four bytes of every compiled map ("MAZE"). */
+    public static final int MAGIC = 0x4D415A45;
+    public static final int VERSION = 1;
+
+    /** The size of the header in bytes. The tiles start right after it. */
+    public static final int HEADER_SIZE = 64;
+
+    private static final int OFFSET_WIDTH = 8;
+    private static final int OFFSET_ENTRY = 16;
+    private static final int OFFSET_EXIT = 24;
+    private static final int OFFSET_COUNTS = 32;
+    private static final int OFFSET_CHECKSUM = 56;
+
+    private MazeFile() {
+    }
+
+    /**
+     * Finds the compiled version of a map file.
+     *
+     * @param mapFile A .properties map file or a compiled map.
+     * @return The compiled map if it exists and is not older than the .properties file, otherwise null.
+     */
+    public static FileHandle findCompiled(FileHandle mapFile) {
+        if (mapFile.extension().equals(EXTENSION)) {
+            return mapFile;
+        }
+        FileHandle compiled = mapFile.sibling(mapFile.nameWithoutExtension() + "." + EXTENSION);
+        if (compiled.exists() && compiled.lastModified() >= mapFile.lastModified()) {
+            return compiled;
+        }
+        return null;
+    }
+
+    /**
+     * Reads a compiled map. Files on disk are memory-mapped; other files are read into memory.
+     *
+     * @param file The compiled map file.
+     * @return The loaded maze.
+     * @throws IOException If the file cannot be read or is not a valid compiled map.
+     */
+    public static MazeGrid read(FileHandle file) throws IOException {
+        File onDisk = file.file();
+        if (onDisk.isFile()) {
+            return read(onDisk);
+        }
+        return read(ByteBuffer.wrap(file.readBytes()), file.name());
+    }
+
+    /**
+     * Reads a compiled map by memory-mapping it.
+     *
+     * @param file The compiled map file.
+     * @return The loaded maze.
+     * @throws IOException If the file cannot be read or is not a valid compiled map.
+     */
+    public static MazeGrid read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file.getName());
+        }
+    }
+
+    /**
+     * Reads a compiled map from a buffer. The tiles of the returned maze are a view of the buffer.
+     *
+     * @param buffer The contents of the compiled map.
+     * @param name   The name of the map, used in error messages.
+     * @return The loaded maze.
+     * @throws IOException If the buffer does not hold a valid compiled map.
+     */
+    public static MazeGrid read(ByteBuffer buffer, String name) throws IOException {
+        Header header = readHeader(buffer, buffer.limit(), name);
+        ByteBuffer tiles = buffer.duplicate().position(HEADER_SIZE).limit(HEADER_SIZE + header.width * header.height).slice();
+        CRC32 crc = new CRC32();
+        crc.update(tiles.duplicate());
+        if (crc.getValue() != header.checksum) {
+            throw new IOException("Checksum mismatch in " + name);
+        }
+        return new MazeGrid(header.width, header.height, tiles, header.entryX, header.entryY, header.exitX, header.exitY);
+    }
+
+    /**
+     * Reads and validates the header of a compiled map.
+     *
+     * @param buffer   The start of the compiled map, at least the header.
+     * @param fileSize The size of the whole compiled map in bytes.
+     * @param name     The name of the map, used in error messages.
+     * @return The header.
+     * @throws IOException If the buffer does not start with a valid header.
+     */
+    public static Header readHeader(ByteBuffer buffer, long fileSize, String name) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException(name + " is not a compiled map");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported map version " + buffer.getInt(4) + " in " + name);
+        }
+        Header header = new Header();
+        header.width = buffer.getInt(OFFSET_WIDTH);
+        header.height = buffer.getInt(OFFSET_WIDTH + 4);
+        header.entryX = buffer.getInt(OFFSET_ENTRY);
+        header.entryY = buffer.getInt(OFFSET_ENTRY + 4);
+        header.exitX = buffer.getInt(OFFSET_EXIT);
+        header.exitY = buffer.getInt(OFFSET_EXIT + 4);
+        header.exitCount = buffer.getInt(OFFSET_COUNTS);
+        header.trapCount = buffer.getInt(OFFSET_COUNTS + 4);
+        header.enemyCount = buffer.getInt(OFFSET_COUNTS + 8);
+        header.keyCount = buffer.getInt(OFFSET_COUNTS + 12);
+        header.checksum = buffer.getLong(OFFSET_CHECKSUM);
+        if (header.width <= 0 || header.height <= 0
+                || (long) header.width * header.height > fileSize - HEADER_SIZE) {
+            throw new IOException("Invalid maze size " + header.width + "x" + header.height + " in " + name);
+        }
+        return header;
+    }
+
+    /**
+     * Writes a maze as a compiled map.
+     *
+     * @param grid The maze to write.
+     * @param file The file to write to. It is replaced if it exists.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(MazeGrid grid, File file) throws IOException {
+        ByteBuffer tiles = grid.getTileBuffer();
+        int[] counts = new int[MazeGrid.KEY + 1];
+        for (int i = 0; i < tiles.limit(); i++) {
+            int tileId = tiles.get(i);
+            if (tileId >= 0 && tileId < counts.length) {
+                counts[tileId]++;
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(tiles.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(OFFSET_WIDTH, grid.getWidth());
+        header.putInt(OFFSET_WIDTH + 4, grid.getHeight());
+        header.putInt(OFFSET_ENTRY, grid.getEntryX());
+        header.putInt(OFFSET_ENTRY + 4, grid.getEntryY());
+        header.putInt(OFFSET_EXIT, grid.getExitX());
+        header.putInt(OFFSET_EXIT + 4, grid.getExitY());
+        header.putInt(OFFSET_COUNTS, counts[MazeGrid.EXIT]);
+        header.putInt(OFFSET_COUNTS + 4, counts[MazeGrid.TRAP]);
+        header.putInt(OFFSET_COUNTS + 8, counts[MazeGrid.ENEMY]);
+        header.putInt(OFFSET_COUNTS + 12, counts[MazeGrid.KEY]);
+        header.putLong(OFFSET_CHECKSUM, crc.getValue());
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (tiles.hasRemaining()) {
+                channel.write(tiles);
+            }
+        }
+    }
+
+    /**
+     * The Header class holds the values stored in front of the tiles of a compiled map.
+     */
+    public static class Header {
+        public int width;
+        public int height;
+        public int entryX;
+        public int entryY;
+        public int exitX;
+        public int exitY;
+        public int exitCount;
+        public int trapCount;
+        public int enemyCount;
+        public int keyCount;
+        public long checksum;
+    }
+}
@@ -0,0 +1,253 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The MazeGrid class holds the tiles of a maze in a dense array.
+ * It is built once when a level is loaded, so the game never has to read the map file again
+ * while rendering or checking collisions.
+ * The tiles may either live on the heap or in a memory-mapped compiled map file, see {@link MazeFile}.
+ */
+public class MazeGrid implements TileMap {
+
+    /** Tile id used for cells that are not listed in the map file. */
+    public static final byte EMPTY = -1;
+    public static final byte WALL = 0;
+    public static final byte ENTRY_POINT = 1;
+    public static final byte EXIT = 2;
+    public static final byte TRAP = 3;
+    public static final byte ENEMY = 4;
+    public static final byte KEY = 5;
+
+    /** The size of one tile in world units. */
+    public static final int TILE_SIZE = 16;
+
+    private final int width;
+    private final int height;
+
+    /** The tile ids, stored row by row starting at the bottom left corner. */
+    private ByteBuffer tiles;
+
+    private int entryX = -1;
+    private int entryY = -1;
+    private int exitX = -1;
+    private int exitY = -1;
+
+    private final Array<TileListener> listeners = new Array<>();
+
+    /**
+     * Constructs an empty MazeGrid with the given dimensions.
+     *
+     * @param width  The width of the maze in tiles.
+     * @param height The height of the maze in tiles.
+     */
+    public MazeGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.tiles = ByteBuffer.allocate(width * height);
+        for (int i = 0; i < tiles.capacity(); i++) {
+            tiles.put(i, EMPTY);
+        }
+    }
+
+    /**
+     * Constructs a MazeGrid over an existing tile buffer, for example a memory-mapped compiled map.
+     *
+     * @param width  The width of the maze in tiles.
+     * @param height The height of the maze in tiles.
+     * @param tiles  The tile ids, row by row. The buffer is used as is and not copied.
+     * @param entryX The x-coordinate of the entry point, or -1 if there is none.
+     * @param entryY The y-coordinate of the entry point, or -1 if there is none.
+     * @param exitX  The x-coordinate of the first exit point, or -1 if there is none.
+     * @param exitY  The y-coordinate of the first exit point, or -1 if there is none.
+     */
+    MazeGrid(int width, int height, ByteBuffer tiles, int entryX, int entryY, int exitX, int exitY) {
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+        this.entryX = entryX;
+        this.entryY = entryY;
+        this.exitX = exitX;
+        this.exitY = exitY;
+    }
+
+    /**
+     * Loads a maze from the given map file.
+     * If a compiled map (see {@link MazeFile}) exists next to a .properties file and is not older than it,
+     * the compiled map is loaded instead.
+     *
+     * @param mapFile The map file to load.
+     * @return The loaded maze.
+     * @throws IOException If the file cannot be read or is invalid.
+     */
+    public static MazeGrid load(FileHandle mapFile) throws IOException {
+        FileHandle compiled = MazeFile.findCompiled(mapFile);
+        if (compiled != null) {
+            return MazeFile.read(compiled);
+        }
+        return loadProperties(mapFile);
+    }
+
+    /**
+     * Loads a maze from a map file in the "x,y=tileId" format.
+     *
+     * @param mapFile The map file to load.
+     * @return The loaded maze.
+     * @throws IOException If the file cannot be read or contains an invalid entry.
+     */
+    public static MazeGrid loadProperties(FileHandle mapFile) throws IOException {
+        return parse(ByteBuffer.wrap(mapFile.readBytes()), mapFile.name());
+    }
+
+    /**
+     * Parses a maze in the "x,y=tileId" format, see {@link MapParser}.
+     *
+     * @param contents The contents of the map file.
+     * @param name     The name of the map file, used in error messages.
+     * @return The parsed maze.
+     * @throws IOException If the contents contain an invalid entry or the maze is too large.
+     */
+    public static MazeGrid parse(ByteBuffer contents, String name) throws IOException {
+        // The map file does not store its size, so a first pass finds it
+        int[] max = {-1, -1};
+        MapParser.parse(contents, name, (x, y, tileId) -> {
+            max[0] = Math.max(max[0], x);
+            max[1] = Math.max(max[1], y);
+        });
+        if ((long) (max[0] + 1) * (max[1] + 1) > Integer.MAX_VALUE) {
+            throw new IOException("The maze in " + name + " is too large to be loaded as a whole");
+        }
+        MazeGrid grid = new MazeGrid(max[0] + 1, max[1] + 1);
+        MapParser.parse(contents, name, (x, y, tileId) -> grid.setTile(x, y, (byte) tileId));
+        return grid;
+    }
+
+    /**
+     * Gets the tile id at the given tile coordinates.
+     *
+     * @param x The x-coordinate in tiles.
+     * @param y The y-coordinate in tiles.
+     * @return The tile id, or {@link #EMPTY} if the coordinates are outside the maze.
+     */
+    @Override
+    public int getTile(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return EMPTY;
+        }
+        return tiles.get(y * width + x);
+    }
+
+    /**
+     * Sets the tile id at the given tile coordinates, updates the cached entry and exit and tells the tile listeners.
+     *
+     * @param x      The x-coordinate in tiles.
+     * @param y      The y-coordinate in tiles.
+     * @param tileId The new tile id.
+     */
+    public void setTile(int x, int y, byte tileId) {
+        if (tiles.isReadOnly()) {
+            // Mapped map files are read-only, so the tiles are copied to the heap on the first change
+            ByteBuffer copy = ByteBuffer.allocate(tiles.capacity());
+            copy.put(tiles.duplicate().clear());
+            tiles = copy;
+        }
+        int oldTileId = tiles.get(y * width + x);
+        tiles.put(y * width + x, tileId);
+        if (tileId == ENTRY_POINT) {
+            entryX = x;
+            entryY = y;
+        } else if (tileId == EXIT && exitX < 0) {
+            exitX = x;
+            exitY = y;
+        }
+        for (TileListener listener : listeners) {
+            listener.tileChanged(x, y, oldTileId, tileId);
+        }
+    }
+
+    @Override
+    public void addTileListener(TileListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Gets a view of the tile ids, row by row starting at the bottom left corner.
+     *
+     * @return A read-only view of the tile buffer.
+     */
+    ByteBuffer getTileBuffer() {
+        return tiles.asReadOnlyBuffer().clear();
+    }
+
+    /**
+     * Gets the width of the maze.
+     *
+     * @return The width of the maze in tiles.
+     */
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the maze.
+     *
+     * @return The height of the maze in tiles.
+     */
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Checks if the maze has an entry point.
+     *
+     * @return True if an entry point was found, false otherwise.
+     */
+    @Override
+    public boolean hasEntry() {
+        return entryX >= 0;
+    }
+
+    /**
+     * Gets the x-coordinate of the entry point.
+     *
+     * @return The x-coordinate of the entry point in tiles, or -1 if there is none.
+     */
+    @Override
+    public int getEntryX() {
+        return entryX;
+    }
+
+    /**
+     * Gets the y-coordinate of the entry point.
+     *
+     * @return The y-coordinate of the entry point in tiles, or -1 if there is none.
+     */
+    @Override
+    public int getEntryY() {
+        return entryY;
+    }
+
+    /**
+     * Gets the x-coordinate of the first exit point.
+     *
+     * @return The x-coordinate of the exit point in tiles, or -1 if there is none.
+     */
+    public int getExitX() {
+        return exitX;
+    }
+
+    /**
+     * Gets the y-coordinate of the first exit point.
+     *
+     * @return The y-coordinate of the exit point in tiles, or -1 if there is none.
+     */
+    public int getExitY() {
+        return exitY;
+    }
+}
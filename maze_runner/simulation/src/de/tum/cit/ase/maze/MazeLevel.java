@@ -0,0 +1,653 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The MazeLevel class holds everything a loaded level consists of: the tiles of the maze
+ * and the map objects (enemies, traps, keys and exits) placed on them.
+ * Finding the map objects only reads the tiles and can run on any thread, while creating them
+ * adds them to the engine and has to happen on the thread that runs the game logic.
+ * The character, enemies, traps and keys are entities of the level's engine; their positions are kept in stores.
+ * The level holds only what the game logic needs; how entities are drawn is added to them by an {@link EntityListener}.
+ */
+public class MazeLevel {
+
+    /** Compiled maps with more tiles than this are streamed in chunks instead of being loaded as a whole. */
+    private static final long STREAMING_THRESHOLD = 1 << 20;
+    /** The memory the resident chunks of a streamed map may take up by default, in bytes. */
+    public static final long CHUNK_MEMORY_BUDGET = 16L << 20;
+    /** The cell size of the broadphase of the map objects, in world units. */
+    private static final float OBJECT_CELL_SIZE = 2 * MazeGrid.TILE_SIZE;
+    /** The width and height of the sectors of the hierarchical pathfinder, in tiles. */
+    private static final int PATH_SECTOR_SIZE = 16;
+
+    private final FileHandle mapFile;
+    private final TileMap world;
+    /** The tiles the game logic reads, which are only the resident ones of a streamed map. */
+    private final TileMap logicWorld;
+    private final ChunkedMaze chunkedMaze;
+    private final CollisionGrid collisionGrid;
+    private final HierarchicalPathfinder pathHierarchy;
+    private BitSet spawnedChunks;
+    private Array<ChunkedMaze.Chunk> pendingChunks;
+    private IntArray evictedChunks;
+    /** The objects created from each chunk of a streamed map, by chunk index, while the chunk is spawned. */
+    private IntMap<ChunkObjects> chunkObjects;
+    /** Which traps and keys of each despawned chunk were activated, one bit each in the order they were found. */
+    private IntMap<long[]> chunkStates;
+    /** The chunk whose objects are being created, or null. */
+    private ChunkObjects spawningChunk;
+    /** The enemies of a streamed map, with the chunk each started in and its number among the enemies found there. */
+    private Array<Entity> streamedEnemies;
+    private IntArray enemyHomes;
+    private IntArray enemyNumbers;
+    /** Which enemies of each chunk are alive in another chunk, one bit each by their number. */
+    private IntMap<long[]> awayEnemies;
+    /** The numbers of the enemies of the chunk being spawned, in the order they are created. */
+    private final IntArray spawningEnemies = new IntArray();
+    private int spawnedEnemies;
+
+    /** Map objects found but not created yet, as triples of tile x, tile y and tile id. */
+    private final IntArray pendingObjects = new IntArray();
+
+    private final EntityStore<Character> players = new EntityStore<>();
+    private final EntityStore<Enemy> enemies = new EntityStore<>();
+    private final EntityStore<Trap> traps = new EntityStore<>();
+    private final EntityStore<Coin> keys = new EntityStore<>();
+    private final Array<ExitPoint> exitPoints = new Array<>();
+    private final Engine engine = new Engine();
+    private final SpatialHash<Entity> entityIndex = new SpatialHash<>(OBJECT_CELL_SIZE);
+    private final Rectangle entityBounds = new Rectangle();
+    // Components without data of their own are shared by all entities of a kind
+    private final BoundsComponent characterBounds = new BoundsComponent(CollisionGrid.SOLID, entityIndex);
+    private final BoundsComponent enemyBounds = new BoundsComponent(CollisionGrid.SOLID | CollisionGrid.EXIT, entityIndex);
+    private final BoundsComponent fixedBounds = new BoundsComponent(0, entityIndex);
+    private final TriggerComponent damage = new TriggerComponent(TriggerComponent.DAMAGE);
+    private final TriggerComponent collect = new TriggerComponent(TriggerComponent.COLLECT);
+    private final Array<EntityListener> entityListeners = new Array<>(false, 2);
+    private Character character;
+    private Entity characterEntity;
+    private int totalKeys;
+    private long seed;
+
+    private MazeLevel(FileHandle mapFile, TileMap world, ChunkedMaze chunkedMaze) {
+        this.mapFile = mapFile;
+        this.world = world;
+        this.chunkedMaze = chunkedMaze;
+        this.logicWorld = chunkedMaze != null ? chunkedMaze.getResidentTiles() : world;
+        this.collisionGrid = new CollisionGrid(logicWorld);
+        // Enemies can walk through neither walls nor exits
+        this.pathHierarchy = new HierarchicalPathfinder(collisionGrid, CollisionGrid.SOLID | CollisionGrid.EXIT, PATH_SECTOR_SIZE);
+        logicWorld.addTileListener(pathHierarchy);
+    }
+
+    /**
+     * Opens the given map. Large compiled maps are streamed in chunks, all other maps are loaded as a whole.
+     * This does not create any map objects yet.
+     *
+     * @param mapFile The map file to open.
+     * @return The opened level.
+     * @throws IOException If the map file cannot be read.
+     */
+    public static MazeLevel open(FileHandle mapFile) throws IOException {
+        return open(mapFile, CHUNK_MEMORY_BUDGET);
+    }
+
+    /**
+     * Opens the given map. Large compiled maps are streamed in chunks, all other maps are loaded as a whole.
+     * This does not create any map objects yet.
+     *
+     * @param mapFile           The map file to open.
+     * @param chunkMemoryBudget The memory the resident chunks may take up if the map is streamed, in bytes.
+     * @return The opened level.
+     * @throws IOException If the map file cannot be read.
+     */
+    public static MazeLevel open(FileHandle mapFile, long chunkMemoryBudget) throws IOException {
+        FileHandle compiled = MazeFile.findCompiled(mapFile);
+        if (compiled != null && compiled.file().isFile() && compiled.length() - MazeFile.HEADER_SIZE > STREAMING_THRESHOLD) {
+            ChunkedMaze chunkedMaze = new ChunkedMaze(compiled.file(), chunkMemoryBudget);
+            MazeLevel level = new MazeLevel(mapFile, chunkedMaze, chunkedMaze);
+            level.spawnedChunks = new BitSet();
+            level.pendingChunks = new Array<>();
+            level.evictedChunks = new IntArray();
+            level.chunkObjects = new IntMap<>();
+            level.chunkStates = new IntMap<>();
+            level.streamedEnemies = new Array<>(false, 16);
+            level.enemyHomes = new IntArray(false, 16);
+            level.enemyNumbers = new IntArray(false, 16);
+            level.awayEnemies = new IntMap<>();
+            // Chunks can arrive and leave in the middle of a collision check, so their objects are created
+            // and removed in updateStreaming
+            chunkedMaze.setChunkListener(new ChunkedMaze.ChunkListener() {
+                @Override
+                public void chunkLoaded(ChunkedMaze.Chunk chunk) {
+                    level.pendingChunks.add(chunk);
+                }
+
+                @Override
+                public void chunkEvicted(ChunkedMaze.Chunk chunk) {
+                    level.evictedChunks.add(chunk.getIndex());
+                }
+            });
+            // The map objects of a streamed map are created as their chunks arrive
+            level.totalKeys = chunkedMaze.getHeader().keyCount;
+            return level;
+        }
+        return new MazeLevel(mapFile, MazeGrid.load(mapFile), null);
+    }
+
+    /**
+     * Finds the map objects in the given range of tiles. They are created by the next call to {@link #createObjects()}.
+     *
+     * @param fromX The first column, in tiles.
+     * @param fromY The first row, in tiles.
+     * @param toX   The last column, in tiles. Columns outside the maze are skipped.
+     * @param toY   The last row, in tiles. Rows outside the maze are skipped.
+     */
+    public void findObjects(int fromX, int fromY, int toX, int toY) {
+        toX = Math.min(toX, world.getWidth() - 1);
+        toY = Math.min(toY, world.getHeight() - 1);
+        for (int tileY = fromY; tileY <= toY; tileY++) {
+            for (int tileX = fromX; tileX <= toX; tileX++) {
+                int tileId = world.getTile(tileX, tileY);
+                if (tileId >= MazeGrid.EXIT && tileId <= MazeGrid.KEY) {
+                    pendingObjects.add(tileX, tileY, tileId);
+                    if (tileId == MazeGrid.KEY && chunkedMaze == null) {
+                        totalKeys++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a listener told about every entity the level creates from now on.
+     *
+     * @param entityListener The listener.
+     */
+    public void addEntityListener(EntityListener entityListener) {
+        entityListeners.add(entityListener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addEntityListener(EntityListener)}.
+     *
+     * @param entityListener The listener.
+     */
+    public void removeEntityListener(EntityListener entityListener) {
+        entityListeners.removeValue(entityListener, true);
+    }
+
+    /**
+     * Adds a listener told about changes of the tiles the game logic reads, see {@link #getCollisionGrid()}.
+     * On a streamed map these are also the tiles of chunks that arrive or leave.
+     *
+     * @param tileListener The listener.
+     */
+    public void addTileListener(TileMap.TileListener tileListener) {
+        logicWorld.addTileListener(tileListener);
+    }
+
+    /**
+     * Sets the seed the random numbers of the enemies created from now on are made from. Levels opened with the same
+     * seed play the same way for the same input; the default seed is 0.
+     *
+     * @param seed The seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Creates the map objects found since the last call. Must be called on the thread that runs the game logic.
+     */
+    public void createObjects() {
+        int[] items = pendingObjects.items;
+        for (int i = 0; i < pendingObjects.size; i += 3) {
+            int x = items[i] * MazeGrid.TILE_SIZE;
+            int y = items[i + 1] * MazeGrid.TILE_SIZE;
+            int tileId = items[i + 2];
+            if (tileId == MazeGrid.ENEMY) {
+                Enemy enemy = new Enemy(enemies, new Vector2(x, y), seed);
+                Entity entity = createEntity(enemies, enemy.getHandle(), enemyBounds);
+                entity.add(new AiComponent(enemy));
+                entity.add(damage);
+                addEntity(entity, tileId);
+            } else if (tileId == MazeGrid.TRAP) {
+                Trap trap = new Trap(traps, new Vector2(x, y), 8, 8);
+                Entity entity = createEntity(traps, trap.getHandle(), fixedBounds);
+                entity.add(damage);
+                addEntity(entity, tileId);
+            } else if (tileId == MazeGrid.KEY) {
+                Coin key = new Coin(keys, new Vector2(x, y), 8, 8);
+                Entity entity = createEntity(keys, key.getHandle(), fixedBounds);
+                entity.add(collect);
+                addEntity(entity, tileId);
+            } else if (tileId == MazeGrid.EXIT) {
+                ExitPoint exitPoint = new ExitPoint(x, y, 16, 16);
+                exitPoints.add(exitPoint);
+                collisionGrid.addExit(exitPoint);
+                if (spawningChunk != null) {
+                    spawningChunk.exitPoints.add(exitPoint);
+                }
+            }
+        }
+        pendingObjects.clear();
+    }
+
+    /**
+     * Creates the character the player controls and adds it to the level.
+     * Must be called on the thread that runs the game logic.
+     *
+     * @param startPosition The position the character starts at.
+     * @return The entity of the character.
+     */
+    public Entity createCharacter(Vector2 startPosition) {
+        character = new Character(players, startPosition);
+        characterEntity = createEntity(players, character.getHandle(), characterBounds);
+        characterEntity.add(character.getVelocityComponent());
+        characterEntity.add(character.getHealthComponent());
+        characterEntity.add(new InputComponent());
+        characterEntity.add(new ContactComponent());
+        addEntity(characterEntity, MazeGrid.ENTRY_POINT);
+        return characterEntity;
+    }
+
+    private Entity createEntity(EntityStore<?> store, int handle, BoundsComponent bounds) {
+        Entity entity = new Entity();
+        entity.add(new PositionComponent(store, handle));
+        entity.add(bounds);
+        return entity;
+    }
+
+    private void addEntity(Entity entity, int tileId) {
+        for (int i = 0; i < entityListeners.size; i++) {
+            entityListeners.get(i).entityCreated(entity, tileId);
+        }
+        entityIndex.put(entity, PositionComponent.MAPPER.get(entity).getBounds(entityBounds));
+        engine.addEntity(entity);
+        if (spawningChunk == null) {
+            return;
+        }
+        if (tileId == MazeGrid.ENEMY) {
+            // Enemies leave with the chunk they are in, not with the one they started in
+            streamedEnemies.add(entity);
+            enemyHomes.add(spawningChunk.index);
+            enemyNumbers.add(spawningEnemies.get(spawnedEnemies++));
+        } else {
+            spawningChunk.entities.add(entity);
+        }
+    }
+
+    /**
+     * Streams the chunks around the given area, removes the map objects of chunks evicted since the last call
+     * and creates the map objects of chunks that arrived since then, so only the objects of resident chunks
+     * take up memory. Which traps and keys of a removed chunk were activated or collected is kept in a few bits,
+     * and they are created in the same state when the chunk arrives again. Enemies are removed with the chunk they
+     * are in and start over on their tile when the chunk they started in arrives again, unless they are still alive
+     * somewhere else. Chunks that arrived and left again since the last call are not spawned.
+     * Does nothing if the level is not streamed.
+     *
+     * @param left   The left edge of the area in world units.
+     * @param bottom The bottom edge of the area in world units.
+     * @param right  The right edge of the area in world units.
+     * @param top    The top edge of the area in world units.
+     */
+    public void updateStreaming(float left, float bottom, float right, float top) {
+        if (chunkedMaze == null) {
+            return;
+        }
+        chunkedMaze.update(left, bottom, right, top);
+        for (int i = 0; i < evictedChunks.size; i++) {
+            despawn(evictedChunks.get(i));
+        }
+        evictedChunks.clear();
+        createObjects();
+        for (ChunkedMaze.Chunk chunk : pendingChunks) {
+            int index = chunk.getIndex();
+            if (chunkedMaze.isResident(index) && !spawnedChunks.get(index)) {
+                spawn(chunk);
+            }
+        }
+        pendingChunks.clear();
+    }
+
+    /**
+     * Creates the map objects of a chunk and puts its traps and keys back into the state they were removed in.
+     */
+    private void spawn(ChunkedMaze.Chunk chunk) {
+        int index = chunk.getIndex();
+        spawnedChunks.set(index);
+        ChunkObjects objects = new ChunkObjects(index);
+        chunkObjects.put(index, objects);
+        spawningChunk = objects;
+        findObjects(chunk.getTileX(), chunk.getTileY(),
+                chunk.getTileX() + ChunkedMaze.CHUNK_SIZE - 1, chunk.getTileY() + ChunkedMaze.CHUNK_SIZE - 1);
+        skipAwayEnemies(index);
+        createObjects();
+        spawningChunk = null;
+        long[] state = chunkStates.remove(index);
+        if (state == null) {
+            return;
+        }
+        int bit = 0;
+        for (Entity entity : objects.entities) {
+            PositionComponent position = PositionComponent.MAPPER.get(entity);
+            if (position.store != traps && position.store != keys) {
+                continue;
+            }
+            if ((state[bit >> 6] & 1L << bit) != 0) {
+                position.store.setFlag(position.getSlot(), EntityStore.ACTIVATED, true);
+                if (position.store == keys) {
+                    // Collected keys are not in the broadphase, like when they are picked up
+                    entityIndex.remove(entity);
+                }
+            }
+            bit++;
+        }
+    }
+
+    /**
+     * Drops the enemies of the chunk being spawned that are still alive in another chunk from the pending objects,
+     * and numbers the others.
+     */
+    private void skipAwayEnemies(int index) {
+        long[] away = awayEnemies.get(index);
+        spawningEnemies.clear();
+        spawnedEnemies = 0;
+        int[] items = pendingObjects.items;
+        int kept = 0;
+        int number = 0;
+        for (int i = 0; i < pendingObjects.size; i += 3) {
+            if (items[i + 2] == MazeGrid.ENEMY) {
+                int enemy = number++;
+                if (away != null && (away[enemy >> 6] & 1L << enemy) != 0) {
+                    continue;
+                }
+                spawningEnemies.add(enemy);
+            }
+            items[kept] = items[i];
+            items[kept + 1] = items[i + 1];
+            items[kept + 2] = items[i + 2];
+            kept += 3;
+        }
+        pendingObjects.truncate(kept);
+    }
+
+    /**
+     * Removes the map objects of an evicted chunk and the enemies standing in it from the stores, the broadphase
+     * and the engine, and keeps which of its traps and keys were activated and which of its enemies are elsewhere.
+     */
+    private void despawn(int index) {
+        ContactComponent contacts = characterEntity != null ? ContactComponent.MAPPER.get(characterEntity) : null;
+        for (int i = streamedEnemies.size - 1; i >= 0; i--) {
+            Entity entity = streamedEnemies.get(i);
+            int home = enemyHomes.get(i);
+            int number = enemyNumbers.get(i);
+            PositionComponent.MAPPER.get(entity).getBounds(entityBounds);
+            int tileX = (int) ((entityBounds.x + entityBounds.width / 2) / MazeGrid.TILE_SIZE);
+            int tileY = (int) ((entityBounds.y + entityBounds.height / 2) / MazeGrid.TILE_SIZE);
+            if (chunkedMaze.getChunkIndex(tileX, tileY) == index) {
+                setAway(home, number, false);
+                removeEntity(entity, contacts);
+                streamedEnemies.removeIndex(i);
+                enemyHomes.removeIndex(i);
+                enemyNumbers.removeIndex(i);
+            } else if (home == index) {
+                setAway(home, number, true);
+            }
+        }
+        ChunkObjects objects = chunkObjects.remove(index);
+        spawnedChunks.clear(index);
+        if (objects == null) {
+            return;
+        }
+        long[] state = null;
+        int bit = 0;
+        for (Entity entity : objects.entities) {
+            PositionComponent position = PositionComponent.MAPPER.get(entity);
+            if (position.store == traps || position.store == keys) {
+                if (position.store.hasFlag(position.getSlot(), EntityStore.ACTIVATED)) {
+                    if (state == null) {
+                        state = new long[(objects.entities.size + 63) / 64];
+                    }
+                    state[bit >> 6] |= 1L << bit;
+                }
+                bit++;
+            }
+            removeEntity(entity, contacts);
+        }
+        if (state != null) {
+            chunkStates.put(index, state);
+        }
+        for (ExitPoint exitPoint : objects.exitPoints) {
+            exitPoints.removeValue(exitPoint, true);
+            collisionGrid.removeExit(exitPoint);
+        }
+    }
+
+    private void setAway(int home, int number, boolean away) {
+        long[] bits = awayEnemies.get(home);
+        if (bits == null) {
+            if (!away) {
+                return;
+            }
+            bits = new long[number / 64 + 1];
+            awayEnemies.put(home, bits);
+        } else if (bits.length <= number >> 6) {
+            if (!away) {
+                return;
+            }
+            bits = Arrays.copyOf(bits, number / 64 + 1);
+            awayEnemies.put(home, bits);
+        }
+        if (away) {
+            bits[number >> 6] |= 1L << number;
+        } else {
+            bits[number >> 6] &= ~(1L << number);
+        }
+    }
+
+    private void removeEntity(Entity entity, ContactComponent contacts) {
+        entityIndex.remove(entity);
+        engine.removeEntity(entity);
+        if (contacts != null) {
+            // The handle may be given to a new entity, so nothing may still refer to the removed one
+            contacts.touching.removeValue(entity, true);
+            contacts.touched.removeValue(entity, true);
+        }
+        PositionComponent position = PositionComponent.MAPPER.get(entity);
+        position.store.remove(position.handle);
+    }
+
+    /**
+     * Releases the map file of a streamed level.
+     */
+    public void dispose() {
+        if (chunkedMaze != null) {
+            chunkedMaze.dispose();
+        }
+    }
+
+    /**
+     * Gets the map file the level was loaded from.
+     *
+     * @return The map file.
+     */
+    public FileHandle getMapFile() {
+        return mapFile;
+    }
+
+    /**
+     * Gets the tiles of the maze.
+     *
+     * @return The tiles of the maze.
+     */
+    public TileMap getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets the collision index of the walls and exits. On a streamed map it only sees the resident chunks
+     * and reads all other tiles as walls.
+     *
+     * @return The collision grid of the maze.
+     */
+    public CollisionGrid getCollisionGrid() {
+        return collisionGrid;
+    }
+
+    /**
+     * Gets the hierarchical pathfinder of the maze. For mazes loaded as a whole it is set up while loading,
+     * for streamed mazes its sectors are set up as searches reach them.
+     *
+     * @return The hierarchical pathfinder.
+     */
+    public HierarchicalPathfinder getPathHierarchy() {
+        return pathHierarchy;
+    }
+
+    /**
+     * Gets the streamed maze, if the level is streamed.
+     *
+     * @return The streamed maze, or null if the whole maze is in memory.
+     */
+    public ChunkedMaze getChunkedMaze() {
+        return chunkedMaze;
+    }
+
+    /**
+     * Gets the number of keys that have to be collected to open the exit.
+     *
+     * @return The number of keys in the level.
+     */
+    public int getTotalKeys() {
+        return totalKeys;
+    }
+
+    public Array<Enemy> getEnemies() {
+        return enemies.getViews();
+    }
+
+    public Array<Trap> getTraps() {
+        return traps.getViews();
+    }
+
+    public Array<Coin> getKeys() {
+        return keys.getViews();
+    }
+
+    /**
+     * Gets the store that keeps the positions, directions and timers of the enemies.
+     * The slots of the store are the indices of {@link #getEnemies()}.
+     *
+     * @return The store of the enemies.
+     */
+    public EntityStore<Enemy> getEnemyStore() {
+        return enemies;
+    }
+
+    /**
+     * Gets the store that keeps the positions and activation states of the traps.
+     *
+     * @return The store of the traps.
+     */
+    public EntityStore<Trap> getTrapStore() {
+        return traps;
+    }
+
+    /**
+     * Gets the store that keeps the positions and activation states of the keys.
+     *
+     * @return The store of the keys.
+     */
+    public EntityStore<Coin> getKeyStore() {
+        return keys;
+    }
+
+    public Array<ExitPoint> getExitPoints() {
+        return exitPoints;
+    }
+
+    /**
+     * Gets the character the player controls.
+     *
+     * @return The character, or null if it was not created yet.
+     */
+    public Character getCharacter() {
+        return character;
+    }
+
+    /**
+     * Gets the entity of the character the player controls.
+     *
+     * @return The entity of the character, or null if it was not created yet.
+     */
+    public Entity getCharacterEntity() {
+        return characterEntity;
+    }
+
+    /**
+     * Gets the engine that holds the entities of the level. The systems are added by the {@link Simulation}.
+     *
+     * @return The engine.
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Gets the broadphase of the character, the enemies, the traps and the keys that have not been collected yet.
+     * Entities have to be put into it again whenever they move.
+     *
+     * @return The broadphase of the entities.
+     */
+    public SpatialHash<Entity> getEntityIndex() {
+        return entityIndex;
+    }
+
+    /**
+     * The ChunkObjects class holds the map objects created from one chunk of a streamed map, in the order they were
+     * found in.
+     */
+    private static class ChunkObjects {
+        final int index;
+        final Array<Entity> entities = new Array<>();
+        final Array<ExitPoint> exitPoints = new Array<>(0);
+
+        ChunkObjects(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * The EntityListener interface is told about every entity the level creates, before it is added to the engine,
+     * so components the game logic does not use, like the animations entities are drawn with, can be added to it.
+     */
+    public interface EntityListener {
+
+        /**
+         * Called when the level created an entity.
+         *
+         * @param entity The entity.
+         * @param tileId The tile the entity was created for, like {@link MazeGrid#ENEMY},
+         *               or {@link MazeGrid#ENTRY_POINT} for the character.
+         */
+        void entityCreated(Entity entity, int tileId);
+    }
+}
@@ -0,0 +1,60 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * The MovementSystem class moves the entities that have a velocity. Moves are swept against the cells of the maze
+ * one axis at a time, so entities slide along walls and cannot pass through them.
+ */
+public class MovementSystem extends TimedSystem {
+
+    /** Runs after the input is read and before the enemies look for the character. */
+    public static final int PRIORITY = 1;
+    private static final Family FAMILY = Family.all(PositionComponent.class, VelocityComponent.class, BoundsComponent.class).get();
+
+    private final CollisionGrid collisionGrid;
+    private final Rectangle bounds = new Rectangle();
+    private ImmutableArray<Entity> entities;
+
+    /**
+     * Constructs a MovementSystem.
+     *
+     * @param collisionGrid The walls and exits of the maze.
+     */
+    public MovementSystem(CollisionGrid collisionGrid) {
+        super("movement", PRIORITY);
+        this.collisionGrid = collisionGrid;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(FAMILY);
+    }
+
+    @Override
+    protected void run(float deltaTime) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            PositionComponent position = PositionComponent.MAPPER.get(entity);
+            VelocityComponent velocity = VelocityComponent.MAPPER.get(entity);
+            BoundsComponent boundsComponent = BoundsComponent.MAPPER.get(entity);
+            EntityStore<?> store = position.store;
+            int slot = position.getSlot();
+            float x = store.x[slot];
+            float y = store.y[slot];
+            float width = store.width[slot];
+            float height = store.height[slot];
+            store.prevX[slot] = x;
+            store.prevY[slot] = y;
+            x += collisionGrid.sweepX(x, y, width, height, velocity.x * deltaTime, boundsComponent.blockingFlags);
+            y += collisionGrid.sweepY(x, y, width, height, velocity.y * deltaTime, boundsComponent.blockingFlags);
+            store.x[slot] = x;
+            store.y[slot] = y;
+            boundsComponent.index.put(entity, bounds.set(x, y, width, height));
+        }
+    }
+}
@@ -0,0 +1,722 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.Arrays;
+
+/**
+ * The Pathfinder class finds shortest paths between two tiles of the maze for enemies that walk to their own goals.
+ * Every step costs the same, so by default it runs Jump Point Search: A* that jumps along straight corridors
+ * and only stops where a path could turn. Plain A* is kept for comparison.
+ * Found paths are kept in a cache of the most recently used ones, so enemies walking the same way share one search.
+ * The cache and its paths are set up in advance and the paths dropped from it are reused for later searches,
+ * so searching takes no new memory, except when a path is longer than any found before with the same storage.
+ * A path that is held on to can therefore change, which {@link Path#getVersion()} tells.
+ * Searches expand at most as many nodes per step as the node budget allows. A search that is not done when the
+ * budget is used up pauses and goes on with the budget of the next steps, before any new search is started,
+ * so many requests at once and long searches are spread over several steps instead of causing a long one.
+ * Requests are served in the order they are made, so the same requests always give the same results.
+ * Long paths can be handed to a {@link HierarchicalPathfinder}, which is much faster on huge mazes. Its searches
+ * cannot pause, so what they take beyond the budget is taken from the budget of the next steps.
+ */
+public class Pathfinder implements TileMap.TileListener {
+
+    /** The path returned when the goal cannot be reached. */
+    public static final Path NO_PATH = new Path();
+
+    private static final int[] STEP_X = {0, 0, -1, 1};
+    private static final int[] STEP_Y = {1, -1, 0, 0};
+    private static final int NONE = -1;
+    /** The number of tiles the paths of the cache have room for from the start. Longer paths make their arrays larger. */
+    private static final int INITIAL_PATH_LENGTH = 128;
+
+    private final CollisionGrid collisionGrid;
+    private final int blockingFlags;
+    private final int margin;
+    private final int nodeBudget;
+    private final int cacheSize;
+    // The cached paths by their start and goal, and a list of them from the most to the least recently used
+    private final LongMap<CacheEntry> cache;
+    private final Array<CacheEntry> freeEntries;
+    private final Array<Path> freePaths;
+    private CacheEntry newest;
+    private CacheEntry oldest;
+    private boolean jumpPointSearch = true;
+    private HierarchicalPathfinder hierarchy;
+    private int hierarchyDistance;
+
+    // The window of the current search; nodes are indexed relative to it
+    private int originX;
+    private int originY;
+    private int windowWidth;
+    private int windowHeight;
+    private int goalX;
+    private int goalY;
+
+    // Per node data of the searches. A node's data is only valid if its stamp matches the current search
+    private int[] stamps = new int[0];
+    private int[] costs = new int[0];
+    private int[] parents = new int[0];
+    private boolean[] closed = new boolean[0];
+    private int stamp;
+    // Whether a search was paused because the budget was used up, and the start and goal it was asked for
+    private boolean searching;
+    private long searchKey;
+
+    // The open list, a binary heap of nodes ordered by estimated total cost
+    private int[] heapNodes = new int[64];
+    private int[] heapScores = new int[64];
+    private int heapSize;
+
+    private int nodesLeft;
+    private int searches;
+    private int cacheHits;
+    private int nodesExpanded;
+    private int requestsDeferred;
+
+    /**
+     * Constructs a Pathfinder.
+     *
+     * @param collisionGrid The walls of the maze.
+     * @param blockingFlags The collision flags of the cells that cannot be walked through.
+     * @param cacheSize     How many paths are kept in the cache.
+     * @param margin        How far a search may leave the rectangle spanned by the start and the goal, in tiles.
+     *                      Keeps searches small on huge mazes; paths that need a longer detour are not found.
+     * @param nodeBudget    How many nodes may be expanded per frame before further searches are put off.
+     */
+    public Pathfinder(CollisionGrid collisionGrid, int blockingFlags, final int cacheSize, int margin, int nodeBudget) {
+        this.collisionGrid = collisionGrid;
+        this.blockingFlags = blockingFlags;
+        this.margin = margin;
+        this.nodeBudget = nodeBudget;
+        this.nodesLeft = nodeBudget;
+        this.cacheSize = cacheSize;
+        this.cache = new LongMap<>(cacheSize);
+        this.freeEntries = new Array<>(false, cacheSize);
+        // One more path than the cache holds, since a path is found before the oldest one is dropped
+        this.freePaths = new Array<>(false, cacheSize + 1);
+        for (int i = 0; i < cacheSize; i++) {
+            freeEntries.add(new CacheEntry());
+        }
+        for (int i = 0; i <= cacheSize; i++) {
+            Path path = new Path();
+            path.setLength(INITIAL_PATH_LENGTH);
+            freePaths.add(path);
+        }
+    }
+
+    /**
+     * Chooses between Jump Point Search and plain A*. Both find paths of the same length.
+     *
+     * @param jumpPointSearch True to use Jump Point Search, false to use plain A*.
+     */
+    public void setJumpPointSearch(boolean jumpPointSearch) {
+        if (this.jumpPointSearch != jumpPointSearch) {
+            this.jumpPointSearch = jumpPointSearch;
+            clearCache();
+        }
+    }
+
+    /**
+     * Hands the requests whose start and goal lie far apart to a hierarchical pathfinder.
+     *
+     * @param hierarchy         The hierarchical pathfinder, or null to search every path on the flat grid.
+     * @param hierarchyDistance The distance between start and goal, in tiles along both axes, from which on it is used.
+     */
+    public void setHierarchy(HierarchicalPathfinder hierarchy, int hierarchyDistance) {
+        this.hierarchy = hierarchy;
+        this.hierarchyDistance = hierarchyDistance;
+        clearCache();
+    }
+
+    /**
+     * Gets the path from one tile to another, from the cache or by searching it.
+     *
+     * @param startX The x-coordinate of the start in tiles.
+     * @param startY The y-coordinate of the start in tiles.
+     * @param goalX  The x-coordinate of the goal in tiles.
+     * @param goalY  The y-coordinate of the goal in tiles.
+     * @return The path, {@link #NO_PATH} if the goal cannot be reached,
+     *         or null if the search budget of this step is used up before the path was found
+     *         and the request should be made again later.
+     */
+    public Path findPath(int startX, int startY, int goalX, int goalY) {
+        long key = key(startX, startY, goalX, goalY);
+        CacheEntry entry = cache.get(key);
+        if (entry != null) {
+            cacheHits++;
+            unlink(entry);
+            linkNewest(entry);
+            return entry.path;
+        }
+        if (searching && nodesLeft > 0) {
+            // The paused search goes first; its path is kept for when it is asked for again
+            long pausedKey = searchKey;
+            Path path = continueSearch();
+            if (path != null) {
+                addToCache(pausedKey, path);
+                if (pausedKey == key) {
+                    return path;
+                }
+            }
+        }
+        if (nodesLeft <= 0 || searching) {
+            requestsDeferred++;
+            return null;
+        }
+        Path path;
+        if (hierarchy != null && Math.abs(goalX - startX) + Math.abs(goalY - startY) >= hierarchyDistance) {
+            searches++;
+            int expandedBefore = hierarchy.getNodesExpanded();
+            path = obtainPath();
+            if (!hierarchy.findPath(startX, startY, goalX, goalY, path)) {
+                freePath(path);
+                path = NO_PATH;
+            }
+            int expanded = hierarchy.getNodesExpanded() - expandedBefore;
+            nodesExpanded += expanded;
+            nodesLeft -= expanded;
+        } else {
+            path = search(key, startX, startY, goalX, goalY);
+            if (path == null) {
+                requestsDeferred++;
+                return null;
+            }
+        }
+        addToCache(key, path);
+        return path;
+    }
+
+    /**
+     * Gives the pathfinder a new search budget, less what a hierarchical search took beyond the last one.
+     * Called once per step.
+     */
+    public void resetBudget() {
+        nodesLeft = Math.min(nodesLeft, 0) + nodeBudget;
+    }
+
+    /**
+     * Drops all cached paths.
+     */
+    public void clearCache() {
+        for (CacheEntry entry = newest; entry != null; entry = entry.older) {
+            freePath(entry.path);
+            entry.path = null;
+            freeEntries.add(entry);
+        }
+        cache.clear();
+        newest = null;
+        oldest = null;
+        // A paused search may have been made for walls that changed since
+        searching = false;
+    }
+
+    /**
+     * Gets the number of searches run since the last call to {@link #resetStats()}.
+     *
+     * @return The number of searches.
+     */
+    public int getSearches() {
+        return searches;
+    }
+
+    /**
+     * Gets the number of requests answered from the cache since the last call to {@link #resetStats()}.
+     *
+     * @return The number of cache hits.
+     */
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Gets the number of nodes expanded by searches since the last call to {@link #resetStats()}.
+     *
+     * @return The number of nodes expanded.
+     */
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Gets the number of requests put off because the budget was used up since the last call to {@link #resetStats()}.
+     *
+     * @return The number of deferred requests.
+     */
+    public int getRequestsDeferred() {
+        return requestsDeferred;
+    }
+
+    /**
+     * Resets the counters.
+     */
+    public void resetStats() {
+        searches = 0;
+        cacheHits = 0;
+        nodesExpanded = 0;
+        requestsDeferred = 0;
+    }
+
+    @Override
+    public void tileChanged(int x, int y, int oldTileId, int newTileId) {
+        // Any cached path may run through the changed tile or now have a shorter way around it
+        if (CollisionGrid.isBlocking(oldTileId, blockingFlags) != CollisionGrid.isBlocking(newTileId, blockingFlags)) {
+            clearCache();
+        }
+    }
+
+    /**
+     * Caches a path that was just found. The least recently used path is dropped and its entry reused
+     * when the cache is full, so a full cache takes no new memory.
+     */
+    private void addToCache(long key, Path path) {
+        CacheEntry entry;
+        if (cache.size >= cacheSize) {
+            entry = oldest;
+            unlink(entry);
+            cache.remove(entry.key);
+            freePath(entry.path);
+        } else if (freeEntries.size > 0) {
+            entry = freeEntries.pop();
+        } else {
+            entry = new CacheEntry();
+        }
+        entry.key = key;
+        entry.path = path;
+        linkNewest(entry);
+        cache.put(key, entry);
+    }
+
+    /**
+     * Gets a path to fill, one that was dropped from the cache if there is one.
+     */
+    private Path obtainPath() {
+        return freePaths.size > 0 ? freePaths.pop() : new Path();
+    }
+
+    /**
+     * Takes back a path dropped from the cache, so its arrays are used again by a later search.
+     */
+    private void freePath(Path path) {
+        if (path != NO_PATH) {
+            path.version++;
+            freePaths.add(path);
+        }
+    }
+
+    private void linkNewest(CacheEntry entry) {
+        entry.newer = null;
+        entry.older = newest;
+        if (newest != null) {
+            newest.newer = entry;
+        } else {
+            oldest = entry;
+        }
+        newest = entry;
+    }
+
+    private void unlink(CacheEntry entry) {
+        if (entry.newer != null) {
+            entry.newer.older = entry.older;
+        } else {
+            newest = entry.older;
+        }
+        if (entry.older != null) {
+            entry.older.newer = entry.newer;
+        } else {
+            oldest = entry.newer;
+        }
+    }
+
+    /**
+     * Starts searching the path between two tiles.
+     *
+     * @return The path, {@link #NO_PATH}, or null if the search was paused because the budget is used up.
+     */
+    private Path search(long key, int startX, int startY, int goalX, int goalY) {
+        searches++;
+        prepareWindow(startX, startY, goalX, goalY);
+        if (isBlocked(startX, startY) || isBlocked(goalX, goalY)) {
+            return NO_PATH;
+        }
+        this.goalX = goalX;
+        this.goalY = goalY;
+        int start = node(startX, startY);
+        visit(start, 0, NONE);
+        push(start, heuristic(startX, startY));
+        searching = true;
+        searchKey = key;
+        return continueSearch();
+    }
+
+    /**
+     * Expands the nodes of the current search until it ends or the budget is used up.
+     *
+     * @return The path, {@link #NO_PATH}, or null if the search was paused because the budget is used up.
+     */
+    private Path continueSearch() {
+        int goal = node(goalX, goalY);
+        while (heapSize > 0) {
+            if (nodesLeft <= 0) {
+                return null;
+            }
+            int current = pop();
+            if (closed[current]) {
+                continue; // A stale entry of a node that was reached more cheaply later
+            }
+            if (current == goal) {
+                searching = false;
+                return buildPath(goal);
+            }
+            closed[current] = true;
+            nodesExpanded++;
+            nodesLeft--;
+            if (jumpPointSearch) {
+                expandJumpPoints(current);
+            } else {
+                expandNeighbours(current);
+            }
+        }
+        searching = false;
+        return NO_PATH;
+    }
+
+    /**
+     * Plain A*: looks at the four neighbours of a node.
+     */
+    private void expandNeighbours(int current) {
+        int x = tileX(current);
+        int y = tileY(current);
+        for (int direction = 0; direction < 4; direction++) {
+            int nextX = x + STEP_X[direction];
+            int nextY = y + STEP_Y[direction];
+            if (isFree(nextX, nextY)) {
+                relax(current, nextX, nextY, 1);
+            }
+        }
+    }
+
+    /**
+     * Jump Point Search: jumps from a node in the directions a shortest path can continue in.
+     * Paths are taken to move vertically first, so a vertical move may turn at every tile,
+     * while a horizontal move may only turn up or down where a wall behind it ends.
+     */
+    private void expandJumpPoints(int current) {
+        int x = tileX(current);
+        int y = tileY(current);
+        int parent = parents[current];
+        int directionX = 0;
+        int directionY = 0;
+        if (parent != NONE) {
+            directionX = Integer.signum(x - tileX(parent));
+            directionY = Integer.signum(y - tileY(parent));
+        }
+        for (int direction = 0; direction < 4; direction++) {
+            int stepX = STEP_X[direction];
+            int stepY = STEP_Y[direction];
+            if (parent != NONE && !isNaturalOrForced(x, y, directionX, directionY, stepX, stepY)) {
+                continue;
+            }
+            int jumpPoint = stepX != 0 ? jumpHorizontally(x, y, stepX) : jumpVertically(x, y, stepY);
+            if (jumpPoint != NONE) {
+                int jumpX = tileX(jumpPoint);
+                int jumpY = tileY(jumpPoint);
+                relax(current, jumpX, jumpY, Math.abs(jumpX - x) + Math.abs(jumpY - y));
+            }
+        }
+    }
+
+    /**
+     * Checks if a shortest path arriving in the given direction may continue in the given step.
+     */
+    private boolean isNaturalOrForced(int x, int y, int directionX, int directionY, int stepX, int stepY) {
+        if (stepX == -directionX && stepY == -directionY) {
+            return false; // Never go back
+        }
+        if (directionY != 0 || stepX == directionX && stepY == directionY) {
+            return true; // Vertical moves may continue in every direction, horizontal moves straight on
+        }
+        // A horizontal move may only turn where the tile behind it on that side is blocked
+        return isBlocked(x - directionX, y + stepY);
+    }
+
+    /**
+     * Moves horizontally until reaching the goal, a tile where the path may turn, or a wall.
+     */
+    private int jumpHorizontally(int x, int y, int stepX) {
+        while (true) {
+            x += stepX;
+            if (!isFree(x, y)) {
+                return NONE;
+            }
+            if (x == goalX && y == goalY) {
+                return node(x, y);
+            }
+            // A tile above or below that could not be reached straight from behind forces a stop here
+            if (isFree(x, y + 1) && isBlocked(x - stepX, y + 1) || isFree(x, y - 1) && isBlocked(x - stepX, y - 1)) {
+                return node(x, y);
+            }
+        }
+    }
+
+    /**
+     * Moves vertically until reaching the goal, a wall, or a tile from which a horizontal jump finds something.
+     */
+    private int jumpVertically(int x, int y, int stepY) {
+        while (true) {
+            y += stepY;
+            if (!isFree(x, y)) {
+                return NONE;
+            }
+            if (x == goalX && y == goalY
+                    || jumpHorizontally(x, y, -1) != NONE || jumpHorizontally(x, y, 1) != NONE) {
+                return node(x, y);
+            }
+        }
+    }
+
+    /**
+     * Reaches a tile from the current node and keeps the cheaper way to it.
+     */
+    private void relax(int current, int x, int y, int stepCost) {
+        int next = node(x, y);
+        int cost = costs[current] + stepCost;
+        if (stamps[next] == stamp && (closed[next] || costs[next] <= cost)) {
+            return;
+        }
+        visit(next, cost, current);
+        push(next, cost + heuristic(x, y));
+    }
+
+    private void visit(int node, int cost, int parent) {
+        stamps[node] = stamp;
+        costs[node] = cost;
+        parents[node] = parent;
+        closed[node] = false;
+    }
+
+    /**
+     * Follows the parents back from the goal and fills in the tiles between jump points.
+     */
+    private Path buildPath(int goal) {
+        int length = costs[goal] + 1;
+        Path path = obtainPath();
+        path.setLength(length);
+        int[] xs = path.xs;
+        int[] ys = path.ys;
+        int index = length - 1;
+        int node = goal;
+        xs[index] = tileX(node);
+        ys[index] = tileY(node);
+        while (parents[node] != NONE) {
+            int parent = parents[node];
+            int x = tileX(node);
+            int y = tileY(node);
+            int stepX = Integer.signum(tileX(parent) - x);
+            int stepY = Integer.signum(tileY(parent) - y);
+            while (x != tileX(parent) || y != tileY(parent)) {
+                x += stepX;
+                y += stepY;
+                index--;
+                xs[index] = x;
+                ys[index] = y;
+            }
+            node = parent;
+        }
+        return path;
+    }
+
+    /**
+     * Places the search window around the start and the goal and makes sure the node arrays are large enough.
+     */
+    private void prepareWindow(int startX, int startY, int goalX, int goalY) {
+        originX = Math.max(0, Math.min(startX, goalX) - margin);
+        originY = Math.max(0, Math.min(startY, goalY) - margin);
+        windowWidth = Math.min(collisionGrid.getWidth(), Math.max(startX, goalX) + margin + 1) - originX;
+        windowHeight = Math.min(collisionGrid.getHeight(), Math.max(startY, goalY) + margin + 1) - originY;
+        int size = windowWidth * windowHeight;
+        if (stamps.length < size) {
+            stamps = new int[size];
+            costs = new int[size];
+            parents = new int[size];
+            closed = new boolean[size];
+            stamp = 0;
+        }
+        stamp++;
+        heapSize = 0;
+    }
+
+    private int heuristic(int x, int y) {
+        return Math.abs(goalX - x) + Math.abs(goalY - y);
+    }
+
+    private boolean isFree(int x, int y) {
+        return x >= originX && y >= originY && x < originX + windowWidth && y < originY + windowHeight
+                && (collisionGrid.getFlags(x, y) & blockingFlags) == 0;
+    }
+
+    private boolean isBlocked(int x, int y) {
+        return !isFree(x, y);
+    }
+
+    private int node(int x, int y) {
+        return (y - originY) * windowWidth + (x - originX);
+    }
+
+    private int tileX(int node) {
+        return originX + node % windowWidth;
+    }
+
+    private int tileY(int node) {
+        return originY + node / windowWidth;
+    }
+
+    private long key(int startX, int startY, int goalX, int goalY) {
+        int width = collisionGrid.getWidth();
+        return ((long) (startY * width + startX) << 32) | ((goalY * width + goalX) & 0xFFFFFFFFL);
+    }
+
+    private void push(int node, int score) {
+        if (heapSize == heapNodes.length) {
+            heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            heapScores = Arrays.copyOf(heapScores, heapSize * 2);
+        }
+        int index = heapSize++;
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heapScores[parent] <= score) {
+                break;
+            }
+            heapNodes[index] = heapNodes[parent];
+            heapScores[index] = heapScores[parent];
+            index = parent;
+        }
+        heapNodes[index] = node;
+        heapScores[index] = score;
+    }
+
+    private int pop() {
+        int top = heapNodes[0];
+        heapSize--;
+        int node = heapNodes[heapSize];
+        int score = heapScores[heapSize];
+        int index = 0;
+        while (true) {
+            int child = index * 2 + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapScores[child + 1] < heapScores[child]) {
+                child++;
+            }
+            if (heapScores[child] >= score) {
+                break;
+            }
+            heapNodes[index] = heapNodes[child];
+            heapScores[index] = heapScores[child];
+            index = child;
+        }
+        heapNodes[index] = node;
+        heapScores[index] = score;
+        return top;
+    }
+
+    /**
+     * A cached path, linked to the paths used just before and after it.
+     */
+    private static class CacheEntry {
+        long key;
+        Path path;
+        CacheEntry newer;
+        CacheEntry older;
+    }
+
+    /**
+     * The Path class is a found path: the tiles from the start to the goal, both included, each next to the one before.
+     */
+    public static class Path {
+        private int[] xs = new int[0];
+        private int[] ys = new int[0];
+        private int length;
+        private int version;
+
+        Path() {
+        }
+
+        /**
+         * Sets the number of tiles on the path, making the arrays larger if they are too small.
+         * The tiles are set afterwards with {@link #set(int, int, int)}.
+         */
+        void setLength(int length) {
+            if (xs.length < length) {
+                xs = new int[length];
+                ys = new int[length];
+            }
+            this.length = length;
+        }
+
+        /**
+         * Sets a tile on the path.
+         */
+        void set(int index, int x, int y) {
+            xs[index] = x;
+            ys[index] = y;
+        }
+
+        /**
+         * Gets the number of tiles on the path.
+         *
+         * @return The number of tiles, 0 if no path was found.
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * Gets the version of the path, which changes when the pathfinder drops it from its cache
+         * and reuses it for another path. Whoever keeps a path can compare it to see whether the path still holds.
+         *
+         * @return The version.
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Gets the x-coordinate of a tile on the path.
+         *
+         * @param index The index of the tile, 0 being the start.
+         * @return The x-coordinate in tiles.
+         */
+        public int getX(int index) {
+            return xs[index];
+        }
+
+        /**
+         * Gets the y-coordinate of a tile on the path.
+         *
+         * @param index The index of the tile, 0 being the start.
+         * @return The y-coordinate in tiles.
+         */
+        public int getY(int index) {
+            return ys[index];
+        }
+
+        /**
+         * Finds a tile on the path.
+         *
+         * @param x The x-coordinate in tiles.
+         * @param y The y-coordinate in tiles.
+         * @return The index of the tile, or -1 if it is not on the path.
+         */
+        public int indexOf(int x, int y) {
+            for (int i = 0; i < length; i++) {
+                if (xs[i] == x && ys[i] == y) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The PatrolBehaviour class makes an enemy walk between waypoints, one after the other, on the paths
+ * found by the {@link Pathfinder}. While its path is not found yet the enemy walks around randomly.
+ * Waypoints that cannot be reached are skipped. A path the pathfinder has reused for another one since is looked up again.
+ * Every enemy needs its own instance, since it remembers the next waypoint.
+ */
+public class PatrolBehaviour implements EnemyBehaviour {
+
+    private final Pathfinder pathfinder;
+    private final int[] waypointsX;
+    private final int[] waypointsY;
+    private int waypoint;
+    private Pathfinder.Path path;
+    private int pathVersion;
+
+    /**
+     * Constructs a PatrolBehaviour.
+     *
+     * @param pathfinder The pathfinder to find the paths between the waypoints.
+     * @param waypointsX The x-coordinates of the waypoints in tiles.
+     * @param waypointsY The y-coordinates of the waypoints in tiles, as many as x-coordinates.
+     */
+    public PatrolBehaviour(Pathfinder pathfinder, int[] waypointsX, int[] waypointsY) {
+        this.pathfinder = pathfinder;
+        this.waypointsX = waypointsX;
+        this.waypointsY = waypointsY;
+    }
+
+    @Override
+    public int nextStep(Enemy enemy, int tileX, int tileY) {
+        if (tileX == waypointsX[waypoint] && tileY == waypointsY[waypoint]) {
+            waypoint = (waypoint + 1) % waypointsX.length;
+            path = null;
+        }
+        return followPath(tileX, tileY, waypointsX[waypoint], waypointsY[waypoint]);
+    }
+
+    @Override
+    public boolean isParallelSafe() {
+        return false;
+    }
+
+    /**
+     * Finds the direction of the next step along the path to a goal, looking the path up again
+     * if the enemy was pushed off it.
+     *
+     * @return The direction, or -1 if there is no path yet.
+     */
+    private int followPath(int tileX, int tileY, int goalX, int goalY) {
+        int index = path != null && path.getVersion() == pathVersion ? path.indexOf(tileX, tileY) : -1;
+        if (index < 0) {
+            path = pathfinder.findPath(tileX, tileY, goalX, goalY);
+            if (path == null) {
+                return -1; // The search was put off to a later frame
+            }
+            if (path == Pathfinder.NO_PATH) {
+                // The waypoint cannot be reached from here, so try the next one
+                waypoint = (waypoint + 1) % waypointsX.length;
+                return -1;
+            }
+            pathVersion = path.getVersion();
+            index = 0;
+        }
+        return stepTowards(path, index);
+    }
+
+    /**
+     * Finds the direction from a tile on a path to the tile after it.
+     *
+     * @param path  The path.
+     * @param index The index of the current tile on the path.
+     * @return The direction, or -1 if the tile is the last one.
+     */
+    static int stepTowards(Pathfinder.Path path, int index) {
+        if (index + 1 >= path.getLength()) {
+            return -1;
+        }
+        int stepX = path.getX(index + 1) - path.getX(index);
+        int stepY = path.getY(index + 1) - path.getY(index);
+        if (stepX != 0) {
+            return stepX > 0 ? FlowField.RIGHT : FlowField.LEFT;
+        }
+        return stepY > 0 ? FlowField.UP : FlowField.DOWN;
+    }
+}
@@ -0,0 +1,58 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * The PositionComponent class places an entity in the world. The position, the position before the last step,
+ * the size and the direction of the entity are kept in an {@link EntityStore}; the component only says where.
+ */
+public class PositionComponent implements Component {
+
+    public static final ComponentMapper<PositionComponent> MAPPER = ComponentMapper.getFor(PositionComponent.class);
+
+    /** The store that keeps the data of the entity. */
+    public final EntityStore<?> store;
+    /** The handle of the entity in the store. */
+    public final int handle;
+
+    /**
+     * Constructs a PositionComponent.
+     *
+     * @param store  The store that keeps the data of the entity.
+     * @param handle The handle of the entity in the store.
+     */
+    public PositionComponent(EntityStore<?> store, int handle) {
+        this.store = store;
+        this.handle = handle;
+    }
+
+    /**
+     * Gets the slot the entity is in at the moment.
+     *
+     * @return The slot of the entity in the store.
+     */
+    public int getSlot() {
+        return store.getSlot(handle);
+    }
+
+    /**
+     * Gets the view of the entity, like an {@link Enemy}.
+     *
+     * @return The view of the entity.
+     */
+    public Object getView() {
+        return store.getViews().get(getSlot());
+    }
+
+    /**
+     * Copies the bounds of the entity into a rectangle.
+     *
+     * @param bounds The rectangle to set.
+     * @return The given rectangle.
+     */
+    public Rectangle getBounds(Rectangle bounds) {
+        return store.getBounds(getSlot(), bounds);
+    }
+}
@@ -0,0 +1,256 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The Replay class records the buttons held down in every step of a game, so the game can be played again exactly.
+ * The game logic runs in fixed steps and takes its random numbers from the seed of the level, so the same map, seed,
+ * start and buttons give the same game, however fast or slow it is played back and whether it is drawn or not.
+ * <p>
+ * The buttons are kept as runs of steps with the same buttons, since players hold keys for many steps at a time.
+ * A file holds a header, then one byte of buttons and a variable-length number of steps per run, so a game of
+ * several minutes takes a few kilobytes. When the game ended, the number of steps, the outcome and a checksum of
+ * the state at the end are stored too, so a replay played again tells if the game logic still behaves the same.
+ * Maps that are streamed in chunks create their objects as the chunks arrive, so their replays are not exact.
+ */
+public class Replay {
+
+    // The outcomes of a game
+    public static final byte UNFINISHED = 0;
+    public static final byte WON = 1;
+    public static final byte LOST = 2;
+
+    private static final int MAGIC = 0x4D5A5250; // "MZRP"
+    private static final int VERSION = 1;
+
+    private final String mapPath;
+    private final long seed;
+    private final float startX;
+    private final float startY;
+    private final int startHealth;
+    // The buttons of each run and the number of steps recorded up to the end of each run
+    private final ByteArray runButtons = new ByteArray();
+    private final IntArray runEnds = new IntArray();
+    private int steps;
+    private byte outcome = UNFINISHED;
+    private int checksum;
+
+    /**
+     * Constructs an empty Replay of a game.
+     *
+     * @param mapPath     The path of the map file.
+     * @param seed        The seed of the level, see {@link MazeLevel#setSeed(long)}.
+     * @param startX      The x-coordinate the character starts at.
+     * @param startY      The y-coordinate the character starts at.
+     * @param startHealth The health the character starts with.
+     */
+    public Replay(String mapPath, long seed, float startX, float startY, int startHealth) {
+        this.mapPath = mapPath;
+        this.seed = seed;
+        this.startX = startX;
+        this.startY = startY;
+        this.startHealth = startHealth;
+    }
+
+    /**
+     * Adds the buttons held down in the next step.
+     *
+     * @param buttons A combination of the buttons of {@link InputComponent}.
+     */
+    public void record(int buttons) {
+        if (runButtons.size > 0 && runButtons.peek() == buttons) {
+            runEnds.incr(runEnds.size - 1, 1);
+        } else {
+            runButtons.add((byte) buttons);
+            runEnds.add(steps + 1);
+        }
+        steps++;
+    }
+
+    /**
+     * Stores how the game ended and a checksum of its state at the end.
+     *
+     * @param simulation The game, after its last step.
+     */
+    public void finish(Simulation simulation) {
+        outcome = simulation.isWon() ? WON : simulation.isLost() ? LOST : UNFINISHED;
+        checksum = simulation.getChecksum();
+    }
+
+    /**
+     * Gets the buttons held down in a step.
+     *
+     * @param step The number of the step, counted from 0.
+     * @return The buttons, or none after the last recorded step.
+     */
+    public int getButtons(long step) {
+        if (step < 0 || step >= steps) {
+            return 0;
+        }
+        // The first run that ends after the step
+        int low = 0;
+        int high = runEnds.size - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (runEnds.get(middle) > step) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return runButtons.get(low);
+    }
+
+    /**
+     * Finds the map of the replay: at its path, or else a file of the same name in the given directory.
+     *
+     * @param directory The directory to look in if the map is not found at its path, or null.
+     * @return The map file, or null if it is found nowhere.
+     */
+    public FileHandle findMap(FileHandle directory) {
+        FileHandle mapFile = new FileHandle(mapPath);
+        if (mapFile.exists()) {
+            return mapFile;
+        }
+        if (directory != null && directory.child(mapFile.name()).exists()) {
+            return directory.child(mapFile.name());
+        }
+        return null;
+    }
+
+    /**
+     * Writes the replay to a file.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(FileHandle file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(file.write(false, 8192))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(mapPath);
+            out.writeLong(seed);
+            out.writeFloat(startX);
+            out.writeFloat(startY);
+            out.writeInt(startHealth);
+            out.writeInt(steps);
+            out.writeByte(outcome);
+            out.writeInt(checksum);
+            out.writeInt(runButtons.size);
+            int start = 0;
+            for (int i = 0; i < runButtons.size; i++) {
+                out.writeByte(runButtons.get(i));
+                writeVarInt(out, runEnds.get(i) - start);
+                start = runEnds.get(i);
+            }
+        }
+    }
+
+    /**
+     * Reads a replay from a file.
+     *
+     * @param file The file to read.
+     * @return The replay.
+     * @throws IOException If the file cannot be read or is not a replay.
+     */
+    public static Replay read(FileHandle file) throws IOException {
+        try (DataInputStream in = new DataInputStream(file.read(8192))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file.name() + " is not a replay");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException(file.name() + " has the unknown replay version " + version);
+            }
+            Replay replay = new Replay(in.readUTF(), in.readLong(), in.readFloat(), in.readFloat(), in.readInt());
+            int steps = in.readInt();
+            replay.outcome = in.readByte();
+            replay.checksum = in.readInt();
+            int runs = in.readInt();
+            replay.runButtons.ensureCapacity(runs);
+            replay.runEnds.ensureCapacity(runs);
+            for (int i = 0; i < runs; i++) {
+                replay.runButtons.add(in.readByte());
+                replay.steps += readVarInt(in);
+                replay.runEnds.add(replay.steps);
+            }
+            if (replay.steps != steps) {
+                throw new IOException(file.name() + " is damaged: " + replay.steps + " of " + steps + " steps found");
+            }
+            return replay;
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid step count in replay");
+    }
+
+    public String getMapPath() {
+        return mapPath;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public float getStartX() {
+        return startX;
+    }
+
+    public float getStartY() {
+        return startY;
+    }
+
+    public int getStartHealth() {
+        return startHealth;
+    }
+
+    /**
+     * Gets the number of steps recorded.
+     *
+     * @return The number of steps.
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Gets how the recorded game ended.
+     *
+     * @return {@link #WON}, {@link #LOST} or {@link #UNFINISHED}.
+     */
+    public byte getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Gets the checksum of the state at the end of the recorded game, see {@link Simulation#getChecksum()}.
+     *
+     * @return The checksum.
+     */
+    public int getChecksum() {
+        return checksum;
+    }
+}
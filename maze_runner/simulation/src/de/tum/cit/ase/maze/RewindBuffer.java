@@ -0,0 +1,328 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * The RewindBuffer class keeps the state of the last seconds of a game, so the game can be turned back in time.
+ * After every step a snapshot is taken: the position, direction, health and keys of the character, the positions,
+ * directions and flags of the enemies and which traps and keys are activated. The snapshots are plain numbers
+ * written into a few arrays that are allocated once and used as a ring, so the oldest snapshot is overwritten by
+ * the newest one, taking a snapshot takes no new memory, and going back any number of steps finds its snapshot
+ * without searching.
+ * <p>
+ * The buffer holds as many seconds as it is asked to, or as many as fit into its memory budget if that is less.
+ * A snapshot takes 9 bytes per enemy and a bit per trap and key, so a level with a thousand enemies
+ * keeps 10 seconds in about 11 MB.
+ * <p>
+ * What the enemies plan, like the path a patrolling enemy follows and its random numbers, is not part of a snapshot;
+ * the enemies go on from where they are put back to. A game that was turned back therefore does not play the same
+ * way again, and its recording is stopped, see {@link Simulation#setRecording(Replay)}.
+ * Streamed maps add and remove enemies, traps and keys as their chunks arrive and leave, which moves them to other
+ * slots of their stores; the snapshots taken before are then dropped and the arrays are sized anew.
+ */
+public class RewindBuffer {
+
+    /** The entities whose position is kept in the broadphase, which has to follow them when they are put back. */
+    private static final Family FAMILY = Family.all(PositionComponent.class, BoundsComponent.class).get();
+    /** The number of ints in one snapshot: the health and the keys of the character. */
+    private static final int INT_STRIDE = 2;
+
+    private final Simulation simulation;
+    private final Character character;
+    private final Entity characterEntity;
+    private final EntityStore<?> players;
+    private final EntityStore<Enemy> enemies;
+    private final EntityStore<Trap> traps;
+    private final EntityStore<Coin> keys;
+    private final ImmutableArray<Entity> entities;
+    private final Rectangle bounds = new Rectangle();
+    private final float seconds;
+    private final long memoryBudget;
+
+    // The number of entities the snapshots are laid out for, and the changes of the stores at that time
+    private int storeChanges;
+    private int enemyCount;
+    private int trapCount;
+    private int keyCount;
+    // The number of values of each type in one snapshot
+    private int floatStride;
+    private int byteStride;
+    private int capacity;
+    // The snapshots, one after the other: the floats hold the positions of the character and the enemies,
+    // the bytes their directions and flags followed by one bit per trap and key, the ints the health and the keys
+    // of the character
+    private float[] floats = new float[0];
+    private byte[] bytes = new byte[0];
+    private int[] ints = new int[0];
+    private long[] steps = new long[0];
+    // The slot the next snapshot is written to and the number of snapshots held
+    private int head;
+    private int size;
+    private long captureNanos;
+    private int captures;
+
+    /**
+     * Constructs a RewindBuffer for a game. Snapshots are taken once it is set in the simulation with
+     * {@link Simulation#setRewindBuffer(RewindBuffer)}.
+     *
+     * @param simulation   The game.
+     * @param seconds      How many seconds of the game to keep at most.
+     * @param memoryBudget How many bytes the snapshots may take at most. At least one snapshot is always kept.
+     */
+    public RewindBuffer(Simulation simulation, float seconds, long memoryBudget) {
+        this.simulation = simulation;
+        this.seconds = seconds;
+        this.memoryBudget = memoryBudget;
+        MazeLevel level = simulation.getLevel();
+        this.character = simulation.getCharacter();
+        this.characterEntity = simulation.getCharacterEntity();
+        this.players = PositionComponent.MAPPER.get(characterEntity).store;
+        this.enemies = level.getEnemyStore();
+        this.traps = level.getTrapStore();
+        this.keys = level.getKeyStore();
+        this.entities = simulation.getEngine().getEntitiesFor(FAMILY);
+        layOut();
+    }
+
+    /**
+     * Sizes the snapshots for the entities of the level and allocates as many as the time and the budget allow.
+     * The snapshots held so far are dropped.
+     */
+    private void layOut() {
+        storeChanges = countChanges();
+        enemyCount = enemies.size();
+        trapCount = traps.size();
+        keyCount = keys.size();
+        floatStride = 2 + 2 * enemyCount;
+        byteStride = 1 + enemyCount + (trapCount + keyCount + 7) / 8;
+        long wanted = (long) Math.ceil(seconds / Simulation.STEP);
+        capacity = (int) Math.max(1, Math.min(wanted, memoryBudget / getSnapshotBytes()));
+        if (floats.length < capacity * floatStride) {
+            floats = new float[capacity * floatStride];
+        }
+        if (bytes.length < capacity * byteStride) {
+            bytes = new byte[capacity * byteStride];
+        }
+        if (ints.length < capacity * INT_STRIDE) {
+            ints = new int[capacity * INT_STRIDE];
+        }
+        if (steps.length < capacity) {
+            steps = new long[capacity];
+        }
+        clear();
+    }
+
+    /**
+     * Drops all snapshots.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Takes a snapshot of the game as it is now, in place of the oldest one if the buffer is full.
+     * Called by the simulation after every step.
+     */
+    public void capture() {
+        long start = System.nanoTime();
+        if (countChanges() != storeChanges) {
+            layOut();
+        }
+        int frame = head;
+        steps[frame] = simulation.getSteps();
+        int f = frame * floatStride;
+        int b = frame * byteStride;
+        int i = frame * INT_STRIDE;
+        int slot = players.getSlot(character.getHandle());
+        floats[f++] = players.x[slot];
+        floats[f++] = players.y[slot];
+        bytes[b++] = pack(players.direction[slot], players.flags[slot]);
+        ints[i++] = character.getHealth();
+        ints[i] = character.getCollectedKeys();
+        // The stores keep the entities densely by slot, so the enemies are copied in one pass
+        for (slot = 0; slot < enemyCount; slot++) {
+            floats[f++] = enemies.x[slot];
+            floats[f++] = enemies.y[slot];
+            bytes[b++] = pack(enemies.direction[slot], enemies.flags[slot]);
+        }
+        int bit = 0;
+        for (slot = 0; slot < trapCount; slot++, bit++) {
+            setBit(b, bit, traps.hasFlag(slot, EntityStore.ACTIVATED));
+        }
+        for (slot = 0; slot < keyCount; slot++, bit++) {
+            setBit(b, bit, keys.hasFlag(slot, EntityStore.ACTIVATED));
+        }
+        head = (head + 1) % capacity;
+        size = Math.min(size + 1, capacity);
+        captureNanos += System.nanoTime() - start;
+        captures++;
+    }
+
+    /**
+     * Turns the game back by a number of steps and drops the snapshots taken after the one put back.
+     * The game cannot be turned back further than the oldest snapshot.
+     *
+     * @param stepsBack How many steps to go back.
+     * @return How many steps the game was turned back, 0 if there was nothing to go back to.
+     */
+    public int rewind(int stepsBack) {
+        if (size == 0) {
+            return 0;
+        }
+        int back = Math.min(Math.max(stepsBack, 0), size - 1);
+        int frame = Math.floorMod(head - 1 - back, capacity);
+        restore(frame);
+        head = (frame + 1) % capacity;
+        size -= back;
+        return back;
+    }
+
+    /**
+     * Puts the game back into the state of a snapshot.
+     */
+    private void restore(int frame) {
+        int f = frame * floatStride;
+        int b = frame * byteStride;
+        int i = frame * INT_STRIDE;
+        int slot = players.getSlot(character.getHandle());
+        // The previous positions are set too, so nothing is drawn between the present and the past
+        players.x[slot] = players.prevX[slot] = floats[f++];
+        players.y[slot] = players.prevY[slot] = floats[f++];
+        players.direction[slot] = direction(bytes[b]);
+        players.flags[slot] = flags(bytes[b++]);
+        character.setHealth(ints[i++]);
+        character.setCollectedKeys(ints[i]);
+        for (slot = 0; slot < enemyCount; slot++) {
+            enemies.x[slot] = enemies.prevX[slot] = floats[f++];
+            enemies.y[slot] = enemies.prevY[slot] = floats[f++];
+            enemies.direction[slot] = direction(bytes[b]);
+            enemies.flags[slot] = flags(bytes[b++]);
+        }
+        int bit = 0;
+        for (slot = 0; slot < trapCount; slot++, bit++) {
+            traps.setFlag(slot, EntityStore.ACTIVATED, getBit(b, bit));
+        }
+        for (slot = 0; slot < keyCount; slot++, bit++) {
+            keys.setFlag(slot, EntityStore.ACTIVATED, getBit(b, bit));
+        }
+        // Moved entities are moved in the broadphase as well, and collected keys are taken out of it like when
+        // they are picked up, while keys that are not collected any more are put back
+        for (int e = 0; e < entities.size(); e++) {
+            Entity entity = entities.get(e);
+            PositionComponent position = PositionComponent.MAPPER.get(entity);
+            SpatialHash<Entity> index = BoundsComponent.MAPPER.get(entity).index;
+            if (position.store == keys && keys.hasFlag(position.getSlot(), EntityStore.ACTIVATED)) {
+                index.remove(entity);
+            } else if (position.store != traps) {
+                index.put(entity, position.getBounds(bounds));
+            }
+        }
+        // The touches of the present did not happen in the past; traps touched then are marked activated already
+        ContactComponent contacts = ContactComponent.MAPPER.get(characterEntity);
+        contacts.touching.clear();
+        contacts.touched.clear();
+        simulation.rewound(steps[frame]);
+    }
+
+    private int countChanges() {
+        return enemies.getChanges() + traps.getChanges() + keys.getChanges();
+    }
+
+    private static byte pack(byte direction, byte flags) {
+        return (byte) (direction & 0x0F | flags << 4);
+    }
+
+    private static byte direction(byte packed) {
+        return (byte) (packed & 0x0F);
+    }
+
+    private static byte flags(byte packed) {
+        return (byte) ((packed & 0xF0) >> 4);
+    }
+
+    private void setBit(int offset, int bit, boolean value) {
+        int index = offset + (bit >> 3);
+        int mask = 1 << (bit & 7);
+        bytes[index] = (byte) (value ? bytes[index] | mask : bytes[index] & ~mask);
+    }
+
+    private boolean getBit(int offset, int bit) {
+        return (bytes[offset + (bit >> 3)] & 1 << (bit & 7)) != 0;
+    }
+
+    /**
+     * Gets the number of snapshots held, one per step.
+     *
+     * @return The number of snapshots.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of snapshots the buffer holds when it is full.
+     *
+     * @return The capacity in snapshots.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets how far back the game can be turned now.
+     *
+     * @return The time in seconds of game time.
+     */
+    public float getSecondsHeld() {
+        return Math.max(0, size - 1) * Simulation.STEP;
+    }
+
+    /**
+     * Gets the size of one snapshot.
+     *
+     * @return The size in bytes.
+     */
+    public int getSnapshotBytes() {
+        return floatStride * Float.BYTES + byteStride + INT_STRIDE * Integer.BYTES + Long.BYTES;
+    }
+
+    /**
+     * Gets the memory taken by the snapshots.
+     *
+     * @return The size of the arrays in bytes.
+     */
+    public long getMemoryUsed() {
+        return (long) floats.length * Float.BYTES + bytes.length + (long) ints.length * Integer.BYTES
+                + (long) steps.length * Long.BYTES;
+    }
+
+    /**
+     * Gets the time spent taking snapshots since the last call to {@link #resetStats()}.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getCaptureNanos() {
+        return captureNanos;
+    }
+
+    /**
+     * Gets the number of snapshots taken since the last call to {@link #resetStats()}.
+     *
+     * @return The number of snapshots.
+     */
+    public int getCaptures() {
+        return captures;
+    }
+
+    /**
+     * Resets the time spent taking snapshots.
+     */
+    public void resetStats() {
+        captureNanos = 0;
+        captures = 0;
+    }
+}
@@ -0,0 +1,555 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * The Simulation class runs the game logic of a level: it owns the systems of the level's engine, the flow field and
+ * the pathfinder the enemies use, and the rules that decide when the level is won or lost.
+ * It advances in fixed steps of {@link #STEP} seconds and needs neither a window nor OpenGL nor an input device,
+ * so it runs just as well under the game screen, which only draws it and passes the keys on,
+ * as in tools and servers that run thousands of steps per second.
+ * <p>
+ * The buttons the player holds down are set before each step with {@link #setButtons(int)}, or come from a
+ * {@link Replay}, and what happens is told to a {@link GameListener}. The last seconds of the game can be kept in a
+ * {@link RewindBuffer} to turn it back. The level stays owned by the caller and is not disposed with the simulation.
+ * <p>
+ * A simulation is deterministic: the same level, seed, start and buttons in every step give the same game,
+ * no matter how many steps run per frame or on how many threads the enemies are updated. Only the view center
+ * from {@link #setViewCenter(float, float)} and streamed maps bring in what happens outside the steps.
+ */
+public class Simulation implements TriggerSystem.TriggerListener, MazeLevel.EntityListener, Disposable {
+
+    /** The length of one step of the game logic in seconds. */
+    public static final float STEP = 1f / 120;
+    /** How far the flow field towards the character reaches, in tiles. */
+    private static final int FLOW_FIELD_RADIUS = 128;
+    /** How far away the character can be, in tiles of walking distance, to be chased by enemies. */
+    private static final int CHASE_DISTANCE = 20;
+    /** How many paths of patrolling and guarding enemies are cached. */
+    private static final int PATH_CACHE_SIZE = 256;
+    /** How far a path search may leave the rectangle spanned by its start and goal, in tiles. */
+    private static final int PATH_SEARCH_MARGIN = 32;
+    /** How many nodes path searches may expand per frame before further searches wait for the next frame. */
+    private static final int PATH_NODE_BUDGET = 4000;
+    /** From which distance between start and goal, in tiles, paths are found with the hierarchical pathfinder. */
+    private static final int HIERARCHY_DISTANCE = 64;
+    /** How far away from the character and the camera, in tiles, enemies are updated every step by default. */
+    public static final float LOD_NEAR_DISTANCE = 24;
+    /** How far away, in tiles, enemies are updated every few steps by default. */
+    public static final float LOD_MID_DISTANCE = 64;
+    /** How far away, in tiles, enemies are updated rarely by default; beyond they sleep. */
+    public static final float LOD_FAR_DISTANCE = 160;
+    /** How many steps apart enemies at mid range are updated by default. */
+    public static final int LOD_MID_INTERVAL = 4;
+    /** How many steps apart enemies far away are updated by default. */
+    public static final int LOD_FAR_INTERVAL = 30;
+
+    private final MazeLevel level;
+    private final TileMap world;
+    private final CollisionGrid collisionGrid;
+    private final FlowField flowField;
+    private final Pathfinder pathfinder;
+    private final ChaseBehaviour chase;
+    /** The enemies the level created since the last step; they are given their behaviours before the next one. */
+    private final Array<Enemy> newEnemies = new Array<>(false, 16);
+    private final EnemyUpdater enemyUpdater;
+    private final EnemyLod enemyLod;
+    private final FrameStats frameStats = new FrameStats();
+    private final Engine engine;
+    private final Character character;
+    private final Entity characterEntity;
+    private final InputComponent input;
+    private final Vector3 viewCenter = new Vector3();
+    private boolean followCharacter = true;
+    private GameListener listener;
+    private Replay recording;
+    private Replay playback;
+    private RewindBuffer rewindBuffer;
+    private float accumulator;
+    private long steps;
+    private boolean won;
+    private boolean lost;
+
+    /**
+     * Constructs a Simulation of a level whose map objects have been created. The character is created at the given
+     * position and the enemies are given their behaviours.
+     *
+     * @param level         The level.
+     * @param startPosition The position the character starts at.
+     * @param parallelism   The number of threads enemies may be updated on. They are updated on the calling thread
+     *                      until parallel updates are switched on with {@link EnemyUpdater#setParallel(boolean)}.
+     */
+    public Simulation(MazeLevel level, Vector2 startPosition, int parallelism) {
+        this(level, startPosition, parallelism, new EnemyLod(LOD_NEAR_DISTANCE, LOD_MID_DISTANCE, LOD_FAR_DISTANCE,
+                LOD_MID_INTERVAL, LOD_FAR_INTERVAL));
+    }
+
+    /**
+     * Constructs a Simulation of a level whose map objects have been created, with its own tiers for updating
+     * the enemies. The character is created at the given position and the enemies are given their behaviours.
+     *
+     * @param level         The level.
+     * @param startPosition The position the character starts at.
+     * @param parallelism   The number of threads enemies may be updated on. They are updated on the calling thread
+     *                      until parallel updates are switched on with {@link EnemyUpdater#setParallel(boolean)}.
+     * @param enemyLod      Decides how often each enemy is updated. It keeps the time every enemy missed,
+     *                      so it must not be shared with another simulation.
+     */
+    public Simulation(MazeLevel level, Vector2 startPosition, int parallelism, EnemyLod enemyLod) {
+        this.level = level;
+        this.enemyLod = enemyLod;
+        this.world = level.getWorld();
+        this.collisionGrid = level.getCollisionGrid();
+        this.flowField = new FlowField(collisionGrid, CollisionGrid.SOLID | CollisionGrid.EXIT, FLOW_FIELD_RADIUS);
+        this.pathfinder = new Pathfinder(collisionGrid, CollisionGrid.SOLID | CollisionGrid.EXIT,
+                PATH_CACHE_SIZE, PATH_SEARCH_MARGIN, PATH_NODE_BUDGET);
+        level.addTileListener(pathfinder);
+        pathfinder.setHierarchy(level.getPathHierarchy(), HIERARCHY_DISTANCE);
+        this.chase = new ChaseBehaviour(flowField, CHASE_DISTANCE);
+        this.enemyUpdater = new EnemyUpdater(parallelism);
+        this.characterEntity = level.createCharacter(startPosition);
+        this.character = level.getCharacter();
+        this.input = InputComponent.MAPPER.get(characterEntity);
+        viewCenter.set(startPosition.x, startPosition.y, 0);
+        Array<Enemy> enemies = level.getEnemies();
+        for (int i = 0; i < enemies.size; i++) {
+            assignBehaviour(enemies.get(i));
+        }
+        // Streamed maps create enemies while the game runs
+        level.addEntityListener(this);
+        // The systems run in the order of their priorities in every step
+        engine = level.getEngine();
+        engine.addSystem(new InputSystem());
+        engine.addSystem(new MovementSystem(collisionGrid));
+        AiSystem aiSystem = new AiSystem(level.getEnemyStore(), flowField, enemyLod, enemyUpdater, collisionGrid, frameStats);
+        aiSystem.setFocus(characterEntity, viewCenter);
+        engine.addSystem(aiSystem);
+        engine.addSystem(new CollisionSystem(frameStats));
+        engine.addSystem(new TriggerSystem(collisionGrid, this));
+        for (EntitySystem system : engine.getSystems()) {
+            frameStats.systems.add((TimedSystem) system);
+        }
+    }
+
+    @Override
+    public void entityCreated(Entity entity, int tileId) {
+        if (tileId == MazeGrid.ENEMY) {
+            // The keys and exits created after it from the same chunk are not there yet
+            newEnemies.add(AiComponent.MAPPER.get(entity).enemy);
+        }
+    }
+
+    /**
+     * Gives the enemies created since the last step their behaviours, unless they were removed again since.
+     */
+    private void assignNewBehaviours() {
+        EntityStore<Enemy> store = level.getEnemyStore();
+        for (int i = 0; i < newEnemies.size; i++) {
+            Enemy enemy = newEnemies.get(i);
+            int slot = store.getSlot(enemy.getHandle());
+            if (slot >= 0 && store.getViews().get(slot) == enemy) {
+                assignBehaviour(enemy);
+            }
+        }
+        newEnemies.clear();
+    }
+
+    /**
+     * Gives an enemy a behaviour, chosen by its slot in the enemy store. Most enemies chase the character;
+     * the others patrol between their start and the nearest key, guard the nearest exit or guard the nearest key.
+     */
+    private void assignBehaviour(Enemy enemy) {
+        int slot = level.getEnemyStore().getSlot(enemy.getHandle());
+        int tileX = toTile(enemy.getX());
+        int tileY = toTile(enemy.getY());
+        Coin key = findNearestKey(enemy.getX(), enemy.getY());
+        ExitPoint exitPoint = findNearestExit(enemy.getX(), enemy.getY());
+        EnemyBehaviour behaviour = chase;
+        if (slot % 4 == 1 && key != null) {
+            behaviour = new PatrolBehaviour(pathfinder,
+                    new int[] {tileX, toTile(key.getX())}, new int[] {tileY, toTile(key.getY())});
+        } else if (slot % 4 == 2 && exitPoint != null) {
+            // Exits block enemies, so the post is a free tile next to the exit
+            int exitX = toTile(exitPoint.getBounds().x);
+            int exitY = toTile(exitPoint.getBounds().y);
+            for (int direction = 0; direction < 4; direction++) {
+                int postX = exitX + FlowField.getStepX(direction);
+                int postY = exitY + FlowField.getStepY(direction);
+                if (postX >= 0 && postY >= 0 && postX < world.getWidth() && postY < world.getHeight()
+                        && (collisionGrid.getFlags(postX, postY) & (CollisionGrid.SOLID | CollisionGrid.EXIT)) == 0) {
+                    behaviour = new GuardBehaviour(pathfinder, chase, postX, postY);
+                    break;
+                }
+            }
+        } else if (slot % 4 == 3 && key != null) {
+            behaviour = new GuardBehaviour(pathfinder, chase, toTile(key.getX()), toTile(key.getY()));
+        }
+        enemy.setBehaviour(behaviour);
+    }
+
+    private Coin findNearestKey(float x, float y) {
+        Coin nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (Coin key : level.getKeys()) {
+            float distance = Vector2.dst2(x, y, key.getX(), key.getY());
+            if (distance < nearestDistance) {
+                nearest = key;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    private ExitPoint findNearestExit(float x, float y) {
+        ExitPoint nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (ExitPoint exitPoint : level.getExitPoints()) {
+            float distance = Vector2.dst2(x, y, exitPoint.getBounds().x, exitPoint.getBounds().y);
+            if (distance < nearestDistance) {
+                nearest = exitPoint;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    private static int toTile(float worldCoordinate) {
+        return (int) Math.floor(worldCoordinate / MazeGrid.TILE_SIZE);
+    }
+
+    /**
+     * Sets the listener told about keys, wins and deaths.
+     *
+     * @param listener The listener, or null for none.
+     */
+    public void setListener(GameListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the buttons the player holds down. They stay held until they are set again.
+     *
+     * @param buttons A combination of {@link InputComponent#UP}, {@link InputComponent#DOWN},
+     *                {@link InputComponent#LEFT} and {@link InputComponent#RIGHT}.
+     */
+    public void setButtons(int buttons) {
+        input.buttons = buttons;
+    }
+
+    /**
+     * Records the buttons of every step from now on.
+     *
+     * @param recording The replay the buttons are added to, or null to stop recording.
+     */
+    public void setRecording(Replay recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Takes the buttons of every step from a replay instead of {@link #setButtons(int)}. The replay has to be
+     * played from the start of the game it was recorded in, with the same map, seed and start.
+     *
+     * @param playback The replay to play, or null to stop playing it.
+     */
+    public void setPlayback(Replay playback) {
+        this.playback = playback;
+    }
+
+    /**
+     * Takes a snapshot into a rewind buffer after every step from now on, starting with the state as it is now.
+     *
+     * @param rewindBuffer The buffer of this simulation to take the snapshots into, or null to stop taking them.
+     */
+    public void setRewindBuffer(RewindBuffer rewindBuffer) {
+        this.rewindBuffer = rewindBuffer;
+        if (rewindBuffer != null && isRunning()) {
+            rewindBuffer.capture();
+        }
+    }
+
+    /**
+     * Called by the rewind buffer after it put the game back into an earlier state. The game goes on from the step
+     * of that state. The enemies do not plan the same way again, so the recording is stopped.
+     *
+     * @param steps The number of steps run up to the state that was put back.
+     */
+    void rewound(long steps) {
+        this.steps = steps;
+        accumulator = 0;
+        recording = null;
+    }
+
+    /**
+     * Sets the center of what the player sees, like the position of the camera. Enemies close to it are updated as
+     * often as enemies close to the character. Until it is set, it follows the character.
+     * Which enemies are updated in a step then depends on the view, so games that set it cannot be replayed exactly.
+     *
+     * @param x The x-coordinate in world units.
+     * @param y The y-coordinate in world units.
+     */
+    public void setViewCenter(float x, float y) {
+        followCharacter = false;
+        viewCenter.set(x, y, 0);
+    }
+
+    /**
+     * Resets the statistics. Called once per frame; runs without frames call it as often as they want statistics.
+     */
+    public void beginFrame() {
+        frameStats.reset();
+        collisionGrid.resetStats();
+        level.getEntityIndex().resetStats();
+        for (TimedSystem system : frameStats.systems) {
+            system.resetStats();
+        }
+        flowField.resetStats();
+        pathfinder.resetStats();
+        if (rewindBuffer != null) {
+            rewindBuffer.resetStats();
+        }
+    }
+
+    /**
+     * Runs as many steps as the elapsed time allows. The time left over is kept for the next call.
+     * No steps are run once the level is won or lost.
+     *
+     * @param delta The elapsed time in seconds.
+     * @return The number of steps run.
+     */
+    public int advance(float delta) {
+        accumulator += delta;
+        int stepsRun = 0;
+        while (accumulator >= STEP && isRunning()) {
+            accumulator -= STEP;
+            step();
+            stepsRun++;
+        }
+        frameStats.simulationSteps += stepsRun;
+        return stepsRun;
+    }
+
+    /**
+     * Runs one step of the game logic: moves the character and the enemies and applies what they touch.
+     * Does nothing once the level is won or lost.
+     */
+    public void step() {
+        if (!isRunning()) {
+            return;
+        }
+        if (followCharacter) {
+            Vector2 position = character.getPosition();
+            viewCenter.set(position.x, position.y, 0);
+        }
+        if (playback != null) {
+            input.buttons = playback.getButtons(steps);
+        }
+        if (recording != null) {
+            recording.record(input.buttons);
+        }
+        assignNewBehaviours();
+        // The budget is renewed per step and not per frame, so which searches wait does not depend on the frame rate
+        pathfinder.resetBudget();
+        engine.update(STEP);
+        steps++;
+        if (rewindBuffer != null && isRunning()) {
+            rewindBuffer.capture();
+        }
+    }
+
+    /**
+     * Copies the counters of the pathfinding, the collisions and the level of detail into the frame statistics.
+     * Called once per frame, after the frame was drawn.
+     */
+    public void endFrame() {
+        frameStats.collisionCellsTested = collisionGrid.getCellsTested();
+        frameStats.broadphaseCandidates = level.getEntityIndex().getCandidatesTested();
+        frameStats.flowFieldRefreshes = flowField.getRefreshes();
+        frameStats.enemiesNear = enemyLod.getTierCount(EnemyLod.NEAR);
+        frameStats.enemiesMid = enemyLod.getTierCount(EnemyLod.MID);
+        frameStats.enemiesFar = enemyLod.getTierCount(EnemyLod.FAR);
+        frameStats.enemiesAsleep = enemyLod.getTierCount(EnemyLod.ASLEEP);
+        frameStats.pathSearches = pathfinder.getSearches();
+        frameStats.pathCacheHits = pathfinder.getCacheHits();
+        frameStats.pathNodesExpanded = pathfinder.getNodesExpanded();
+        frameStats.pathRequestsDeferred = pathfinder.getRequestsDeferred();
+        if (rewindBuffer != null) {
+            frameStats.rewindNanos = rewindBuffer.getCaptureNanos();
+            frameStats.rewindSteps = rewindBuffer.getSize();
+        }
+    }
+
+    @Override
+    public boolean exitReached(ExitPoint exitPoint) {
+        exitPoint.setOpen(character.getCollectedKeys() == level.getTotalKeys());
+        if (exitPoint.isOpen()) {
+            won = true;
+            if (listener != null) {
+                listener.levelWon();
+            }
+        }
+        return exitPoint.isOpen();
+    }
+
+    @Override
+    public void keyCollected() {
+        character.increaseCollectedKeys();
+        if (listener != null) {
+            listener.keyCollected(character.getCollectedKeys());
+        }
+    }
+
+    @Override
+    public void died() {
+        lost = true;
+        if (listener != null) {
+            listener.died();
+        }
+    }
+
+    /**
+     * Computes a checksum of the state of the game: the position, health and keys of the character, the positions
+     * and directions of the enemies and which traps and keys are activated. Two runs of a game that have the same
+     * checksum after the same number of steps have almost certainly played the same way.
+     *
+     * @return The checksum.
+     */
+    public int getChecksum() {
+        Vector2 position = character.getPosition();
+        int checksum = Float.floatToIntBits(position.x);
+        checksum = 31 * checksum + Float.floatToIntBits(position.y);
+        checksum = 31 * checksum + character.getHealth();
+        checksum = 31 * checksum + character.getCollectedKeys();
+        EntityStore<Enemy> enemies = level.getEnemyStore();
+        for (int slot = 0; slot < enemies.size(); slot++) {
+            checksum = 31 * checksum + Float.floatToIntBits(enemies.getX(slot));
+            checksum = 31 * checksum + Float.floatToIntBits(enemies.getY(slot));
+            checksum = 31 * checksum + enemies.direction[slot];
+        }
+        EntityStore<Trap> traps = level.getTrapStore();
+        for (int slot = 0; slot < traps.size(); slot++) {
+            checksum = 31 * checksum + (traps.hasFlag(slot, EntityStore.ACTIVATED) ? 1 : 0);
+        }
+        EntityStore<Coin> keys = level.getKeyStore();
+        for (int slot = 0; slot < keys.size(); slot++) {
+            checksum = 31 * checksum + (keys.hasFlag(slot, EntityStore.ACTIVATED) ? 1 : 0);
+        }
+        return checksum;
+    }
+
+    /**
+     * Gets how far the time is between the last step and the next one.
+     *
+     * @return Between 0 right after a step and 1 right before the next one.
+     */
+    public float getAlpha() {
+        return accumulator / STEP;
+    }
+
+    /**
+     * Checks if the level is still being played.
+     *
+     * @return False once the level is won or lost, true before.
+     */
+    public boolean isRunning() {
+        return !won && !lost;
+    }
+
+    public boolean isWon() {
+        return won;
+    }
+
+    public boolean isLost() {
+        return lost;
+    }
+
+    /**
+     * Gets the number of steps run so far.
+     *
+     * @return The number of steps.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    public MazeLevel getLevel() {
+        return level;
+    }
+
+    public Character getCharacter() {
+        return character;
+    }
+
+    public Entity getCharacterEntity() {
+        return characterEntity;
+    }
+
+    /**
+     * Gets the engine the systems run in. Systems that do not belong to the game logic, like drawing,
+     * can be added to it with processing switched off and run on their own.
+     *
+     * @return The engine.
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public EnemyUpdater getEnemyUpdater() {
+        return enemyUpdater;
+    }
+
+    public Pathfinder getPathfinder() {
+        return pathfinder;
+    }
+
+    public RewindBuffer getRewindBuffer() {
+        return rewindBuffer;
+    }
+
+    /**
+     * Gets the statistics of the current frame. Systems added from outside are timed in it once they are added
+     * to its systems.
+     *
+     * @return The frame statistics.
+     */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    /**
+     * Stops the threads enemies are updated on.
+     */
+    @Override
+    public void dispose() {
+        level.removeEntityListener(this);
+        enemyUpdater.dispose();
+    }
+
+    /**
+     * The GameListener interface is told about what happens in the game that the player should notice.
+     */
+    public interface GameListener {
+
+        /**
+         * Called when the character picked up a key.
+         *
+         * @param collectedKeys The number of keys collected so far.
+         */
+        void keyCollected(int collectedKeys);
+
+        /**
+         * Called when the character walked through an open exit. No more steps are run afterwards.
+         */
+        void levelWon();
+
+        /**
+         * Called when the character has no lives left. No more steps are run afterwards.
+         */
+        void died();
+    }
+}
@@ -0,0 +1,227 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * The SpatialHash class is a broadphase for objects that move or can be picked up, like enemies, traps and keys.
+ * Every object is kept in the square cells its bounds cover, so a query only tests the objects near
+ * the queried area instead of all of them. Objects are only moved between cells when they cross a cell border.
+ * Each cell is a list linked through the objects in it, and every object keeps the links it needs for the cells
+ * it covers, so moving objects around takes no new memory. The proxies of removed objects are kept for the objects
+ * added next, so an object that is removed and added again, like a key put back by a rewind, takes none either.
+ *
+ * @param <T> The type of the objects.
+ */
+public class SpatialHash<T> {
+
+    private final float cellSize;
+    // The first link of every cell that holds an object
+    private final LongMap<Link<T>> cells = new LongMap<>();
+    private final ObjectMap<T, Proxy<T>> proxies = new ObjectMap<>();
+    private final Array<Proxy<T>> freeProxies = new Array<>(false, 16);
+    private int queryStamp;
+    private int candidatesTested;
+    private int overlapsFound;
+
+    /**
+     * Constructs an empty SpatialHash.
+     *
+     * @param cellSize The width and height of a cell in world units. Should be a bit larger than most objects.
+     */
+    public SpatialHash(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds an object or updates the bounds of an object that was added before.
+     *
+     * @param object The object.
+     * @param bounds The current bounds of the object. They are copied.
+     */
+    public void put(T object, Rectangle bounds) {
+        int fromX = toCell(bounds.x);
+        int fromY = toCell(bounds.y);
+        int toX = toCell(bounds.x + bounds.width);
+        int toY = toCell(bounds.y + bounds.height);
+        Proxy<T> proxy = proxies.get(object);
+        if (proxy == null) {
+            proxy = freeProxies.size > 0 ? freeProxies.pop() : new Proxy<>();
+            proxy.object = object;
+            proxies.put(object, proxy);
+        } else if (proxy.fromX == fromX && proxy.fromY == fromY && proxy.toX == toX && proxy.toY == toY) {
+            proxy.bounds.set(bounds);
+            return;
+        } else {
+            removeFromCells(proxy);
+        }
+        proxy.bounds.set(bounds);
+        proxy.fromX = fromX;
+        proxy.fromY = fromY;
+        proxy.toX = toX;
+        proxy.toY = toY;
+        proxy.linkCount = 0;
+        for (int y = fromY; y <= toY; y++) {
+            for (int x = fromX; x <= toX; x++) {
+                if (proxy.linkCount == proxy.links.size) {
+                    proxy.links.add(new Link<>(proxy));
+                }
+                Link<T> link = proxy.links.get(proxy.linkCount++);
+                link.key = key(x, y);
+                // New links go to the front of their cell
+                link.previous = null;
+                link.next = cells.get(link.key);
+                if (link.next != null) {
+                    link.next.previous = link;
+                }
+                cells.put(link.key, link);
+            }
+        }
+    }
+
+    /**
+     * Removes an object.
+     *
+     * @param object The object to remove. Nothing happens if it was never added.
+     */
+    public void remove(T object) {
+        Proxy<T> proxy = proxies.remove(object);
+        if (proxy != null) {
+            removeFromCells(proxy);
+            proxy.object = null;
+            freeProxies.add(proxy);
+        }
+    }
+
+    /**
+     * Finds the objects whose bounds overlap the given area.
+     *
+     * @param area The area to search, in world units.
+     * @param out  The array the objects are added to. It is cleared first.
+     * @return The given array.
+     */
+    public Array<T> query(Rectangle area, Array<T> out) {
+        out.clear();
+        // Objects covering several cells are only tested once per query
+        queryStamp++;
+        int toX = toCell(area.x + area.width);
+        int toY = toCell(area.y + area.height);
+        for (int y = toCell(area.y); y <= toY; y++) {
+            for (int x = toCell(area.x); x <= toX; x++) {
+                for (Link<T> link = cells.get(key(x, y)); link != null; link = link.next) {
+                    Proxy<T> proxy = link.proxy;
+                    if (proxy.queryStamp != queryStamp) {
+                        proxy.queryStamp = queryStamp;
+                        candidatesTested++;
+                        if (proxy.bounds.overlaps(area)) {
+                            out.add(proxy.object);
+                        }
+                    }
+                }
+            }
+        }
+        overlapsFound += out.size;
+        return out;
+    }
+
+    /**
+     * Gets the number of objects in the hash.
+     *
+     * @return The number of objects.
+     */
+    public int size() {
+        return proxies.size;
+    }
+
+    /**
+     * Gets the number of objects whose bounds were tested by queries since the last call to {@link #resetStats()}.
+     *
+     * @return The number of candidates tested.
+     */
+    public int getCandidatesTested() {
+        return candidatesTested;
+    }
+
+    /**
+     * Gets the number of overlapping objects returned by queries since the last call to {@link #resetStats()}.
+     *
+     * @return The number of overlaps found.
+     */
+    public int getOverlapsFound() {
+        return overlapsFound;
+    }
+
+    /**
+     * Resets the query counters.
+     */
+    public void resetStats() {
+        candidatesTested = 0;
+        overlapsFound = 0;
+    }
+
+    private void removeFromCells(Proxy<T> proxy) {
+        for (int i = 0; i < proxy.linkCount; i++) {
+            Link<T> link = proxy.links.get(i);
+            if (link.previous != null) {
+                link.previous.next = link.next;
+            } else if (link.next != null) {
+                cells.put(link.key, link.next);
+            } else {
+                cells.remove(link.key);
+            }
+            if (link.next != null) {
+                link.next.previous = link.previous;
+            }
+            link.previous = null;
+            link.next = null;
+        }
+        proxy.linkCount = 0;
+    }
+
+    private int toCell(float worldCoordinate) {
+        return (int) Math.floor(worldCoordinate / cellSize);
+    }
+
+    private static long key(int x, int y) {
+        return ((long) y << 32) | (x & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The Proxy class holds an object together with its bounds and the cells it is kept in.
+     * Its first {@code linkCount} links are in use, one for each cell.
+     */
+    private static class Proxy<T> {
+        private T object;
+        private final Rectangle bounds = new Rectangle();
+        private final Array<Link<T>> links = new Array<>(false, 4);
+        private int linkCount;
+        private int fromX;
+        private int fromY;
+        private int toX;
+        private int toY;
+        private int queryStamp;
+
+        private Proxy() {
+            // Objects smaller than a cell cover up to four cells
+            for (int i = 0; i < 4; i++) {
+                links.add(new Link<>(this));
+            }
+        }
+    }
+
+    /**
+     * The Link class puts a proxy into the list of one cell.
+     */
+    private static class Link<T> {
+        private final Proxy<T> proxy;
+        private long key;
+        private Link<T> previous;
+        private Link<T> next;
+
+        private Link(Proxy<T> proxy) {
+            this.proxy = proxy;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The TileMap interface gives read access to the tiles of a maze,
+ * no matter whether the whole maze is held in memory or streamed in chunks.
+ */
+public interface TileMap {
+
+    /**
+     * Gets the width of the maze.
+     *
+     * @return The width of the maze in tiles.
+     */
+    int getWidth();
+
+    /**
+     * Gets the height of the maze.
+     *
+     * @return The height of the maze in tiles.
+     */
+    int getHeight();
+
+    /**
+     * Gets the tile id at the given tile coordinates.
+     *
+     * @param x The x-coordinate in tiles.
+     * @param y The y-coordinate in tiles.
+     * @return The tile id, or {@link MazeGrid#EMPTY} if the coordinates are outside the maze.
+     */
+    int getTile(int x, int y);
+
+    /**
+     * Checks if the maze has an entry point.
+     *
+     * @return True if an entry point was found, false otherwise.
+     */
+    boolean hasEntry();
+
+    /**
+     * Gets the x-coordinate of the entry point.
+     *
+     * @return The x-coordinate of the entry point in tiles, or -1 if there is none.
+     */
+    int getEntryX();
+
+    /**
+     * Gets the y-coordinate of the entry point.
+     *
+     * @return The y-coordinate of the entry point in tiles, or -1 if there is none.
+     */
+    int getEntryY();
+
+    /**
+     * Adds a listener that is told about every tile that changes.
+     * Mazes whose tiles never change may ignore the listener.
+     *
+     * @param listener The listener to add.
+     */
+    default void addTileListener(TileListener listener) {
+    }
+
+    /**
+     * The TileListener interface is told about changed tiles, so data derived from the tiles can be updated.
+     */
+    interface TileListener {
+
+        /**
+         * Called after a tile has changed.
+         *
+         * @param x         The x-coordinate in tiles.
+         * @param y         The y-coordinate in tiles.
+         * @param oldTileId The previous tile id.
+         * @param newTileId The new tile id.
+         */
+        void tileChanged(int x, int y, int oldTileId, int newTileId);
+    }
+}
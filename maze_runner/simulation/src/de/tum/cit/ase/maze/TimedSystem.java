@@ -0,0 +1,63 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.EntitySystem;
+
+/**
+ * The TimedSystem class is the base of the systems of the game. It measures how long the system runs,
+ * so the time spent in each system can be shown next to the other frame statistics.
+ */
+public abstract class TimedSystem extends EntitySystem {
+
+    private final String name;
+    private long nanos;
+
+    /**
+     * Constructs a TimedSystem.
+     *
+     * @param name     The name shown in the statistics.
+     * @param priority The priority of the system. Systems with lower priorities run first.
+     */
+    protected TimedSystem(String name, int priority) {
+        super(priority);
+        this.name = name;
+    }
+
+    @Override
+    public final void update(float deltaTime) {
+        long start = System.nanoTime();
+        run(deltaTime);
+        nanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Runs the system once.
+     *
+     * @param deltaTime The time passed, in seconds.
+     */
+    protected abstract void run(float deltaTime);
+
+    /**
+     * Gets the name shown in the statistics.
+     *
+     * @return The name of the system.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the time the system ran since the last call to {@link #resetStats()}.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Resets the time the system ran.
+     */
+    public void resetStats() {
+        nanos = 0;
+    }
+}
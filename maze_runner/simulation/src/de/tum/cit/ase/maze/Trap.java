@@ -1,65 +1,31 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
 
 /**
  * The Trap class represents a trap in the game. Traps are objects that can be activated
  * and cause damage to the character when triggered.
+ * It is a view of an entity in an {@link EntityStore}, which keeps its position and activation state.
  */
 public class Trap {
+    private final EntityStore<Trap> store;
+    private final int handle;
+    // Only created for callers that ask for them
     private Vector2 position;
     private Rectangle bounds;
-    private boolean activated;
-    private Animation<TextureRegion> trapAnimation;
-    private float stateTime;
 
     /**
-     * Constructs a new Trap with the specified position, width, and height.
+     * Constructs a new Trap with the specified position, width, and height and adds it to a store.
      *
+     * @param store    The store that keeps the data of the traps.
      * @param position The position of the trap in the game world.
      * @param width    The width of the trap.
      * @param height   The height of the trap.
      */
-    public Trap(Vector2 position, float width, float height) {
-        this.position = position;
-        this.bounds = new Rectangle(position.x, position.y, width, height);
-        this.activated = false;
-        this.loadTrapAnimation();
-    }
-
-    /**
-     * Loads the animation frames for the trap from the specified texture sheet.
-     */
-    private void loadTrapAnimation() {
-        Texture trapSheet = new Texture(Gdx.files.internal("objects.png"));
-        int frameWidth = 16;
-        int frameHeight = 16;
-        int animationFrames = 11;
-
-        Array<TextureRegion> frames = new Array<TextureRegion>();
-
-        int cPos = 3 * frameHeight;
-
-        for (int i = 4; i < animationFrames; i++) {
-            frames.add(new TextureRegion(trapSheet, i * frameWidth, cPos, frameWidth, frameHeight));
-        }
-
-        trapAnimation = new Animation<TextureRegion>(0.1f, frames);
-    }
-
-    /**
-     * Gets the current frame of the trap animation.
-     *
-     * @return The animation frame of the trap.
-     */
-    public Animation<TextureRegion> getCurrentTrapFrame() {
-        return trapAnimation;
+    public Trap(EntityStore<Trap> store, Vector2 position, float width, float height) {
+        this.store = store;
+        this.handle = store.add(this, position.x, position.y, width, height);
     }
 
     /**
@@ -69,7 +35,7 @@ public Animation<TextureRegion> getCurrentTrapFrame() {
      * @return True if the trap collides with the character, false otherwise.
      */
     public boolean collidesWith(Character character) {
-        return bounds.overlaps(character.getBoundingBox());
+        return getBounds().overlaps(character.getBoundingBox());
     }
 
     /**
@@ -79,9 +45,9 @@ public boolean collidesWith(Character character) {
      * @param character The character to activate the trap on.
      */
     public void activate(Character character) {
-        if (!activated && collidesWith(character)) {
+        if (!isActivated() && collidesWith(character)) {
             character.decreaseHealth();
-            activated = true;
+            setActivated(true);
         }
     }
 
@@ -91,7 +57,7 @@ public void activate(Character character) {
      * @return True if the trap is activated, false otherwise.
      */
     public boolean isActivated() {
-        return activated;
+        return store.hasFlag(store.getSlot(handle), EntityStore.ACTIVATED);
     }
 
     /**
@@ -100,24 +66,58 @@ public boolean isActivated() {
      * @param activated The new activation state of the trap.
      */
     public void setActivated(boolean activated) {
-        this.activated = activated;
+        store.setFlag(store.getSlot(handle), EntityStore.ACTIVATED, activated);
     }
 
     /**
-     * Gets the bounds of the trap.
+     * Gets the bounds of the trap. The same rectangle is returned every time, set to the current bounds.
      *
      * @return The bounds of the trap as a Rectangle.
      */
     public Rectangle getBounds() {
-        return bounds;
+        if (bounds == null) {
+            bounds = new Rectangle();
+        }
+        return store.getBounds(store.getSlot(handle), bounds);
     }
 
     /**
-     * Gets the position of the trap.
+     * Gets the handle of the trap in its store.
+     *
+     * @return The handle of the trap.
+     */
+    public int getHandle() {
+        return handle;
+    }
+
+    /**
+     * Gets the x-coordinate of the trap.
+     *
+     * @return The x-coordinate in world units.
+     */
+    public float getX() {
+        return store.x[store.getSlot(handle)];
+    }
+
+    /**
+     * Gets the y-coordinate of the trap.
+     *
+     * @return The y-coordinate in world units.
+     */
+    public float getY() {
+        return store.y[store.getSlot(handle)];
+    }
+
+    /**
+     * Gets the position of the trap. The same vector is returned every time, set to the current position.
      *
      * @return The position of the trap as a Vector2.
      */
     public Vector2 getPosition() {
-        return position;
+        if (position == null) {
+            position = new Vector2();
+        }
+        int slot = store.getSlot(handle);
+        return position.set(store.x[slot], store.y[slot]);
     }
 }
@@ -0,0 +1,31 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+
+/**
+ * The TriggerComponent class marks an entity that does something to the character when it touches it.
+ * Triggers are handled by the {@link TriggerSystem}.
+ * It holds nothing that differs between entities of one kind, so they can share one instance.
+ */
+public class TriggerComponent implements Component {
+
+    public static final ComponentMapper<TriggerComponent> MAPPER = ComponentMapper.getFor(TriggerComponent.class);
+
+    /** Takes one life when a touch starts, like a trap or an enemy. */
+    public static final int DAMAGE = 0;
+    /** Is picked up on the first touch and removed from the world, like a key. */
+    public static final int COLLECT = 1;
+
+    /** What happens on a touch, {@link #DAMAGE} or {@link #COLLECT}. */
+    public final int effect;
+
+    /**
+     * Constructs a TriggerComponent.
+     *
+     * @param effect What happens on a touch, {@link #DAMAGE} or {@link #COLLECT}.
+     */
+    public TriggerComponent(int effect) {
+        this.effect = effect;
+    }
+}
@@ -0,0 +1,124 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The TriggerSystem class applies the rules of touching things: exits end the level once all keys are collected,
+ * traps and enemies take a life when a touch starts, and keys are picked up.
+ * What follows from that, like sounds and switching screens, is left to a listener.
+ */
+public class TriggerSystem extends TimedSystem {
+
+    /** Runs last, after the contacts of this step are known. */
+    public static final int PRIORITY = 4;
+    private static final Family FAMILY = Family.all(PositionComponent.class, ContactComponent.class, HealthComponent.class).get();
+
+    private final CollisionGrid collisionGrid;
+    private final TriggerListener listener;
+    private final Rectangle bounds = new Rectangle();
+    private ImmutableArray<Entity> entities;
+
+    /**
+     * Constructs a TriggerSystem.
+     *
+     * @param collisionGrid The walls and exits of the maze.
+     * @param listener      The listener told about exits, keys and deaths.
+     */
+    public TriggerSystem(CollisionGrid collisionGrid, TriggerListener listener) {
+        super("trigger", PRIORITY);
+        this.collisionGrid = collisionGrid;
+        this.listener = listener;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        entities = engine.getEntitiesFor(FAMILY);
+    }
+
+    @Override
+    protected void run(float deltaTime) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            PositionComponent position = PositionComponent.MAPPER.get(entity);
+            // Exits are part of the maze, so they are found in the collision grid
+            ExitPoint exitPoint = collisionGrid.findExit(position.getBounds(bounds));
+            if (exitPoint != null) {
+                if (listener.exitReached(exitPoint)) {
+                    return;
+                }
+                // A closed exit blocks like a wall
+                int slot = position.getSlot();
+                position.store.x[slot] = position.store.prevX[slot];
+                position.store.y[slot] = position.store.prevY[slot];
+            }
+            ContactComponent contacts = ContactComponent.MAPPER.get(entity);
+            HealthComponent health = HealthComponent.MAPPER.get(entity);
+            Array<Entity> touching = contacts.touching;
+            for (int j = 0; j < contacts.touched.size; j++) {
+                Entity other = contacts.touched.get(j);
+                TriggerComponent trigger = TriggerComponent.MAPPER.get(other);
+                if (trigger != null && trigger.effect == TriggerComponent.DAMAGE && !touching.contains(other, true)) {
+                    // The touch ended, so the next touch hurts again
+                    setActivated(other, false);
+                }
+            }
+            for (int j = 0; j < touching.size; j++) {
+                Entity other = touching.get(j);
+                TriggerComponent trigger = TriggerComponent.MAPPER.get(other);
+                if (trigger == null || isActivated(other)) {
+                    continue;
+                }
+                setActivated(other, true);
+                if (trigger.effect == TriggerComponent.DAMAGE) {
+                    health.health--;
+                } else if (trigger.effect == TriggerComponent.COLLECT) {
+                    BoundsComponent.MAPPER.get(other).index.remove(other);
+                    listener.keyCollected();
+                }
+            }
+            if (health.health <= 0) {
+                listener.died();
+                return;
+            }
+        }
+    }
+
+    private static boolean isActivated(Entity entity) {
+        PositionComponent position = PositionComponent.MAPPER.get(entity);
+        return position.store.hasFlag(position.getSlot(), EntityStore.ACTIVATED);
+    }
+
+    private static void setActivated(Entity entity, boolean activated) {
+        PositionComponent position = PositionComponent.MAPPER.get(entity);
+        position.store.setFlag(position.getSlot(), EntityStore.ACTIVATED, activated);
+    }
+
+    /**
+     * The TriggerListener interface is told about the triggers that end the level or change what is shown.
+     */
+    public interface TriggerListener {
+
+        /**
+         * Called when the character reaches an exit.
+         *
+         * @param exitPoint The exit point reached.
+         * @return True if the exit is open and the level is won, false if the exit blocks the character.
+         */
+        boolean exitReached(ExitPoint exitPoint);
+
+        /**
+         * Called when the character picks up a key.
+         */
+        void keyCollected();
+
+        /**
+         * Called when the character has no lives left.
+         */
+        void died();
+    }
+}
@@ -0,0 +1,29 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.ComponentMapper;
+
+/**
+ * The VelocityComponent class holds how an entity wants to move in the next step.
+ * Entities with a velocity are moved by the {@link MovementSystem}.
+ */
+public class VelocityComponent implements Component {
+
+    public static final ComponentMapper<VelocityComponent> MAPPER = ComponentMapper.getFor(VelocityComponent.class);
+
+    /** How fast the entity walks, in world units per second. */
+    public float speed;
+    /** The velocity along the x-axis, in world units per second. */
+    public float x;
+    /** The velocity along the y-axis, in world units per second. */
+    public float y;
+
+    /**
+     * Constructs a VelocityComponent of an entity standing still.
+     *
+     * @param speed How fast the entity walks, in world units per second.
+     */
+    public VelocityComponent(float speed) {
+        this.speed = speed;
+    }
+}
@@ -0,0 +1,151 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The SimulationAllocationTest class checks that the steps of the game logic take no new memory once the game has
+ * warmed up, like the {@code checkAllocations} tool does for the maps in maps/, but on a maze of its own in which
+ * the enemies patrol between more waypoints than the pathfinder keeps paths for, so path searches run all the time.
+ * The character walks around and touches traps and enemies, so its movement and contacts are measured as well.
+ * Drawing the game, including the text of the HUD, needs a graphics context and is not measured here.
+ */
+class SimulationAllocationTest {
+
+    private static final int SIZE = 48;
+    private static final int ENEMIES = 40;
+    private static final int WAYPOINTS = 64;
+    private static final int WARM_UP_STEPS = 30000;
+    private static final int MEASURED_STEPS = 10000;
+    /** How many steps the character walks in one direction. */
+    private static final int LEG = 90;
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeAll
+    static void enableAllocationCounter() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "This JVM cannot count the memory allocated by a thread");
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Test
+    void stepsWithPathSearchesTakeNoMemory(@TempDir Path dir) throws IOException {
+        MazeLevel level = MazeLevel.open(new FileHandle(writeMaze(dir.resolve("patrol.properties")).toFile()));
+        TileMap world = level.getWorld();
+        level.findObjects(0, 0, world.getWidth() - 1, world.getHeight() - 1);
+        level.createObjects();
+        level.getPathHierarchy().buildAll();
+        Vector2 start = new Vector2(world.getEntryX() * MazeGrid.TILE_SIZE, world.getEntryY() * MazeGrid.TILE_SIZE);
+        Simulation simulation = new Simulation(level, start, 1);
+        simulation.getCharacter().setHealth(Integer.MAX_VALUE);
+        Pathfinder pathfinder = simulation.getPathfinder();
+        patrolEverywhere(level, pathfinder);
+
+        long threadId = Thread.currentThread().getId();
+        long bytes = 0;
+        int searchingSteps = 0;
+        for (int step = 0; step < WARM_UP_STEPS + MEASURED_STEPS; step++) {
+            simulation.setButtons(walk(step));
+            simulation.beginFrame();
+            long before = threads.getThreadAllocatedBytes(threadId);
+            simulation.step();
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+            if (step >= WARM_UP_STEPS) {
+                bytes += allocated;
+                if (pathfinder.getSearches() > 0) {
+                    searchingSteps++;
+                }
+            }
+        }
+        assertTrue(simulation.isRunning(), "The game ended before all steps were measured");
+        assertTrue(searchingSteps > 0, "No path was searched while measuring");
+        simulation.dispose();
+        level.dispose();
+        assertEquals(0, bytes, "Bytes allocated in " + MEASURED_STEPS + " steps");
+    }
+
+    /**
+     * Writes a walled room with scattered walls, traps and enemies. Its only key is walled in, so the exit
+     * never opens and the game runs for as long as the test needs.
+     */
+    private static Path writeMaze(Path file) throws IOException {
+        Random random = new Random(7);
+        StringBuilder map = new StringBuilder();
+        int enemies = 0;
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                int tileId;
+                if (x == 1 && y == 1) {
+                    tileId = MazeGrid.ENTRY_POINT;
+                } else if (x == SIZE - 1 && y == SIZE / 2) {
+                    tileId = MazeGrid.EXIT;
+                } else if (x == SIZE - 3 && y == SIZE - 3) {
+                    tileId = MazeGrid.KEY;
+                } else if (x == 0 || y == 0 || x == SIZE - 1 || y == SIZE - 1
+                        || Math.abs(x - (SIZE - 3)) + Math.abs(y - (SIZE - 3)) == 1) {
+                    tileId = MazeGrid.WALL;
+                } else if (x > 3 && y > 3 && random.nextInt(8) == 0) {
+                    tileId = MazeGrid.WALL;
+                } else if (x > 3 && y > 3 && random.nextInt(40) == 0) {
+                    tileId = MazeGrid.TRAP;
+                } else if (x > 3 && y > 3 && enemies < ENEMIES && random.nextInt(20) == 0) {
+                    tileId = MazeGrid.ENEMY;
+                    enemies++;
+                } else {
+                    continue;
+                }
+                map.append(x).append(',').append(y).append('=').append(tileId).append('\n');
+            }
+        }
+        return Files.writeString(file, map);
+    }
+
+    /**
+     * Makes every enemy patrol between its own free tiles spread over the maze, so together they ask for many
+     * more paths than the pathfinder keeps.
+     */
+    private static void patrolEverywhere(MazeLevel level, Pathfinder pathfinder) {
+        CollisionGrid collisionGrid = level.getCollisionGrid();
+        Random random = new Random(11);
+        Array<Enemy> enemies = level.getEnemies();
+        for (int i = 0; i < enemies.size; i++) {
+            int[] waypointsX = new int[WAYPOINTS];
+            int[] waypointsY = new int[WAYPOINTS];
+            for (int waypoint = 0; waypoint < WAYPOINTS; waypoint++) {
+                int x;
+                int y;
+                do {
+                    x = 1 + random.nextInt(SIZE - 2);
+                    y = 1 + random.nextInt(SIZE - 2);
+                } while ((collisionGrid.getFlags(x, y) & (CollisionGrid.SOLID | CollisionGrid.EXIT)) != 0);
+                waypointsX[waypoint] = x;
+                waypointsY[waypoint] = y;
+            }
+            enemies.get(i).setBehaviour(new PatrolBehaviour(pathfinder, waypointsX, waypointsY));
+        }
+    }
+
+    /**
+     * Gets the buttons the character holds down in a step. It walks right, up, left and down, one leg each.
+     */
+    private static int walk(int step) {
+        int direction = step / LEG % 4;
+        return direction == 0 ? InputComponent.RIGHT : direction == 1 ? InputComponent.UP
+                : direction == 2 ? InputComponent.LEFT : InputComponent.DOWN;
+    }
+}
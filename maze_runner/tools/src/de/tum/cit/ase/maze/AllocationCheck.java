@@ -0,0 +1,183 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * The AllocationCheck class runs the game logic of maps in a {@link Simulation} and checks that its steps take
+ * no new memory once the game has warmed up. The character walks in a square that grows with every lap, so it crosses
+ * most of the maze, and it cannot die, so enemies gather around it.
+ * The memory taken is read from the thread's allocated bytes counter, so every allocation counts, not only the ones
+ * that lead to a garbage collection. The first steps are not measured, since the JVM takes memory of its own on the
+ * thread while it still compiles the game code. Path searches are checked like the rest of the step: the pathfinder
+ * sets up the paths of its cache in advance and reuses the ones it drops, and the arrays the searches work in have
+ * grown to their size during the warm-up.
+ * A {@link RewindBuffer} takes a snapshot after every step and the game is turned back now and then, so taking
+ * snapshots and putting them back are checked as well, and the time a snapshot takes is reported.
+ * Usage: AllocationCheck &lt;map file or directory&gt; [warm-up steps] [measured steps]
+ */
+public class AllocationCheck {
+
+    /** How many steps the character walks in one direction in the first lap. */
+    private static final int FIRST_LEG = 120;
+    /** How many seconds the rewind buffer keeps, and how many bytes it may take. */
+    private static final float REWIND_SECONDS = 10;
+    private static final long REWIND_MEMORY = 64 * 1024 * 1024;
+    /** Every this many steps the game is turned back by half as many steps. */
+    private static final int REWIND_INTERVAL = 1200;
+
+    /**
+     * The main method checks every map given on the command line or found in a given directory.
+     *
+     * @param args The map file or directory (required), the number of steps run before measuring (default 60000)
+     *             and the number of steps measured (default 20000).
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: AllocationCheck <map file or directory> [warm-up steps] [measured steps]");
+            System.exit(1);
+        }
+        int warmUpSteps = args.length > 1 ? Integer.parseInt(args[1]) : 60000;
+        int measuredSteps = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.err.println("This JVM cannot count the memory allocated by a thread");
+            System.exit(1);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        File input = new File(args[0]);
+        File[] files = input.isDirectory()
+                ? input.listFiles((dir, name) -> name.endsWith(".properties"))
+                : new File[]{input};
+        if (files == null) {
+            System.err.println("Cannot list " + input);
+            System.exit(1);
+        }
+        int failed = 0;
+        for (File file : files) {
+            try {
+                if (!check(file, warmUpSteps, measuredSteps, threads)) {
+                    failed++;
+                }
+            } catch (IOException e) {
+                System.err.println(file + ": " + e.getMessage());
+                failed++;
+            }
+        }
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    /**
+     * Runs the game logic of one map and prints how much memory the measured steps took.
+     *
+     * @return True if the measured steps took no memory, false otherwise.
+     */
+    private static boolean check(File mapFile, int warmUpSteps, int measuredSteps,
+                                 com.sun.management.ThreadMXBean threads) throws IOException {
+        MazeLevel level = MazeLevel.open(new FileHandle(mapFile));
+        TileMap world = level.getWorld();
+        if (!world.hasEntry()) {
+            System.err.println(mapFile + ": the map has no entry");
+            return false;
+        }
+        Vector2 start = new Vector2(world.getEntryX() * MazeGrid.TILE_SIZE, world.getEntryY() * MazeGrid.TILE_SIZE);
+        if (level.getChunkedMaze() == null) {
+            level.findObjects(0, 0, world.getWidth() - 1, world.getHeight() - 1);
+            level.createObjects();
+            // Like the loader, so that searches do not set up the sectors they reach
+            level.getPathHierarchy().buildAll();
+        }
+        Simulation simulation = new Simulation(level, start, 1);
+        simulation.getCharacter().setHealth(Integer.MAX_VALUE);
+        Pathfinder pathfinder = simulation.getPathfinder();
+        RewindBuffer rewindBuffer = new RewindBuffer(simulation, REWIND_SECONDS, REWIND_MEMORY);
+        simulation.setRewindBuffer(rewindBuffer);
+
+        long threadId = Thread.currentThread().getId();
+        long bytes = 0;
+        int allocatingSteps = 0;
+        int searchingSteps = 0;
+        long collections = 0;
+        long startNanos = 0;
+        long captureNanos = 0;
+        long rewindNanos = 0;
+        int rewinds = 0;
+        for (int step = 0; step < warmUpSteps + measuredSteps; step++) {
+            if (step == warmUpSteps) {
+                collections = countCollections();
+                startNanos = System.nanoTime();
+            }
+            simulation.setButtons(walk(step));
+            simulation.beginFrame();
+            long before = threads.getThreadAllocatedBytes(threadId);
+            simulation.step();
+            long rewindStart = System.nanoTime();
+            if (step % REWIND_INTERVAL == REWIND_INTERVAL - 1) {
+                rewindBuffer.rewind(REWIND_INTERVAL / 2);
+                if (step >= warmUpSteps) {
+                    rewindNanos += System.nanoTime() - rewindStart;
+                    rewinds++;
+                }
+            }
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+            if (step < warmUpSteps) {
+                continue;
+            }
+            captureNanos += rewindBuffer.getCaptureNanos();
+            if (pathfinder.getSearches() > 0) {
+                searchingSteps++;
+            }
+            if (allocated != 0) {
+                allocatingSteps++;
+                bytes += allocated;
+            }
+        }
+        long nanos = System.nanoTime() - startNanos;
+        collections = countCollections() - collections;
+        simulation.dispose();
+        System.out.printf("%s: %d enemies, %d steps in %.3f ms per step, %d bytes in %d steps, "
+                        + "%d steps with path searches, %d garbage collections%n",
+                mapFile.getName(), level.getEnemies().size, measuredSteps, nanos / 1e6 / Math.max(1, measuredSteps),
+                bytes, allocatingSteps, searchingSteps, collections);
+        System.out.printf("%s: rewind buffer of %d snapshots of %d bytes in %d KB, %.0f ns per snapshot, "
+                        + "%.1f us per rewind of %d steps%n",
+                mapFile.getName(), rewindBuffer.getCapacity(), rewindBuffer.getSnapshotBytes(),
+                rewindBuffer.getMemoryUsed() / 1024, (double) captureNanos / Math.max(1, measuredSteps),
+                rewindNanos / 1e3 / Math.max(1, rewinds), REWIND_INTERVAL / 2);
+        level.dispose();
+        if (!simulation.isRunning()) {
+            // An open exit ends the game early, and later steps are not run at all
+            System.out.println(mapFile.getName() + ": the character left the maze after " + simulation.getSteps() + " steps");
+        }
+        return bytes == 0;
+    }
+
+    /**
+     * Gets the buttons the character holds down in a step. It walks right, up, left and down, one leg longer every lap.
+     */
+    private static int walk(int step) {
+        int lap = 0;
+        int leg = FIRST_LEG;
+        while (step >= 4 * leg) {
+            step -= 4 * leg;
+            lap++;
+            leg = FIRST_LEG * (lap + 1);
+        }
+        int direction = step / leg;
+        return direction == 0 ? InputComponent.RIGHT : direction == 1 ? InputComponent.UP
+                : direction == 2 ? InputComponent.LEFT : InputComponent.DOWN;
+    }
+
+    private static long countCollections() {
+        long collections = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(0, collector.getCollectionCount());
+        }
+        return collections;
+    }
+}
@@ -0,0 +1,283 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The BatchSimulator class plays maps many times with bots and reports how the games ended, to help balance levels.
+ * Every map is played by every policy of {@link PlayerBot} with the same seeds, so the policies meet the same enemies.
+ * The games run in their own {@link Simulation} each and share nothing, so they are spread over a fixed number of
+ * threads that take the next game as soon as they finish one; the games per second grow with the threads up to
+ * the number of cores.
+ * The results are written to a CSV file, or a JSON file if the report file ends with .json, and summed up per map
+ * and policy on the console.
+ * Usage: BatchSimulator &lt;map file or directory&gt; [games] [policies] [threads] [report file] [first seed]
+ * [time limit]
+ */
+public class BatchSimulator {
+
+    /**
+     * The main method plays the games and writes the report.
+     *
+     * @param args The map file or directory (required), the games per map and policy (default 100), the policies
+     *             separated by commas (default all), the number of threads (default the number of cores),
+     *             the report file (default none), the seed of the first game (default 1) and the time limit
+     *             of a game in seconds of game time (default 300).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: BatchSimulator <map file or directory> [games] [policies] [threads] "
+                    + "[report file] [first seed] [time limit]");
+            System.exit(1);
+        }
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        String[] policies = args.length > 2 ? args[2].split(",") : PlayerBot.POLICIES;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        File reportFile = args.length > 4 ? new File(args[4]) : null;
+        long firstSeed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+        float timeLimit = args.length > 6 ? Float.parseFloat(args[6]) : 300;
+        for (String policy : policies) {
+            if (!Arrays.asList(PlayerBot.POLICIES).contains(policy)) {
+                System.err.println("Unknown policy " + policy + ", known are " + String.join(", ", PlayerBot.POLICIES));
+                System.exit(1);
+            }
+        }
+        File input = new File(args[0]);
+        File[] files = input.isDirectory()
+                ? input.listFiles((dir, name) -> name.endsWith(".properties"))
+                : new File[]{input};
+        if (files == null) {
+            System.err.println("Cannot list " + input);
+            System.exit(1);
+        }
+
+        // Ashley registers component types and families in static maps that are not safe to fill from several
+        // threads, so every map is opened and one game is set up on this thread before the games start
+        Array<GameResult> jobs = new Array<>();
+        for (File file : files) {
+            try {
+                play(file, PlayerBot.POLICIES[0], firstSeed, 0);
+            } catch (IOException | IllegalStateException e) {
+                System.err.println(file + ": " + e.getMessage());
+                continue;
+            }
+            for (String policy : policies) {
+                for (int i = 0; i < games; i++) {
+                    jobs.add(new GameResult(file, policy, firstSeed + i));
+                }
+            }
+        }
+
+        int stepLimit = (int) (timeLimit / Simulation.STEP);
+        AtomicInteger nextJob = new AtomicInteger();
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(() -> {
+                for (int job = nextJob.getAndIncrement(); job < jobs.size; job = nextJob.getAndIncrement()) {
+                    GameResult result = jobs.get(job);
+                    result.copy(play(result.mapFile, result.policy, result.seed, stepLimit));
+                }
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<Void>> futures = executor.invokeAll(workers);
+        long nanos = System.nanoTime() - start;
+        executor.shutdown();
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                System.err.println("A game failed: " + e.getCause());
+                System.exit(1);
+            }
+        }
+
+        long steps = 0;
+        for (GameResult result : jobs) {
+            steps += result.steps;
+        }
+        double seconds = nanos / 1e9;
+        System.out.printf(Locale.ROOT, "%d games on %d threads in %.2f s: %.1f games per second, %.0f steps per second%n",
+                jobs.size, threads, seconds, jobs.size / seconds, steps / seconds);
+        printSummary(jobs);
+        if (reportFile != null) {
+            try {
+                writeReport(reportFile, jobs, threads, seconds);
+                System.out.println("Report written to " + reportFile);
+            } catch (IOException e) {
+                System.err.println(reportFile + ": " + e.getMessage());
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Plays one game of a map until it is won, lost or runs out of time.
+     *
+     * @param mapFile   The map.
+     * @param policy    The policy of the bot.
+     * @param seed      The seed of the enemies and the bot.
+     * @param stepLimit The number of steps after which the game is given up.
+     * @return The result of the game.
+     * @throws IOException           If the map cannot be read.
+     * @throws IllegalStateException If the map has no entry or is streamed in chunks.
+     */
+    private static GameResult play(File mapFile, String policy, long seed, int stepLimit) throws IOException {
+        long start = System.nanoTime();
+        MazeLevel level = MazeLevel.open(new FileHandle(mapFile));
+        try {
+            TileMap world = level.getWorld();
+            if (!world.hasEntry()) {
+                throw new IllegalStateException("the map has no entry");
+            }
+            // Reading a streamed map as a whole would load every chunk at once and spawn all of its objects up front
+            if (level.getChunkedMaze() != null) {
+                throw new IllegalStateException("the map is streamed in chunks, which the bots cannot play");
+            }
+            level.setSeed(seed);
+            level.findObjects(0, 0, world.getWidth() - 1, world.getHeight() - 1);
+            level.createObjects();
+            Vector2 entry = new Vector2(world.getEntryX() * MazeGrid.TILE_SIZE, world.getEntryY() * MazeGrid.TILE_SIZE);
+            Simulation simulation = new Simulation(level, entry, 1);
+            Character character = simulation.getCharacter();
+            int startHealth = character.getHealth();
+            PlayerBot bot = PlayerBot.create(policy, simulation, seed);
+            while (simulation.isRunning() && simulation.getSteps() < stepLimit) {
+                simulation.setButtons(bot.getButtons(simulation));
+                simulation.step();
+            }
+            simulation.dispose();
+
+            GameResult result = new GameResult(mapFile, policy, seed);
+            result.outcome = simulation.isWon() ? "won" : simulation.isLost() ? "died" : "timeout";
+            result.steps = simulation.getSteps();
+            result.damage = Math.max(0, startHealth - character.getHealth());
+            result.keys = character.getCollectedKeys();
+            result.totalKeys = level.getTotalKeys();
+            result.nanos = System.nanoTime() - start;
+            return result;
+        } finally {
+            level.dispose();
+        }
+    }
+
+    /**
+     * Prints the share of games won, lost and given up, the average time taken to win,
+     * the average damage taken and the average keys collected, per map and policy.
+     */
+    private static void printSummary(Array<GameResult> results) {
+        System.out.printf(Locale.ROOT, "%-24s %-8s %6s %6s %6s %8s %10s %7s %6s%n",
+                "map", "policy", "games", "won", "died", "timeout", "win time", "damage", "keys");
+        int first = 0;
+        while (first < results.size) {
+            GameResult group = results.get(first);
+            int games = 0, won = 0, died = 0;
+            long winSteps = 0;
+            long damage = 0;
+            long keys = 0;
+            int last = first;
+            // The games of a map and policy are next to each other
+            for (; last < results.size && results.get(last).mapFile == group.mapFile
+                    && results.get(last).policy.equals(group.policy); last++) {
+                GameResult result = results.get(last);
+                games++;
+                if (result.outcome.equals("won")) {
+                    won++;
+                    winSteps += result.steps;
+                } else if (result.outcome.equals("died")) {
+                    died++;
+                }
+                damage += result.damage;
+                keys += result.keys;
+            }
+            System.out.printf(Locale.ROOT, "%-24s %-8s %6d %5.1f%% %5.1f%% %7.1f%% %9s %7.2f %6.2f/%d%n",
+                    group.mapFile.getName(), group.policy, games, 100f * won / games, 100f * died / games,
+                    100f * (games - won - died) / games,
+                    won == 0 ? "-" : String.format(Locale.ROOT, "%.1f s", winSteps * Simulation.STEP / won),
+                    (float) damage / games, (float) keys / games, group.totalKeys);
+            first = last;
+        }
+    }
+
+    /**
+     * Writes every game to a CSV file, or to a JSON file if its name ends with .json.
+     */
+    private static void writeReport(File file, Array<GameResult> results, int threads, double seconds)
+            throws IOException {
+        boolean json = file.getName().endsWith(".json");
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            if (json) {
+                out.printf(Locale.ROOT, "{\"threads\": %d, \"games\": %d, \"seconds\": %.3f, \"gamesPerSecond\": %.2f, "
+                        + "\"results\": [%n", threads, results.size, seconds, results.size / seconds);
+            } else {
+                out.println("map,policy,seed,outcome,steps,seconds,damage,keys,total_keys,wall_ms");
+            }
+            for (int i = 0; i < results.size; i++) {
+                GameResult result = results.get(i);
+                if (json) {
+                    out.printf(Locale.ROOT, "  {\"map\": \"%s\", \"policy\": \"%s\", \"seed\": %d, \"outcome\": \"%s\", "
+                                    + "\"steps\": %d, \"seconds\": %.3f, \"damage\": %d, \"keys\": %d, \"totalKeys\": %d, "
+                                    + "\"wallMs\": %.3f}%s%n",
+                            result.mapFile.getName(), result.policy, result.seed, result.outcome, result.steps,
+                            result.steps * Simulation.STEP, result.damage, result.keys, result.totalKeys,
+                            result.nanos / 1e6, i < results.size - 1 ? "," : "");
+                } else {
+                    out.printf(Locale.ROOT, "%s,%s,%d,%s,%d,%.3f,%d,%d,%d,%.3f%n",
+                            result.mapFile.getName(), result.policy, result.seed, result.outcome, result.steps,
+                            result.steps * Simulation.STEP, result.damage, result.keys, result.totalKeys,
+                            result.nanos / 1e6);
+                }
+            }
+            if (json) {
+                out.println("]}");
+            }
+        }
+    }
+
+    /**
+     * The GameResult class holds what happened in one game.
+     */
+    private static class GameResult {
+        final File mapFile;
+        final String policy;
+        final long seed;
+        String outcome;
+        long steps;
+        int damage;
+        int keys;
+        int totalKeys;
+        long nanos;
+
+        GameResult(File mapFile, String policy, long seed) {
+            this.mapFile = mapFile;
+            this.policy = policy;
+            this.seed = seed;
+        }
+
+        void copy(GameResult other) {
+            outcome = other.outcome;
+            steps = other.steps;
+            damage = other.damage;
+            keys = other.keys;
+            totalKeys = other.totalKeys;
+            nanos = other.nanos;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The MapCompiler class converts maps in the .properties format to compiled maps (see {@link MazeFile}).
+ * Each compiled map is written next to its source file with the same name.
+ * Usage: MapCompiler &lt;file or directory&gt;...
+ */
+public class MapCompiler {
+
+    /**
+     * The main method compiles every .properties file given on the command line or found in a given directory.
+     *
+     * @param args The files and directories to compile.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: MapCompiler <file or directory>...");
+            System.exit(1);
+        }
+        int failed = 0;
+        for (String arg : args) {
+            File input = new File(arg);
+            File[] files = input.isDirectory()
+                    ? input.listFiles((dir, name) -> name.endsWith(".properties"))
+                    : new File[]{input};
+            if (files == null) {
+                System.err.println("Cannot list " + input);
+                failed++;
+                continue;
+            }
+            for (File file : files) {
+                if (!compile(file)) {
+                    failed++;
+                }
+            }
+        }
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    /**
+     * Compiles a single map file.
+     *
+     * @param source The .properties map file.
+     * @return True if the map was compiled, false if it could not be read or written.
+     */
+    private static boolean compile(File source) {
+        String name = source.getName();
+        int dot = name.lastIndexOf('.');
+        File target = new File(source.getParentFile(), (dot < 0 ? name : name.substring(0, dot)) + "." + MazeFile.EXTENSION);
+        try {
+            long start = System.nanoTime();
+            MazeGrid grid = MazeGrid.loadProperties(new FileHandle(source));
+            MazeFile.write(grid, target);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println(source + " -> " + target.getName() + " (" + grid.getWidth() + "x" + grid.getHeight()
+                    + ", " + target.length() + " bytes, " + millis + " ms)");
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to compile " + source + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
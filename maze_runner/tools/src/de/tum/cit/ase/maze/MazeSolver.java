@@ -0,0 +1,325 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * The MazeSolver class checks if a maze can be won: walking from the entry over every key to an exit,
+ * and finds the shortest such walk in tiles.
+ * The walking distances between the entry and the keys are found with one breadth-first search from each of them.
+ * The order the keys are collected in is then found exactly with dynamic programming over the sets of keys
+ * collected, for up to {@link #MAX_EXACT_KEYS} keys. More keys are ordered by always walking to the nearest key next,
+ * improved by reversing parts of the order (2-opt) for as long as that makes the walk shorter.
+ * Exits block until all keys are collected and end the game when walked into, so the walk never leads through one.
+ * Traps and enemies do not block, but the walk can be asked to go around traps.
+ */
+public class MazeSolver {
+
+    /** Up to this many keys the shortest order of the keys is found exactly. */
+    public static final int MAX_EXACT_KEYS = 16;
+    /** The distance of what cannot be reached. */
+    public static final int UNREACHABLE = -1;
+
+    private static final int[] STEP_X = {0, 0, -1, 1};
+    private static final int[] STEP_Y = {1, -1, 0, 0};
+
+    private final TileMap maze;
+    private final int width;
+    private final int height;
+    private final int[] distances;
+    private final int[] queue;
+    private final IntArray keys = new IntArray();
+    private final IntArray exits = new IntArray();
+
+    /**
+     * Constructs a MazeSolver for a maze loaded as a whole.
+     *
+     * @param maze The maze.
+     */
+    public MazeSolver(TileMap maze) {
+        this.maze = maze;
+        this.width = maze.getWidth();
+        this.height = maze.getHeight();
+        this.distances = new int[width * height];
+        this.queue = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int tileId = maze.getTile(x, y);
+                if (tileId == MazeGrid.KEY) {
+                    keys.add(y * width + x);
+                } else if (tileId == MazeGrid.EXIT) {
+                    exits.add(y * width + x);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the shortest walk from the entry over every key to an exit.
+     *
+     * @param avoidTraps True to walk around traps, false to walk through them like over the floor.
+     * @return The solution, which tells what cannot be reached if the maze cannot be won.
+     */
+    public Solution solve(boolean avoidTraps) {
+        int keyCount = keys.size;
+        Solution solution = new Solution(keyCount, exits.size, maze.hasEntry());
+        if (!solution.hasEntry) {
+            return solution;
+        }
+        // The distances from the entry (row 0) and from every key (rows 1 to keyCount) to every key,
+        // and from each of them to the nearest exit
+        int[][] keyDistances = new int[keyCount + 1][keyCount];
+        int[] exitDistances = new int[keyCount + 1];
+        search(maze.getEntryY() * width + maze.getEntryX(), avoidTraps, keyDistances[0]);
+        exitDistances[0] = nearestExit();
+        for (int i = 0; i < keyCount; i++) {
+            if (keyDistances[0][i] != UNREACHABLE) {
+                solution.reachableKeys++;
+            }
+        }
+        solution.exitReachable = exitDistances[0] != UNREACHABLE;
+        if (solution.reachableKeys < keyCount || !solution.exitReachable) {
+            return solution;
+        }
+        for (int i = 0; i < keyCount; i++) {
+            search(keys.get(i), avoidTraps, keyDistances[i + 1]);
+            exitDistances[i + 1] = nearestExit();
+        }
+        solution.exact = keyCount <= MAX_EXACT_KEYS;
+        solution.length = solution.exact
+                ? orderExactly(keyDistances, exitDistances, solution.keyOrder)
+                : orderNearestFirst(keyDistances, exitDistances, solution.keyOrder);
+        for (int i = 0; i < keyCount; i++) {
+            int key = keys.get(solution.keyOrder[i]);
+            solution.keyX[i] = key % width;
+            solution.keyY[i] = key / width;
+        }
+        return solution;
+    }
+
+    /**
+     * Searches the walking distances from a tile to all tiles and copies the distances to the keys.
+     */
+    private void search(int start, boolean avoidTraps, int[] keyDistances) {
+        Arrays.fill(distances, UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+        distances[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int index = queue[head++];
+            int x = index % width;
+            int y = index / width;
+            int distance = distances[index] + 1;
+            for (int direction = 0; direction < 4; direction++) {
+                int nextX = x + STEP_X[direction];
+                int nextY = y + STEP_Y[direction];
+                if (nextX < 0 || nextY < 0 || nextX >= width || nextY >= height) {
+                    continue;
+                }
+                int next = nextY * width + nextX;
+                if (distances[next] != UNREACHABLE) {
+                    continue;
+                }
+                int tileId = maze.getTile(nextX, nextY);
+                if (tileId == MazeGrid.WALL || avoidTraps && tileId == MazeGrid.TRAP) {
+                    continue;
+                }
+                distances[next] = distance;
+                // An exit is reached but not walked through
+                if (tileId != MazeGrid.EXIT) {
+                    queue[tail++] = next;
+                }
+            }
+        }
+        for (int i = 0; i < keys.size; i++) {
+            keyDistances[i] = distances[keys.get(i)];
+        }
+    }
+
+    /**
+     * Gets the distance to the nearest exit found by the last search.
+     */
+    private int nearestExit() {
+        int nearest = UNREACHABLE;
+        for (int i = 0; i < exits.size; i++) {
+            int distance = distances[exits.get(i)];
+            if (distance != UNREACHABLE && (nearest == UNREACHABLE || distance < nearest)) {
+                nearest = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Finds the shortest order of the keys with dynamic programming: the shortest walk that collected a set of keys
+     * and stands on one of them is the shortest walk to one of the other keys of the set plus the last step.
+     *
+     * @return The length of the walk in tiles.
+     */
+    private static int orderExactly(int[][] keyDistances, int[] exitDistances, int[] order) {
+        int keyCount = order.length;
+        if (keyCount == 0) {
+            return exitDistances[0];
+        }
+        int sets = 1 << keyCount;
+        int[] lengths = new int[sets * keyCount];
+        Arrays.fill(lengths, Integer.MAX_VALUE);
+        for (int key = 0; key < keyCount; key++) {
+            lengths[(1 << key) * keyCount + key] = keyDistances[0][key];
+        }
+        for (int set = 1; set < sets; set++) {
+            for (int last = 0; last < keyCount; last++) {
+                int length = lengths[set * keyCount + last];
+                if (length == Integer.MAX_VALUE) {
+                    continue;
+                }
+                for (int next = 0; next < keyCount; next++) {
+                    if ((set & 1 << next) != 0) {
+                        continue;
+                    }
+                    int index = (set | 1 << next) * keyCount + next;
+                    lengths[index] = Math.min(lengths[index], length + keyDistances[last + 1][next]);
+                }
+            }
+        }
+        int all = sets - 1;
+        int best = Integer.MAX_VALUE;
+        int last = 0;
+        for (int key = 0; key < keyCount; key++) {
+            int length = lengths[all * keyCount + key] + exitDistances[key + 1];
+            if (length < best) {
+                best = length;
+                last = key;
+            }
+        }
+        // Walks the table back from the last key to find the order
+        int set = all;
+        for (int position = keyCount - 1; position >= 0; position--) {
+            order[position] = last;
+            int length = lengths[set * keyCount + last];
+            set &= ~(1 << last);
+            if (set == 0) {
+                break;
+            }
+            for (int previous = 0; previous < keyCount; previous++) {
+                if ((set & 1 << previous) != 0
+                        && lengths[set * keyCount + previous] + keyDistances[previous + 1][last] == length) {
+                    last = previous;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Orders the keys by walking to the nearest key not collected yet, then reverses parts of the order as long as
+     * that makes the walk shorter.
+     *
+     * @return The length of the walk in tiles.
+     */
+    private static int orderNearestFirst(int[][] keyDistances, int[] exitDistances, int[] order) {
+        int keyCount = order.length;
+        boolean[] collected = new boolean[keyCount];
+        int from = 0;
+        for (int position = 0; position < keyCount; position++) {
+            int nearest = -1;
+            for (int key = 0; key < keyCount; key++) {
+                if (!collected[key] && (nearest < 0 || keyDistances[from][key] < keyDistances[from][nearest])) {
+                    nearest = key;
+                }
+            }
+            order[position] = nearest;
+            collected[nearest] = true;
+            from = nearest + 1;
+        }
+        // Walking distances are the same both ways, so reversing a part only changes the steps into and out of it
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < keyCount - 1; i++) {
+                int before = i == 0 ? 0 : order[i - 1] + 1;
+                for (int j = i + 1; j < keyCount; j++) {
+                    int first = order[i];
+                    int last = order[j];
+                    int kept = keyDistances[before][first] + stepOut(keyDistances, exitDistances, order, j, last);
+                    int reversed = keyDistances[before][last] + stepOut(keyDistances, exitDistances, order, j, first);
+                    if (reversed < kept) {
+                        reverse(order, i, j);
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return walkLength(keyDistances, exitDistances, order);
+    }
+
+    /**
+     * Gets the length of the step from a key standing at a position of the order to what follows the position.
+     */
+    private static int stepOut(int[][] keyDistances, int[] exitDistances, int[] order, int position, int key) {
+        return position == order.length - 1 ? exitDistances[key + 1] : keyDistances[key + 1][order[position + 1]];
+    }
+
+    private static int walkLength(int[][] keyDistances, int[] exitDistances, int[] order) {
+        int length = 0;
+        int from = 0;
+        for (int key : order) {
+            length += keyDistances[from][key];
+            from = key + 1;
+        }
+        return length + exitDistances[from];
+    }
+
+    private static void reverse(int[] order, int from, int to) {
+        for (; from < to; from++, to--) {
+            int key = order[from];
+            order[from] = order[to];
+            order[to] = key;
+        }
+    }
+
+    /**
+     * The Solution class tells if a maze can be won and how.
+     */
+    public static class Solution {
+        /** Whether the maze has an entry. */
+        public final boolean hasEntry;
+        /** The number of keys in the maze. */
+        public final int keys;
+        /** The number of exits in the maze. */
+        public final int exits;
+        /** The number of keys that can be reached from the entry. */
+        public int reachableKeys;
+        /** Whether an exit can be reached from the entry. */
+        public boolean exitReachable;
+        /** The length of the shortest walk in tiles, or {@link #UNREACHABLE} if the maze cannot be won. */
+        public int length = UNREACHABLE;
+        /** Whether the order of the keys is the best one, or was found by the heuristic. */
+        public boolean exact;
+        /** The tiles of the keys in the order they are collected, if the maze can be won. */
+        public final int[] keyX;
+        public final int[] keyY;
+        final int[] keyOrder;
+
+        Solution(int keys, int exits, boolean hasEntry) {
+            this.keys = keys;
+            this.exits = exits;
+            this.hasEntry = hasEntry;
+            this.keyX = new int[keys];
+            this.keyY = new int[keys];
+            this.keyOrder = new int[keys];
+        }
+
+        /**
+         * Checks if the maze can be won.
+         *
+         * @return True if every key and then an exit can be reached from the entry.
+         */
+        public boolean isSolvable() {
+            return length != UNREACHABLE;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package de.tum.cit.ase.maze;
+
+import java.util.Random;
+
+/**
+ * The PathfindingBenchmark class compares flat A*, Jump Point Search and hierarchical pathfinding (HPA*)
+ * on a generated maze. The maze is a random labyrinth of one tile wide corridors with some walls knocked out,
+ * so that there is more than one way between most tiles.
+ * Every pathfinder runs all queries once to warm up before it is measured.
+ * Usage: PathfindingBenchmark [size] [queries] [seed] [sector size]
+ */
+public class PathfindingBenchmark {
+
+    /** The share of the walls between two corridors that is knocked out. */
+    private static final float LOOP_CHANCE = 0.1f;
+
+    /**
+     * The main method generates a maze and runs the same random queries with each pathfinder.
+     *
+     * @param args The width and height of the maze in tiles (default 1024), the number of queries (default 100),
+     *             the random seed (default 1) and the sector size of HPA* in tiles (default 16).
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int sectorSize = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        Random random = new Random(seed);
+
+        long start = System.nanoTime();
+        MazeGrid grid = generate(size, random);
+        CollisionGrid collisionGrid = new CollisionGrid(grid);
+        System.out.println("Maze " + size + "x" + size + " generated in " + millis(start) + " ms");
+
+        int[] queryTiles = new int[queries * 4];
+        for (int i = 0; i < queryTiles.length; i += 2) {
+            // Corridors and crossings lie on odd tiles
+            queryTiles[i] = 1 + 2 * random.nextInt((size - 1) / 2);
+            queryTiles[i + 1] = 1 + 2 * random.nextInt((size - 1) / 2);
+        }
+
+        Pathfinder aStar = new Pathfinder(collisionGrid, CollisionGrid.SOLID, 1, size, Integer.MAX_VALUE);
+        aStar.setJumpPointSearch(false);
+        long[] aStarLengths = run("A*", aStar, null, queryTiles);
+
+        Pathfinder jumpPoints = new Pathfinder(collisionGrid, CollisionGrid.SOLID, 1, size, Integer.MAX_VALUE);
+        run("Jump Point Search", jumpPoints, aStarLengths, queryTiles);
+
+        start = System.nanoTime();
+        HierarchicalPathfinder hierarchy = new HierarchicalPathfinder(collisionGrid, CollisionGrid.SOLID, sectorSize);
+        hierarchy.buildAll();
+        System.out.println("HPA* sectors of " + sectorSize + " tiles set up in " + millis(start) + " ms");
+        Pathfinder hierarchical = new Pathfinder(collisionGrid, CollisionGrid.SOLID, 1, size, Integer.MAX_VALUE);
+        hierarchical.setHierarchy(hierarchy, 0);
+        run("HPA*", hierarchical, aStarLengths, queryTiles);
+    }
+
+    /**
+     * Runs all queries with one pathfinder and prints the time taken, the nodes expanded and
+     * how much longer the paths are than the ones of A*.
+     *
+     * @return The lengths of the paths found.
+     */
+    private static long[] run(String name, Pathfinder pathfinder, long[] shortestLengths, int[] queryTiles) {
+        long[] lengths = new long[queryTiles.length / 4];
+        long start = 0;
+        for (int round = 0; round < 2; round++) {
+            // The first round lets the JIT compiler warm up and is not counted
+            pathfinder.resetStats();
+            start = System.nanoTime();
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] = pathfinder.findPath(queryTiles[4 * i], queryTiles[4 * i + 1],
+                        queryTiles[4 * i + 2], queryTiles[4 * i + 3]).getLength();
+                pathfinder.clearCache();
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        StringBuilder line = new StringBuilder();
+        line.append(String.format("%-18s %8.3f ms per query, %10d nodes expanded", name,
+                nanos / 1e6 / lengths.length, pathfinder.getNodesExpanded()));
+        if (shortestLengths != null) {
+            long total = 0;
+            long shortest = 0;
+            for (int i = 0; i < lengths.length; i++) {
+                total += lengths[i];
+                shortest += shortestLengths[i];
+            }
+            line.append(String.format(", paths %.2f%% longer", 100.0 * (total - shortest) / Math.max(1, shortest)));
+        }
+        System.out.println(line);
+        return lengths;
+    }
+
+    /**
+     * Generates a labyrinth with a randomized depth-first search over the odd tiles.
+     */
+    private static MazeGrid generate(int size, Random random) {
+        MazeGrid grid = new MazeGrid(size, size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                grid.setTile(x, y, MazeGrid.WALL);
+            }
+        }
+        int cells = (size - 1) / 2;
+        boolean[] visited = new boolean[cells * cells];
+        int[] stack = new int[cells * cells];
+        int[] directions = {0, 1, 2, 3};
+        int top = 0;
+        stack[top++] = 0;
+        visited[0] = true;
+        grid.setTile(1, 1, MazeGrid.EMPTY);
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int cellX = cell % cells;
+            int cellY = cell / cells;
+            shuffle(directions, random);
+            boolean moved = false;
+            for (int direction : directions) {
+                int nextX = cellX + FlowField.getStepX(direction);
+                int nextY = cellY + FlowField.getStepY(direction);
+                if (nextX < 0 || nextY < 0 || nextX >= cells || nextY >= cells || visited[nextY * cells + nextX]) {
+                    continue;
+                }
+                visited[nextY * cells + nextX] = true;
+                grid.setTile(2 * cellX + 1 + FlowField.getStepX(direction), 2 * cellY + 1 + FlowField.getStepY(direction),
+                        MazeGrid.EMPTY);
+                grid.setTile(2 * nextX + 1, 2 * nextY + 1, MazeGrid.EMPTY);
+                stack[top++] = nextY * cells + nextX;
+                moved = true;
+                break;
+            }
+            if (!moved) {
+                top--;
+            }
+        }
+        // Knock out some walls between corridors to make loops
+        for (int y = 1; y < size - 1; y++) {
+            for (int x = 1; x < size - 1; x++) {
+                if ((x + y) % 2 == 1 && grid.getTile(x, y) == MazeGrid.WALL && random.nextFloat() < LOOP_CHANCE) {
+                    grid.setTile(x, y, MazeGrid.EMPTY);
+                }
+            }
+        }
+        return grid;
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    private static long millis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
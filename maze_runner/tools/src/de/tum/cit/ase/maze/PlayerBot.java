@@ -0,0 +1,42 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The PlayerBot interface plays the character in place of a player: it chooses the buttons held down in every step.
+ * Each bot plays one game, so it may keep state between steps.
+ */
+public interface PlayerBot {
+
+    /** The names of the policies {@link #create(String, Simulation, long)} knows, from the weakest to the strongest. */
+    String[] POLICIES = {"idle", "random", "seeker"};
+
+    /**
+     * Chooses the buttons held down in the next step.
+     *
+     * @param simulation The game the bot plays.
+     * @return A combination of the buttons of {@link InputComponent}.
+     */
+    int getButtons(Simulation simulation);
+
+    /**
+     * Creates a bot that plays by the given policy: "idle" stands still, "random" walks around at random and
+     * "seeker" walks the shortest way to the nearest key and, once it has all keys, to the nearest exit.
+     *
+     * @param policy     The name of the policy.
+     * @param simulation The game the bot will play.
+     * @param seed       The seed of the bot's random numbers.
+     * @return The bot.
+     * @throws IllegalArgumentException If the policy is unknown.
+     */
+    static PlayerBot create(String policy, Simulation simulation, long seed) {
+        switch (policy) {
+            case "idle":
+                return s -> 0;
+            case "random":
+                return new RandomBot(seed);
+            case "seeker":
+                return new SeekerBot(simulation, seed);
+            default:
+                throw new IllegalArgumentException("Unknown policy " + policy);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * The RandomBot class walks the character around at random. It holds one direction, or none,
+ * for a random time before it picks the next one, like a player who does not know the maze.
+ */
+public class RandomBot implements PlayerBot {
+
+    // The shortest and longest time a direction is held, in steps
+    private static final int MIN_HOLD = 30;
+    private static final int MAX_HOLD = 180;
+    private static final int[] BUTTONS = {0, InputComponent.UP, InputComponent.DOWN, InputComponent.LEFT,
+            InputComponent.RIGHT};
+
+    private final RandomXS128 random;
+    private int buttons;
+    private int stepsLeft;
+
+    /**
+     * Constructs a RandomBot.
+     *
+     * @param seed The seed of the random numbers.
+     */
+    public RandomBot(long seed) {
+        this.random = new RandomXS128(seed);
+    }
+
+    @Override
+    public int getButtons(Simulation simulation) {
+        if (stepsLeft-- <= 0) {
+            buttons = BUTTONS[random.nextInt(BUTTONS.length)];
+            stepsLeft = MIN_HOLD + random.nextInt(MAX_HOLD - MIN_HOLD + 1);
+        }
+        return buttons;
+    }
+}
@@ -0,0 +1,99 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * The ReplayPlayer class plays a {@link Replay} without graphics and checks that the game ends the same way
+ * as when it was recorded: after the same number of steps, with the same outcome and the same checksum of the state.
+ * A game that ends differently shows that the game logic changed, or that something outside the steps leaked in.
+ * By default the replay is played as fast as possible; a speed plays it that many times as fast as real time.
+ * Usage: ReplayPlayer &lt;replay file&gt; [maps directory] [speed]
+ */
+public class ReplayPlayer {
+
+    /**
+     * The main method plays the replay and exits with 1 if the game ended differently than when it was recorded.
+     *
+     * @param args The replay file (required), the directory the map is looked for in if it is not found at the path
+     *             it was recorded with (default the directory of the replay) and the speed (default as fast as possible).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayPlayer <replay file> [maps directory] [speed]");
+            System.exit(1);
+        }
+        FileHandle replayFile = new FileHandle(new File(args[0]));
+        FileHandle mapsDirectory = args.length > 1 ? new FileHandle(new File(args[1])) : replayFile.parent();
+        float speed = args.length > 2 ? Float.parseFloat(args[2]) : 0;
+        Replay replay;
+        MazeLevel level;
+        try {
+            replay = Replay.read(replayFile);
+            FileHandle mapFile = replay.findMap(mapsDirectory);
+            if (mapFile == null) {
+                System.err.println("The map " + replay.getMapPath() + " was not found");
+                System.exit(1);
+            }
+            level = MazeLevel.open(mapFile);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (level.getChunkedMaze() != null) {
+            // Streamed maps create their objects as the chunks arrive, so the game cannot be played the same way again
+            System.err.println("The map " + replay.getMapPath() + " is streamed in chunks and cannot be replayed exactly");
+            level.dispose();
+            System.exit(1);
+        }
+        TileMap world = level.getWorld();
+        level.setSeed(replay.getSeed());
+        level.findObjects(0, 0, world.getWidth() - 1, world.getHeight() - 1);
+        level.createObjects();
+        Simulation simulation = new Simulation(level, new Vector2(replay.getStartX(), replay.getStartY()), 1);
+        simulation.getCharacter().setHealth(replay.getStartHealth());
+        simulation.setPlayback(replay);
+
+        long start = System.nanoTime();
+        if (speed <= 0) {
+            while (simulation.isRunning() && simulation.getSteps() < replay.getSteps()) {
+                simulation.step();
+            }
+        } else {
+            // Runs the steps the elapsed time allows, like the game does, but with the time sped up
+            long last = start;
+            while (simulation.isRunning() && simulation.getSteps() < replay.getSteps()) {
+                Thread.sleep(1);
+                long now = System.nanoTime();
+                float delta = (now - last) / 1e9f * speed;
+                last = now;
+                int stepsLeft = (int) Math.min(replay.getSteps() - simulation.getSteps(), Integer.MAX_VALUE);
+                simulation.advance(Math.min(delta, stepsLeft * Simulation.STEP));
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        simulation.dispose();
+        level.dispose();
+
+        double seconds = nanos / 1e9;
+        double gameSeconds = simulation.getSteps() * Simulation.STEP;
+        System.out.printf(Locale.ROOT, "%s: %d steps (%.1f s of game time) played in %.3f s, %.0f steps per second, "
+                        + "%.1f times real time%n", replayFile.name(), simulation.getSteps(), gameSeconds, seconds,
+                simulation.getSteps() / seconds, gameSeconds / seconds);
+        byte outcome = simulation.isWon() ? Replay.WON : simulation.isLost() ? Replay.LOST : Replay.UNFINISHED;
+        if (simulation.getSteps() != replay.getSteps() || outcome != replay.getOutcome()
+                || simulation.getChecksum() != replay.getChecksum()) {
+            System.out.printf("The game ended differently: %d steps, outcome %d, checksum %08x; "
+                            + "recorded were %d steps, outcome %d, checksum %08x%n",
+                    simulation.getSteps(), outcome, simulation.getChecksum(),
+                    replay.getSteps(), replay.getOutcome(), replay.getChecksum());
+            System.exit(1);
+        }
+        System.out.println("The game ended as recorded");
+    }
+}
@@ -0,0 +1,128 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The SeekerBot class walks the character the shortest way to the nearest key it has not collected yet and,
+ * once it has all keys, to the nearest exit. The way is looked up in a {@link FlowField} around the goal,
+ * which is only searched again when the goal changes. It walks around traps when it can, and through them when
+ * there is no other way, but it does not look out for enemies.
+ * When no goal can be reached, it walks around at random instead.
+ */
+public class SeekerBot implements PlayerBot {
+
+    /** The largest distance in tiles the bot finds its way from; mazes beyond it are only partly seen. */
+    private static final int MAX_RADIUS = 256;
+    /** How close to the middle of a tile the character has to be, in world units, before it stops moving. */
+    private static final float CLOSE_ENOUGH = 1;
+
+    private final FlowField safeField;
+    private final FlowField directField;
+    private final RandomBot lost;
+    private final Vector2 center = new Vector2();
+
+    /**
+     * Constructs a SeekerBot for a game.
+     *
+     * @param simulation The game the bot will play.
+     * @param seed       The seed of the random numbers used when no goal can be reached.
+     */
+    public SeekerBot(Simulation simulation, long seed) {
+        TileMap world = simulation.getLevel().getWorld();
+        int radius = Math.min(MAX_RADIUS, Math.max(world.getWidth(), world.getHeight()));
+        CollisionGrid collisionGrid = simulation.getLevel().getCollisionGrid();
+        // Closed exits block like walls, so the way to the keys does not lead through them
+        this.directField = new FlowField(collisionGrid, CollisionGrid.SOLID | CollisionGrid.EXIT, radius);
+        this.safeField = new FlowField(collisionGrid, CollisionGrid.SOLID | CollisionGrid.EXIT, radius) {
+            @Override
+            protected boolean isBlocked(int tileX, int tileY) {
+                return super.isBlocked(tileX, tileY) || world.getTile(tileX, tileY) == MazeGrid.TRAP;
+            }
+        };
+        this.lost = new RandomBot(seed);
+    }
+
+    @Override
+    public int getButtons(Simulation simulation) {
+        MazeLevel level = simulation.getLevel();
+        simulation.getCharacter().getBoundingBox().getCenter(center);
+        int tileX = toTile(center.x);
+        int tileY = toTile(center.y);
+        if (!findGoal(level, simulation.getCharacter(), center)) {
+            return lost.getButtons(simulation);
+        }
+        FlowField flowField = safeField.getDistance(tileX, tileY) != FlowField.UNREACHABLE ? safeField : directField;
+        int direction = flowField.getNextStep(tileX, tileY);
+        if (direction < 0 && flowField.getDistance(tileX, tileY) != 0) {
+            return lost.getButtons(simulation);
+        }
+        // Aims at the middle of the next tile, so the character does not catch on the corners of walls
+        int nextX = direction < 0 ? tileX : tileX + FlowField.getStepX(direction);
+        int nextY = direction < 0 ? tileY : tileY + FlowField.getStepY(direction);
+        float dx = (nextX + 0.5f) * MazeGrid.TILE_SIZE - center.x;
+        float dy = (nextY + 0.5f) * MazeGrid.TILE_SIZE - center.y;
+        int buttons = 0;
+        if (dx > CLOSE_ENOUGH) {
+            buttons |= InputComponent.RIGHT;
+        } else if (dx < -CLOSE_ENOUGH) {
+            buttons |= InputComponent.LEFT;
+        }
+        if (dy > CLOSE_ENOUGH) {
+            buttons |= InputComponent.UP;
+        } else if (dy < -CLOSE_ENOUGH) {
+            buttons |= InputComponent.DOWN;
+        }
+        return buttons;
+    }
+
+    /**
+     * Points the flow field at the nearest key not collected yet, or at the nearest exit once all keys are collected.
+     *
+     * @return True if there is a goal, false otherwise.
+     */
+    private boolean findGoal(MazeLevel level, Character character, Vector2 from) {
+        float nearestDistance = Float.MAX_VALUE;
+        int goalX = 0;
+        int goalY = 0;
+        if (character.getCollectedKeys() < level.getTotalKeys()) {
+            Array<Coin> keys = level.getKeys();
+            for (int i = 0; i < keys.size; i++) {
+                Coin key = keys.get(i);
+                Rectangle keyBounds = key.getBounds();
+                float x = keyBounds.x + keyBounds.width / 2;
+                float y = keyBounds.y + keyBounds.height / 2;
+                float distance = from.dst2(x, y);
+                if (!key.isActivated() && distance < nearestDistance) {
+                    nearestDistance = distance;
+                    goalX = toTile(x);
+                    goalY = toTile(y);
+                }
+            }
+        } else {
+            Array<ExitPoint> exitPoints = level.getExitPoints();
+            for (int i = 0; i < exitPoints.size; i++) {
+                Rectangle exitBounds = exitPoints.get(i).getBounds();
+                float x = exitBounds.x + exitBounds.width / 2;
+                float y = exitBounds.y + exitBounds.height / 2;
+                float distance = from.dst2(x, y);
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    goalX = toTile(x);
+                    goalY = toTile(y);
+                }
+            }
+        }
+        if (nearestDistance == Float.MAX_VALUE) {
+            return false;
+        }
+        safeField.setTarget(goalX, goalY);
+        directField.setTarget(goalX, goalY);
+        return true;
+    }
+
+    private static int toTile(float worldCoordinate) {
+        return (int) Math.floor(worldCoordinate / MazeGrid.TILE_SIZE);
+    }
+}
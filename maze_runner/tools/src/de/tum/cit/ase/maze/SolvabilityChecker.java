@@ -0,0 +1,127 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The SolvabilityChecker class checks that maps can be won, with a {@link MazeSolver}: that they have an entry,
+ * that every key can be reached from it and that an exit can be reached afterwards. For maps that can be won,
+ * it prints the shortest walk through all keys, and if the walk has to cross traps, it says so.
+ * The maps are checked in parallel, each on its own thread, and the time taken to load and to solve each map
+ * is reported.
+ * Usage: SolvabilityChecker &lt;map file or directory&gt; [threads]
+ */
+public class SolvabilityChecker {
+
+    /**
+     * The main method checks every map given on the command line or found in a given directory.
+     * It exits with 1 if any map cannot be won or read.
+     *
+     * @param args The map file or directory (required) and the number of threads (default the number of cores).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: SolvabilityChecker <map file or directory> [threads]");
+            System.exit(1);
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        File input = new File(args[0]);
+        File[] files = input.isDirectory()
+                ? input.listFiles((dir, name) -> name.endsWith(".properties"))
+                : new File[]{input};
+        if (files == null) {
+            System.err.println("Cannot list " + input);
+            System.exit(1);
+        }
+
+        List<Callable<Report>> checks = new ArrayList<>();
+        for (File file : files) {
+            checks.add(() -> check(file));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<Report>> reports = executor.invokeAll(checks);
+        long nanos = System.nanoTime() - start;
+        executor.shutdown();
+        int failed = 0;
+        for (int i = 0; i < files.length; i++) {
+            try {
+                Report report = reports.get(i).get();
+                System.out.println(report.line);
+                if (!report.solvable) {
+                    failed++;
+                }
+            } catch (ExecutionException e) {
+                System.err.println(files[i] + ": " + e.getCause().getMessage());
+                failed++;
+            }
+        }
+        System.out.printf(Locale.ROOT, "%d maps checked on %d threads in %.1f ms, %d cannot be won%n",
+                files.length, threads, nanos / 1e6, failed);
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    /**
+     * Loads and solves one map.
+     *
+     * @param mapFile The map.
+     * @return If the map can be won, and one line that tells how and how long it took to find out.
+     * @throws Exception If the map cannot be read.
+     */
+    private static Report check(File mapFile) throws Exception {
+        long start = System.nanoTime();
+        MazeGrid maze = MazeGrid.load(new FileHandle(mapFile));
+        long loaded = System.nanoTime();
+        MazeSolver solver = new MazeSolver(maze);
+        MazeSolver.Solution solution = solver.solve(true);
+        MazeSolver.Solution throughTraps = solution.isSolvable() ? solution : solver.solve(false);
+        long solved = System.nanoTime();
+
+        StringBuilder report = new StringBuilder(mapFile.getName()).append(": ");
+        if (!throughTraps.hasEntry) {
+            report.append("cannot be won, it has no entry");
+        } else if (throughTraps.reachableKeys < throughTraps.keys) {
+            report.append("cannot be won, ").append(throughTraps.keys - throughTraps.reachableKeys).append(" of ")
+                    .append(throughTraps.keys).append(" keys cannot be reached");
+        } else if (!throughTraps.exitReachable) {
+            report.append(throughTraps.exits == 0 ? "cannot be won, it has no exit"
+                    : "cannot be won, no exit can be reached");
+        } else {
+            report.append("solvable in ").append(throughTraps.length).append(" steps");
+            if (solution != throughTraps) {
+                report.append(" only by crossing traps");
+            }
+            if (throughTraps.keys > 0) {
+                report.append(throughTraps.exact ? ", best key order" : ", key order found by heuristic");
+            }
+            for (int i = 0; i < throughTraps.keys; i++) {
+                report.append(i == 0 ? " " : " > ").append(throughTraps.keyX[i]).append(',').append(throughTraps.keyY[i]);
+            }
+        }
+        report.append(String.format(Locale.ROOT, " (%dx%d, loaded in %.2f ms, solved in %.2f ms)",
+                maze.getWidth(), maze.getHeight(), (loaded - start) / 1e6, (solved - loaded) / 1e6));
+        return new Report(report.toString(), throughTraps.isSolvable());
+    }
+
+    /**
+     * The Report class holds the result of checking one map.
+     */
+    private static class Report {
+        final String line;
+        final boolean solvable;
+
+        Report(String line, boolean solvable) {
+            this.line = line;
+            this.solvable = solvable;
+        }
+    }
+}
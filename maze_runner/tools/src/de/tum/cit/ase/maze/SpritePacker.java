@@ -0,0 +1,40 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+
+/**
+ * The SpritePacker class packs the sprite sheets of the game into the single texture atlas read by {@code Sprites}.
+ * Every sheet is packed whole and keeps its file name as region name; {@code Sprites} cuts the single
+ * tiles and animation frames out of the packed sheets.
+ * The tools do not depend on the rendering module, so the atlas file name is repeated here.
+ * Usage: SpritePacker &lt;sprite directory&gt; &lt;assets directory&gt;
+ */
+public class SpritePacker {
+
+    /** The name of the atlas without its extension, as {@code Sprites.ATLAS_FILE} reads it. */
+    private static final String PACK_FILE_NAME = "sprites";
+
+    /**
+     * The main method packs the sheets in the sprite directory into the assets directory,
+     * unless the atlas is newer than all of them.
+     *
+     * @param args The sprite directory and the assets directory.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: SpritePacker <sprite directory> <assets directory>");
+            System.exit(1);
+        }
+        TexturePacker.Settings settings = new TexturePacker.Settings();
+        settings.maxWidth = 1024;
+        settings.maxHeight = 1024;
+        // The sheets are cut into frames by position, so they must be packed exactly as they are
+        settings.stripWhitespaceX = false;
+        settings.stripWhitespaceY = false;
+        settings.rotation = false;
+        settings.filterMin = Texture.TextureFilter.Nearest;
+        settings.filterMag = Texture.TextureFilter.Nearest;
+        TexturePacker.processIfModified(settings, args[0], args[1], PACK_FILE_NAME);
+    }
+}